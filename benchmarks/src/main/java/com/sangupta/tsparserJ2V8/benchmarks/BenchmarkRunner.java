@@ -0,0 +1,55 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 
+ * Runs the benchmarks with the GC profiler attached, so every result also
+ * reports allocation rate and bytes allocated per operation, and writes
+ * the results as JSON for comparison between runs. Any regular JMH
+ * command line option may be passed, e.g. a benchmark name filter or
+ * <code>-rff other.json</code>.
+ * 
+ * <pre>
+ * java -jar target/benchmarks.jar [jmh options]
+ * </pre>
+ *
+ */
+public class BenchmarkRunner {
+	
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+	
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		
+		Options options = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+				.result(commandLine.getResult().orElse(DEFAULT_RESULT_FILE))
+				.build();
+		
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,78 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * 
+ * The fixed set of sources the benchmarks parse. The small and medium
+ * files are classpath resources; the huge file is generated from the
+ * medium one so that it does not bloat the repository, and is the same on
+ * every run.
+ *
+ */
+public class Corpus {
+	
+	public static final String SMALL = "small.tsx";
+	
+	public static final String MEDIUM = "medium.ts";
+	
+	public static final String HUGE = "huge.ts";
+	
+	/**
+	 * Number of copies of the medium file in the huge one
+	 */
+	private static final int HUGE_COPIES = 200;
+	
+	/**
+	 * Return the source of the given corpus file.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public static String load(String name) {
+		if(HUGE.equals(name)) {
+			return generateHuge();
+		}
+		
+		try(InputStream stream = Corpus.class.getResourceAsStream("corpus/" + name)) {
+			if(stream == null) {
+				throw new IllegalArgumentException("No such corpus file: " + name);
+			}
+			
+			return IOUtils.toString(stream, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read corpus file: " + name, e);
+		}
+	}
+	
+	private static String generateHuge() {
+		String medium = load(MEDIUM);
+		StringBuilder builder = new StringBuilder(medium.length() * HUGE_COPIES + HUGE_COPIES * 16);
+		for(int copy = 0; copy < HUGE_COPIES; copy++) {
+			// redeclared names are a type error, not a syntax error, so the
+			// parser does not care
+			builder.append("// copy ").append(copy).append('\n');
+			builder.append(medium);
+		}
+		
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,143 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.eclipsesource.v8.V8Object;
+import com.eclipsesource.v8.utils.V8ObjectUtils;
+import com.google.gson.Gson;
+import com.sangupta.tsparserJ2V8.AstConverter;
+import com.sangupta.tsparserJ2V8.TypescriptLibrary;
+import com.sangupta.tsparserJ2V8.TypescriptRuntime;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+/**
+ * 
+ * Measures each phase of parsing one corpus file on an already warm
+ * runtime. The input of every phase is prepared once per trial, so each
+ * benchmark times only its own phase:
+ * 
+ * <ul>
+ * <li><code>createSourceFile</code> - <code>ts.createSourceFile</code>,
+ * returning the handle to Java</li>
+ * <li><code>projectedParse</code> - parse and project to JSON in V8, the
+ * path {@link com.sangupta.tsparserJ2V8.TypescriptParser} takes</li>
+ * <li><code>toMap</code> - <code>V8ObjectUtils.toMap</code> over the full
+ * source file object</li>
+ * <li><code>jsonDecode</code> - Gson reading the projected JSON into a
+ * map</li>
+ * <li><code>convertToAst</code> - {@link AstConverter} over that map</li>
+ * <li><code>gsonSerialize</code> - Gson writing the converted AST</li>
+ * </ul>
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(2)
+public class PhaseBenchmark {
+	
+	private static final Gson GSON = new Gson();
+	
+	@Param({ Corpus.SMALL, Corpus.MEDIUM, Corpus.HUGE })
+	public String file;
+	
+	private String code;
+	
+	private TypescriptRuntime runtime;
+	
+	private V8Object sourceFileObject;
+	
+	private String json;
+	
+	private Map<String, Object> map;
+	
+	private SourceFile sourceFile;
+	
+	/**
+	 * Runs on the benchmark thread, which therefore holds the V8 lock of the
+	 * runtime for the whole trial
+	 */
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		this.code = Corpus.load(this.file);
+		this.runtime = TypescriptRuntime.create(TypescriptLibrary.bundled());
+		
+		this.sourceFileObject = this.runtime.createSourceFileObject(this.file, this.code);
+		this.json = this.runtime.createSourceFile(this.file, this.code);
+		this.map = GSON.fromJson(this.json, Map.class);
+		this.sourceFile = AstConverter.convertToAst(this.map, SourceFile.class);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.sourceFileObject.release();
+		this.runtime.release();
+	}
+	
+	@Benchmark
+	public int createSourceFile() {
+		V8Object result = this.runtime.createSourceFileObject(this.file, this.code);
+		try {
+			return result.getInteger("kind");
+		} finally {
+			result.release();
+		}
+	}
+	
+	@Benchmark
+	public String projectedParse() {
+		return this.runtime.createSourceFile(this.file, this.code);
+	}
+	
+	@Benchmark
+	public Map<String, ? super Object> toMap() {
+		return V8ObjectUtils.toMap(this.sourceFileObject);
+	}
+	
+	@Benchmark
+	public Object jsonDecode() {
+		return GSON.fromJson(this.json, Map.class);
+	}
+	
+	@Benchmark
+	public SourceFile convertToAst() {
+		return AstConverter.convertToAst(this.map, SourceFile.class);
+	}
+	
+	@Benchmark
+	public String gsonSerialize() {
+		return GSON.toJson(this.sourceFile);
+	}
+
+}
@@ -0,0 +1,78 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.eclipsesource.v8.NodeJS;
+import com.sangupta.tsparserJ2V8.TypescriptLibrary;
+
+/**
+ * 
+ * Measures the two one-time phases of a runtime: creating the NodeJS/V8
+ * runtime, and evaluating the Typescript library in it. Both are too slow
+ * to run in a tight loop, so each invocation is timed on its own.
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(2)
+public class RuntimeBenchmark {
+	
+	@State(Scope.Thread)
+	public static class FreshRuntime {
+		
+		final TypescriptLibrary library = TypescriptLibrary.bundled();
+		
+		NodeJS nodeJS;
+		
+		@Setup(Level.Invocation)
+		public void setup() {
+			this.nodeJS = NodeJS.createNodeJS();
+		}
+		
+		@TearDown(Level.Invocation)
+		public void tearDown() {
+			this.nodeJS.release();
+		}
+		
+	}
+	
+	@Benchmark
+	public void runtimeCreation() {
+		NodeJS nodeJS = NodeJS.createNodeJS();
+		nodeJS.release();
+	}
+	
+	@Benchmark
+	public void libraryLoad(FreshRuntime state) {
+		state.nodeJS.getRuntime().executeVoidScript(state.library.getSource(), state.library.getName(), 0);
+	}
+
+}
@@ -0,0 +1,225 @@
+import { EventEmitter } from 'events';
+import type { Readable } from 'stream';
+
+export enum LogLevel {
+    Trace = 0,
+    Debug,
+    Info,
+    Warn,
+    Error
+}
+
+export interface LogRecord {
+    level: LogLevel;
+    message: string;
+    timestamp: number;
+    context?: Record<string, unknown>;
+    error?: Error;
+}
+
+export type LogSink = (record: LogRecord) => void | Promise<void>;
+
+export type Formatter<T extends LogRecord = LogRecord> = {
+    format(record: T): string;
+    readonly name: string;
+};
+
+const DEFAULT_PATTERN = '[{level}] {timestamp} - {message}';
+
+function pad(value: number, width: number = 2): string {
+    let text = String(value);
+    while (text.length < width) {
+        text = '0' + text;
+    }
+
+    return text;
+}
+
+export function formatTimestamp(millis: number): string {
+    const date = new Date(millis);
+    return date.getUTCFullYear() + '-' + pad(date.getUTCMonth() + 1) + '-' + pad(date.getUTCDate())
+        + 'T' + pad(date.getUTCHours()) + ':' + pad(date.getUTCMinutes()) + ':' + pad(date.getUTCSeconds())
+        + '.' + pad(date.getUTCMilliseconds(), 3) + 'Z';
+}
+
+export class PatternFormatter implements Formatter {
+
+    readonly name = 'pattern';
+
+    constructor(private readonly pattern: string = DEFAULT_PATTERN) {
+    }
+
+    format(record: LogRecord): string {
+        return this.pattern.replace(/\{(\w+)\}/g, (match: string, key: string) => {
+            switch (key) {
+                case 'level':
+                    return LogLevel[record.level].toUpperCase();
+
+                case 'timestamp':
+                    return formatTimestamp(record.timestamp);
+
+                case 'message':
+                    return record.message;
+
+                default:
+                    return record.context && key in record.context ? String(record.context[key]) : match;
+            }
+        });
+    }
+}
+
+export class JsonFormatter implements Formatter {
+
+    readonly name = 'json';
+
+    format(record: LogRecord): string {
+        const { error, ...rest } = record;
+        return JSON.stringify(error ? { ...rest, error: { name: error.name, message: error.message, stack: error.stack } } : rest);
+    }
+}
+
+export abstract class BufferedSink<T> {
+
+    protected buffer: T[] = [];
+
+    private timer: ReturnType<typeof setTimeout> | null = null;
+
+    protected constructor(protected readonly capacity: number, protected readonly flushMillis: number) {
+    }
+
+    protected abstract write(items: ReadonlyArray<T>): Promise<void>;
+
+    push(item: T): void {
+        this.buffer.push(item);
+        if (this.buffer.length >= this.capacity) {
+            void this.flush();
+            return;
+        }
+
+        if (this.timer === null) {
+            this.timer = setTimeout(() => this.flush(), this.flushMillis);
+        }
+    }
+
+    async flush(): Promise<void> {
+        if (this.timer !== null) {
+            clearTimeout(this.timer);
+            this.timer = null;
+        }
+
+        if (this.buffer.length === 0) {
+            return;
+        }
+
+        const items = this.buffer;
+        this.buffer = [];
+        try {
+            await this.write(items);
+        } catch (e) {
+            // put the items back, newest last
+            this.buffer = items.concat(this.buffer);
+            throw e;
+        }
+    }
+}
+
+export class Logger extends EventEmitter {
+
+    private readonly sinks: Map<string, LogSink> = new Map();
+
+    private level: LogLevel = LogLevel.Info;
+
+    constructor(public readonly name: string, private readonly parent?: Logger) {
+        super();
+    }
+
+    child(name: string): Logger {
+        return new Logger(this.name + '.' + name, this);
+    }
+
+    setLevel(level: LogLevel): this {
+        this.level = level;
+        return this;
+    }
+
+    addSink(id: string, sink: LogSink): () => void {
+        this.sinks.set(id, sink);
+        return () => {
+            this.sinks.delete(id);
+        };
+    }
+
+    isEnabled(level: LogLevel): boolean {
+        return level >= this.level;
+    }
+
+    trace(message: string, context?: Record<string, unknown>): void {
+        this.log(LogLevel.Trace, message, context);
+    }
+
+    debug(message: string, context?: Record<string, unknown>): void {
+        this.log(LogLevel.Debug, message, context);
+    }
+
+    info(message: string, context?: Record<string, unknown>): void {
+        this.log(LogLevel.Info, message, context);
+    }
+
+    warn(message: string, context?: Record<string, unknown>): void {
+        this.log(LogLevel.Warn, message, context);
+    }
+
+    error(message: string, error?: Error, context?: Record<string, unknown>): void {
+        this.log(LogLevel.Error, message, context, error);
+    }
+
+    private log(level: LogLevel, message: string, context?: Record<string, unknown>, error?: Error): void {
+        if (!this.isEnabled(level)) {
+            return;
+        }
+
+        const record: LogRecord = { level, message, timestamp: Date.now(), context, error };
+        this.dispatch(record);
+    }
+
+    private dispatch(record: LogRecord): void {
+        for (const [id, sink] of this.sinks) {
+            try {
+                const result = sink(record);
+                if (result instanceof Promise) {
+                    result.catch((e: unknown) => this.emit('sinkError', id, e));
+                }
+            } catch (e) {
+                this.emit('sinkError', id, e);
+            }
+        }
+
+        this.parent?.dispatch(record);
+    }
+}
+
+export async function readLines(stream: Readable, onLine: (line: string, index: number) => boolean | void): Promise<number> {
+    let pending = '';
+    let index = 0;
+
+    for await (const chunk of stream) {
+        pending += typeof chunk === 'string' ? chunk : chunk.toString('utf8');
+
+        let newline: number;
+        while ((newline = pending.indexOf('\n')) >= 0) {
+            const line = pending.substring(0, newline);
+            pending = pending.substring(newline + 1);
+            if (onLine(line, index++) === false) {
+                return index;
+            }
+        }
+    }
+
+    if (pending.length > 0) {
+        onLine(pending, index++);
+    }
+
+    return index;
+}
+
+export const rootLogger = new Logger('root');
@@ -0,0 +1,77 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics.jfr;
+
+import jdk.jfr.EventType;
+
+import com.sangupta.tsparserJ2V8.metrics.ParseMetrics;
+import com.sangupta.tsparserJ2V8.metrics.ParsePhase;
+import com.sangupta.tsparserJ2V8.metrics.ParseSample;
+
+/**
+ * 
+ * Emits every measurement as a JFR event, so parses can be lined up with
+ * GC pauses, safepoints and thread states in the same recording. Enable
+ * <code>com.sangupta.tsparserJ2V8.Parse</code> and
+ * <code>com.sangupta.tsparserJ2V8.SourceRead</code> in the recording
+ * settings; nothing is sampled while no recording has them enabled.
+ *
+ */
+public class JfrParseMetrics implements ParseMetrics {
+	
+	private static final EventType PARSE_EVENT = EventType.getEventType(ParseEvent.class);
+	
+	@Override
+	public boolean isEnabled() {
+		return PARSE_EVENT.isEnabled();
+	}
+	
+	@Override
+	public void recordRead(String fileName, long bytes, long nanos) {
+		SourceReadEvent event = new SourceReadEvent();
+		if(!event.isEnabled()) {
+			return;
+		}
+		
+		event.fileName = fileName;
+		event.bytes = bytes;
+		event.readTime = nanos;
+		event.commit();
+	}
+	
+	@Override
+	public void recordParse(ParseSample sample) {
+		ParseEvent event = new ParseEvent();
+		if(!event.isEnabled()) {
+			return;
+		}
+		
+		event.fileName = sample.fileName;
+		event.fileCount = sample.fileCount;
+		event.cacheHit = sample.cacheHit;
+		event.totalTime = sample.getTotalNanos();
+		event.cacheTime = sample.getPhaseNanos(ParsePhase.CACHE);
+		event.checkoutTime = sample.getPhaseNanos(ParsePhase.CHECKOUT);
+		event.v8ParseTime = sample.getPhaseNanos(ParsePhase.V8_PARSE);
+		event.decodeTime = sample.getPhaseNanos(ParsePhase.DECODE);
+		event.convertTime = sample.getPhaseNanos(ParsePhase.CONVERT);
+		event.nodeCount = sample.nodeCount;
+		event.bytesMarshalled = sample.bytesMarshalled;
+		event.liveHandles = sample.liveHandles;
+		event.heapUsed = sample.heapUsed;
+		event.heapTotal = sample.heapTotal;
+		event.commit();
+	}
+
+}
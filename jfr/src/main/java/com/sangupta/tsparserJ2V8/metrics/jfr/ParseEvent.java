@@ -0,0 +1,88 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 
+ * JFR event for one call into the parser. JFR gives the event no duration
+ * of its own as it is committed once the call is over; the time of each
+ * phase is carried in its fields instead.
+ *
+ */
+@Name("com.sangupta.tsparserJ2V8.Parse")
+@Label("Typescript Parse")
+@Category({ "Typescript", "Parser" })
+@Description("One call into the Typescript parser, with the time spent in each phase")
+class ParseEvent extends Event {
+	
+	@Label("File")
+	String fileName;
+	
+	@Label("File Count")
+	int fileCount;
+	
+	@Label("Cache Hit")
+	boolean cacheHit;
+	
+	@Label("Total Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long totalTime;
+	
+	@Label("Cache Lookup Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long cacheTime;
+	
+	@Label("Runtime Checkout Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long checkoutTime;
+	
+	@Label("V8 Parse Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long v8ParseTime;
+	
+	@Label("JSON Decode Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long decodeTime;
+	
+	@Label("AST Conversion Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long convertTime;
+	
+	@Label("Node Count")
+	int nodeCount;
+	
+	@Label("Bytes Marshalled")
+	@DataAmount
+	long bytesMarshalled;
+	
+	@Label("Live V8 Handles")
+	long liveHandles;
+	
+	@Label("V8 Heap Used")
+	@DataAmount
+	long heapUsed;
+	
+	@Label("V8 Heap Total")
+	@DataAmount
+	long heapTotal;
+
+}
@@ -0,0 +1,44 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 
+ * JFR event for reading one source file from disk.
+ *
+ */
+@Name("com.sangupta.tsparserJ2V8.SourceRead")
+@Label("Typescript Source Read")
+@Category({ "Typescript", "Parser" })
+class SourceReadEvent extends Event {
+	
+	@Label("File")
+	String fileName;
+	
+	@Label("Size")
+	@DataAmount
+	long bytes;
+	
+	@Label("Read Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long readTime;
+
+}
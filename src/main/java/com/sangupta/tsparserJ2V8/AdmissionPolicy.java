@@ -0,0 +1,36 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+/**
+ * 
+ * What {@link AsyncTypescriptParser} does with a request when its
+ * admission queue is full.
+ *
+ */
+public enum AdmissionPolicy {
+	
+	/**
+	 * Fail the request right away with a
+	 * {@link java.util.concurrent.RejectedExecutionException}
+	 */
+	REJECT,
+	
+	/**
+	 * Block the caller until there is room, up to the admission timeout,
+	 * and fail the request if there is still none
+	 */
+	WAIT;
+
+}
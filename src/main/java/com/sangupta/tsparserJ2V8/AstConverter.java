@@ -0,0 +1,521 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.eclipsesource.v8.V8Value;
+import com.sangupta.jerry.util.ReflectionUtils;
+import com.sangupta.tsparserJ2V8.ast.AstNode;
+
+/**
+ * 
+ * Converts the map representation of a Typescript AST, as returned by
+ * <code>V8ObjectUtils.toMap()</code> or read from JSON, into strongly-typed
+ * AST objects.
+ * 
+ * Every AST class gets a {@link NodeBinder} that is computed once and
+ * cached. It holds a constructor handle and one pre-resolved setter or
+ * getter handle per public field, so converting a node does no reflection
+ * and builds no strings. When an {@link AstInterner} is given, strings and
+ * nodes built only from scalars and other such nodes are replaced by their
+ * canonical instances as they are bound.
+ *
+ */
+public class AstConverter {
+	
+	private static final ClassValue<NodeBinder<?>> BINDERS = new ClassValue<NodeBinder<?>>() {
+		
+		@Override
+		protected NodeBinder<?> computeValue(Class<?> type) {
+			return new NodeBinder<>(type);
+		}
+		
+	};
+	
+	public static <T> T convertToAst(Map<String, Object> map, Class<T> clazz) {
+		return convertToAst(map, clazz, null);
+	}
+	
+	/**
+	 * Convert the map, sharing strings and leaf nodes through the given
+	 * interner.
+	 * 
+	 * @param map
+	 * @param clazz
+	 * @param interner
+	 *            the interner to use, or <code>null</code> for none
+	 * 
+	 * @return
+	 */
+	public static <T> T convertToAst(Map<String, Object> map, Class<T> clazz, AstInterner interner) {
+		if(map == null) {
+			return null;
+		}
+		
+		return binderFor(clazz).bind(map, interner);
+	}
+	
+	/**
+	 * Make every list of the given tree unmodifiable, so that a tree shared
+	 * between callers cannot be changed by any of them. Lists that are
+	 * already unmodifiable are left as they are.
+	 * 
+	 * @param node
+	 */
+	public static void freeze(Object node) {
+		if(node == null) {
+			return;
+		}
+		
+		binderFor(node.getClass()).freeze(node);
+	}
+	
+	@SuppressWarnings("unchecked")
+	static <T> NodeBinder<T> binderFor(Class<T> clazz) {
+		return (NodeBinder<T>) BINDERS.get(clazz);
+	}
+	
+	/**
+	 * Check for missing values, including V8 <code>undefined</code> when the
+	 * map came from <code>V8ObjectUtils.toMap()</code>.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	static boolean isMissing(Object value) {
+		if(value == null) {
+			return true;
+		}
+		
+		return value instanceof V8Value && ((V8Value) value).isUndefined();
+	}
+	
+	/**
+	 * Binds a map to a new instance of one AST class.
+	 *
+	 * @param <T>
+	 */
+	static class NodeBinder<T> {
+		
+		private final Class<T> clazz;
+		
+		private final MethodHandle constructor;
+		
+		private final FieldBinder[] fields;
+		
+		/**
+		 * Whether instances may be shared through an {@link AstInterner}
+		 */
+		private final boolean shareable;
+		
+		/**
+		 * Whether instances need to be told when they are complete
+		 */
+		private final boolean completes;
+		
+		NodeBinder(Class<T> clazz) {
+			this.clazz = clazz;
+			
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			try {
+				this.constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+				
+				List<FieldBinder> binders = new ArrayList<>();
+				for(Field field : ReflectionUtils.getAllFields(clazz)) {
+					int modifiers = field.getModifiers();
+					if(!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)) {
+						continue;
+					}
+					
+					binders.add(FieldBinder.forField(lookup, field));
+				}
+				
+				this.fields = binders.toArray(new FieldBinder[binders.size()]);
+				this.shareable = isShareable(clazz, new HashSet<>());
+				this.completes = AstNode.class.isAssignableFrom(clazz) && clazz.getMethod("afterConversion").getDeclaringClass() != AstNode.class;
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new IllegalStateException("Unable to build AST binder for " + clazz.getName(), e);
+			}
+		}
+		
+		T bind(Map<String, Object> map, AstInterner interner) {
+			try {
+				@SuppressWarnings("unchecked")
+				T instance = (T) this.constructor.invokeExact();
+				
+				for(FieldBinder field : this.fields) {
+					Object value = map.get(field.name);
+					if(isMissing(value)) {
+						continue;
+					}
+					
+					field.bind(instance, value, interner);
+				}
+				
+				if(this.completes) {
+					((AstNode) instance).afterConversion();
+				}
+				
+				if(interner == null || !this.shareable) {
+					return instance;
+				}
+				
+				// children are canonical already, so the field values identify the node
+				Object[] values = new Object[this.fields.length + 1];
+				values[0] = this.clazz;
+				for(int index = 0; index < this.fields.length; index++) {
+					values[index + 1] = this.fields[index].reader.invokeExact(instance);
+				}
+				
+				return interner.canonical(values, instance);
+			} catch(RuntimeException e) {
+				throw e;
+			} catch(Throwable t) {
+				throw new RuntimeException("Unable to convert AST node to " + this.clazz.getName(), t);
+			}
+		}
+		
+		void freeze(Object instance) {
+			try {
+				for(FieldBinder field : this.fields) {
+					field.freeze(instance);
+				}
+			} catch(RuntimeException e) {
+				throw e;
+			} catch(Throwable t) {
+				throw new RuntimeException("Unable to freeze AST node of " + this.clazz.getName(), t);
+			}
+		}
+	}
+
+	/**
+	 * Check if instances of the given class hold nothing but scalars and
+	 * other shareable nodes, so that equal instances are interchangeable.
+	 * Classes that contain lists or refer back to themselves are not.
+	 * 
+	 * @param clazz
+	 * @param visiting
+	 * @return
+	 */
+	static boolean isShareable(Class<?> clazz, Set<Class<?>> visiting) {
+		if(!visiting.add(clazz)) {
+			return false;
+		}
+		
+		try {
+			for(Field field : ReflectionUtils.getAllFields(clazz)) {
+				int modifiers = field.getModifiers();
+				if(!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)) {
+					continue;
+				}
+				
+				Class<?> type = field.getType();
+				if(type.isPrimitive() || type == String.class) {
+					continue;
+				}
+				
+				if(Collection.class.isAssignableFrom(type) || !isShareable(type, visiting)) {
+					return false;
+				}
+			}
+			
+			return true;
+		} finally {
+			visiting.remove(clazz);
+		}
+	}
+	
+	/**
+	 * Binds the value of one field.
+	 */
+	static abstract class FieldBinder {
+		
+		final String name;
+		
+		/**
+		 * Reads the field back, boxed, to identify shareable nodes
+		 */
+		MethodHandle reader;
+		
+		FieldBinder(String name) {
+			this.name = name;
+		}
+		
+		abstract void bind(Object instance, Object value, AstInterner interner) throws Throwable;
+		
+		/**
+		 * Make the lists held by the field unmodifiable, down the tree.
+		 * 
+		 * @param instance
+		 * @throws Throwable
+		 */
+		void freeze(Object instance) throws Throwable {
+			// scalars are immutable
+		}
+		
+		static FieldBinder forField(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+			FieldBinder binder = create(lookup, field);
+			binder.reader = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+			return binder;
+		}
+		
+		private static FieldBinder create(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+			final Class<?> type = field.getType();
+			final String name = field.getName();
+			
+			if(Collection.class.isAssignableFrom(type)) {
+				MethodHandle getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Collection.class, Object.class));
+				
+				// list fields are mostly final, so replacing them needs access
+				MethodHandle freezer = null;
+				if(type == List.class) {
+					field.setAccessible(true);
+					freezer = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+				}
+				
+				return new ListBinder(name, getter, freezer, AstSchema.getNodeClass(field));
+			}
+			
+			MethodHandle setter = lookup.unreflectSetter(field);
+			if(type == int.class) {
+				return new IntBinder(name, setter.asType(MethodType.methodType(void.class, Object.class, int.class)));
+			}
+			
+			if(type == long.class) {
+				return new LongBinder(name, setter.asType(MethodType.methodType(void.class, Object.class, long.class)));
+			}
+			
+			if(type == double.class) {
+				return new DoubleBinder(name, setter.asType(MethodType.methodType(void.class, Object.class, double.class)));
+			}
+			
+			if(type == boolean.class) {
+				return new BooleanBinder(name, setter.asType(MethodType.methodType(void.class, Object.class, boolean.class)));
+			}
+			
+			setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			if(type == String.class) {
+				return new StringBinder(name, setter);
+			}
+			
+			return new NodeFieldBinder(name, setter, type);
+		}
+	}
+	
+	static class IntBinder extends FieldBinder {
+		
+		private final MethodHandle setter;
+		
+		IntBinder(String name, MethodHandle setter) {
+			super(name);
+			this.setter = setter;
+		}
+
+		@Override
+		void bind(Object instance, Object value, AstInterner interner) throws Throwable {
+			if(value instanceof Number) {
+				this.setter.invokeExact(instance, ((Number) value).intValue());
+			}
+		}
+	}
+
+	static class LongBinder extends FieldBinder {
+		
+		private final MethodHandle setter;
+		
+		LongBinder(String name, MethodHandle setter) {
+			super(name);
+			this.setter = setter;
+		}
+		
+		@Override
+		void bind(Object instance, Object value, AstInterner interner) throws Throwable {
+			if(value instanceof Number) {
+				this.setter.invokeExact(instance, ((Number) value).longValue());
+			}
+		}
+	}
+	
+	static class DoubleBinder extends FieldBinder {
+		
+		private final MethodHandle setter;
+		
+		DoubleBinder(String name, MethodHandle setter) {
+			super(name);
+			this.setter = setter;
+		}
+		
+		@Override
+		void bind(Object instance, Object value, AstInterner interner) throws Throwable {
+			if(value instanceof Number) {
+				this.setter.invokeExact(instance, ((Number) value).doubleValue());
+			}
+		}
+	}
+	
+	static class BooleanBinder extends FieldBinder {
+		
+		private final MethodHandle setter;
+		
+		BooleanBinder(String name, MethodHandle setter) {
+			super(name);
+			this.setter = setter;
+		}
+		
+		@Override
+		void bind(Object instance, Object value, AstInterner interner) throws Throwable {
+			if(value instanceof Boolean) {
+				this.setter.invokeExact(instance, ((Boolean) value).booleanValue());
+			}
+		}
+	}
+	
+	static class StringBinder extends FieldBinder {
+		
+		private final MethodHandle setter;
+		
+		StringBinder(String name, MethodHandle setter) {
+			super(name);
+			this.setter = setter;
+		}
+		
+		@Override
+		void bind(Object instance, Object value, AstInterner interner) throws Throwable {
+			String text = value instanceof String ? (String) value : value.toString();
+			if(interner != null) {
+				text = interner.intern(text);
+			}
+			
+			this.setter.invokeExact(instance, (Object) text);
+		}
+	}
+	
+	static class NodeFieldBinder extends FieldBinder {
+		
+		private final MethodHandle setter;
+		
+		private final Class<?> type;
+		
+		/**
+		 * Resolved on first use as AST classes may refer to themselves
+		 */
+		private NodeBinder<?> binder;
+		
+		NodeFieldBinder(String name, MethodHandle setter, Class<?> type) {
+			super(name);
+			this.setter = setter;
+			this.type = type;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		void bind(Object instance, Object value, AstInterner interner) throws Throwable {
+			if(!(value instanceof Map)) {
+				return;
+			}
+			
+			if(this.binder == null) {
+				this.binder = binderFor(this.type);
+			}
+			
+			this.setter.invokeExact(instance, (Object) this.binder.bind((Map<String, Object>) value, interner));
+		}
+		
+		@Override
+		void freeze(Object instance) throws Throwable {
+			AstConverter.freeze(this.reader.invokeExact(instance));
+		}
+	}
+	
+	static class ListBinder extends FieldBinder {
+		
+		private static final Set<Class<?>> FROZEN = new HashSet<>(Arrays.asList(Collections.unmodifiableList(new ArrayList<>()).getClass(), Collections.unmodifiableList(new LinkedList<>()).getClass()));
+		
+		private final MethodHandle getter;
+		
+		/**
+		 * Replaces the list, <code>null</code> if the field is not a list
+		 */
+		private final MethodHandle freezer;
+		
+		private final Class<?> elementType;
+		
+		/**
+		 * Resolved on first use as AST classes may refer to themselves
+		 */
+		private NodeBinder<?> binder;
+		
+		ListBinder(String name, MethodHandle getter, MethodHandle freezer, Class<?> elementType) {
+			super(name);
+			this.getter = getter;
+			this.freezer = freezer;
+			this.elementType = elementType;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		void bind(Object instance, Object value, AstInterner interner) throws Throwable {
+			if(this.elementType == null || !(value instanceof Collection)) {
+				return;
+			}
+			
+			Collection<Object> list = (Collection<Object>) this.getter.invokeExact(instance);
+			if(list == null) {
+				return;
+			}
+			
+			if(this.binder == null) {
+				this.binder = binderFor(this.elementType);
+			}
+			
+			for(Object item : (Collection<?>) value) {
+				if(item instanceof Map) {
+					list.add(this.binder.bind((Map<String, Object>) item, interner));
+				}
+			}
+		}
+		
+		@Override
+		void freeze(Object instance) throws Throwable {
+			Collection<?> list = (Collection<?>) this.getter.invokeExact(instance);
+			if(list == null || FROZEN.contains(list.getClass())) {
+				return;
+			}
+			
+			if(this.elementType != null) {
+				for(Object item : list) {
+					AstConverter.freeze(item);
+				}
+			}
+			
+			if(this.freezer != null) {
+				this.freezer.invokeExact(instance, (Object) Collections.unmodifiableList((List<?>) list));
+			}
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import com.eclipsesource.v8.JavaVoidCallback;
+import com.eclipsesource.v8.V8Array;
+import com.eclipsesource.v8.V8Object;
+import com.sangupta.tsparserJ2V8.ast.AstNode;
+
+/**
+ * 
+ * A single node reported to an {@link AstVisitor}. The same instance is
+ * filled in again for every event.
+ *
+ */
+public class AstEvent extends AstNode {
+	
+	/**
+	 * Number of integers per event in a chunk sent from the JS side
+	 */
+	static final int EVENT_WIDTH = 7;
+	
+	public int pos;
+	
+	public int end;
+	
+	public int depth;
+	
+	/**
+	 * The <code>escapedText</code> or <code>text</code> of the node, if any
+	 */
+	public String text;
+	
+	/**
+	 * The text of the node's <code>name</code>, if any
+	 */
+	public String name;
+	
+	@Override
+	public String toString() {
+		return "[AstEvent: Kind=" + this.kind + "; Pos=" + this.pos + "; End=" + this.end + "; Depth=" + this.depth + "]";
+	}
+	
+	/**
+	 * Decodes the chunks of events sent by the JS walker and dispatches them
+	 * to the visitor. The buffers are reused across chunks so that memory
+	 * use does not depend on the size of the file.
+	 */
+	static class Dispatcher implements JavaVoidCallback {
+		
+		private final AstEvent event = new AstEvent();
+		
+		private AstVisitor visitor;
+		
+		private int[] ints;
+		
+		private String[] strings;
+		
+		void start(AstVisitor visitor, int chunkSize) {
+			this.visitor = visitor;
+			
+			int size = chunkSize * EVENT_WIDTH;
+			if(this.ints == null || this.ints.length < size) {
+				this.ints = new int[size];
+				this.strings = new String[chunkSize * 2];
+			}
+		}
+		
+		void stop() {
+			this.visitor = null;
+		}
+		
+		@Override
+		public void invoke(V8Object receiver, V8Array parameters) {
+			V8Array ints = parameters.getArray(0);
+			V8Array strings = parameters.getArray(1);
+			try {
+				final int count = parameters.getInteger(2);
+				final int intCount = count * EVENT_WIDTH;
+				final int stringCount = strings.length();
+				
+				if(this.ints.length < intCount) {
+					this.ints = new int[intCount];
+				}
+				
+				if(this.strings.length < stringCount) {
+					this.strings = new String[stringCount];
+				}
+				
+				ints.getIntegers(0, intCount, this.ints);
+				if(stringCount > 0) {
+					strings.getStrings(0, stringCount, this.strings);
+				}
+				
+				this.dispatch(count);
+			} finally {
+				ints.release();
+				strings.release();
+			}
+		}
+
+		private void dispatch(int count) {
+			for(int index = 0; index < count; index++) {
+				int offset = index * EVENT_WIDTH;
+				
+				this.event.kind = this.ints[offset + 1];
+				this.event.pos = this.ints[offset + 2];
+				this.event.end = this.ints[offset + 3];
+				this.event.depth = this.ints[offset + 4];
+				this.event.text = this.stringAt(this.ints[offset + 5]);
+				this.event.name = this.stringAt(this.ints[offset + 6]);
+				
+				if(this.ints[offset] == 0) {
+					this.visitor.enter(this.event);
+				} else {
+					this.visitor.leave(this.event);
+				}
+			}
+		}
+		
+		private String stringAt(int index) {
+			if(index < 0) {
+				return null;
+			}
+			
+			return this.strings[index];
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * Hash-conses the output of {@link AstConverter}: equal strings become one
+ * instance, and so do equal nodes of the classes that hold nothing but
+ * scalars and other such nodes, like identifiers, modifiers, keyword
+ * literals and simple type references. Across a project the same names
+ * and types repeat endlessly, so sharing them cuts the retained heap.
+ * 
+ * An interner is meant to live for the duration of one project and be
+ * dropped with it; nothing is ever evicted. Nodes returned while an
+ * interner is in use are shared and must not be modified.
+ *
+ */
+public class AstInterner {
+	
+	/**
+	 * Longer strings, like comments, are rarely repeated and are kept as is
+	 */
+	public static final int MAX_STRING_LENGTH = 128;
+	
+	private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+	
+	private final ConcurrentHashMap<NodeKey, Object> nodes = new ConcurrentHashMap<>();
+	
+	private final LongAdder stringLookups = new LongAdder();
+	
+	private final LongAdder stringHits = new LongAdder();
+	
+	private final LongAdder nodeLookups = new LongAdder();
+	
+	private final LongAdder nodeHits = new LongAdder();
+	
+	/**
+	 * Return the canonical instance of the given string.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public String intern(String value) {
+		if(value == null || value.length() > MAX_STRING_LENGTH) {
+			return value;
+		}
+		
+		this.stringLookups.increment();
+		String existing = this.strings.putIfAbsent(value, value);
+		if(existing == null) {
+			return value;
+		}
+		
+		this.stringHits.increment();
+		return existing;
+	}
+	
+	/**
+	 * Return the canonical node for the given field values, registering the
+	 * given node if there is none yet.
+	 * 
+	 * @param values
+	 *            the node class followed by the value of each of its fields,
+	 *            child nodes being canonical already
+	 * 
+	 * @param node
+	 *            the freshly converted node
+	 * 
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T canonical(Object[] values, T node) {
+		this.nodeLookups.increment();
+		Object existing = this.nodes.putIfAbsent(new NodeKey(values), node);
+		if(existing == null) {
+			return node;
+		}
+		
+		this.nodeHits.increment();
+		return (T) existing;
+	}
+	
+	/**
+	 * Fraction of all strings and shareable nodes seen that were replaced by
+	 * an existing instance.
+	 * 
+	 * @return
+	 */
+	public double getDedupRate() {
+		final long lookups = this.stringLookups.sum() + this.nodeLookups.sum();
+		if(lookups == 0) {
+			return 0;
+		}
+		
+		return (double) (this.stringHits.sum() + this.nodeHits.sum()) / lookups;
+	}
+	
+	/**
+	 * Drop all canonical instances. Nodes already handed out stay shared.
+	 */
+	public void clear() {
+		this.strings.clear();
+		this.nodes.clear();
+	}
+	
+	@Override
+	public String toString() {
+		return "[AstInterner: Strings=" + this.strings.size() + "/" + this.stringLookups.sum() + "; Nodes=" + this.nodes.size() + "/" + this.nodeLookups.sum() + "; DedupRate=" + this.getDedupRate() + "]";
+	}
+
+	// Usual accessors follow
+
+	public int getStringCount() {
+		return this.strings.size();
+	}
+
+	public int getNodeCount() {
+		return this.nodes.size();
+	}
+
+	public long getStringLookups() {
+		return this.stringLookups.sum();
+	}
+
+	public long getStringHits() {
+		return this.stringHits.sum();
+	}
+
+	public long getNodeLookups() {
+		return this.nodeLookups.sum();
+	}
+
+	public long getNodeHits() {
+		return this.nodeHits.sum();
+	}
+	
+	/**
+	 * Field values of a shareable node. Child nodes are canonical, so they
+	 * compare by identity.
+	 */
+	private static class NodeKey {
+		
+		private final Object[] values;
+		
+		private final int hash;
+		
+		NodeKey(Object[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			
+			if(!(obj instanceof NodeKey)) {
+				return false;
+			}
+			
+			NodeKey other = (NodeKey) obj;
+			return this.hash == other.hash && Arrays.equals(this.values, other.values);
+		}
+	}
+
+}
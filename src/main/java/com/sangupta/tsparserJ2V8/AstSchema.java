@@ -0,0 +1,151 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.sangupta.jerry.util.ReflectionUtils;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+/**
+ * 
+ * The set of fields that the strongly-typed AST classes read, per node
+ * shape. It is generated from the public fields of the classes in
+ * <code>com.sangupta.tsparserJ2V8.ast</code> and applied on the JS side so
+ * that only those fields are marshalled into Java.
+ * 
+ * The schema maps the simple name of every AST class to its fields. A
+ * field maps to an empty string when it holds a scalar value, and to the
+ * simple name of the AST class when it holds a node or a list of nodes.
+ *
+ */
+public class AstSchema {
+	
+	/**
+	 * Shape name to field name to child shape name
+	 */
+	private final Map<String, Map<String, String>> shapes = new LinkedHashMap<>();
+	
+	private final String root;
+	
+	private AstSchema(Class<?> root) {
+		this.root = root.getSimpleName();
+		this.addShape(root);
+	}
+	
+	/**
+	 * The schema for the {@link SourceFile} tree, built once per JVM.
+	 * 
+	 * @return
+	 */
+	public static AstSchema sourceFile() {
+		return SourceFileHolder.INSTANCE;
+	}
+	
+	/**
+	 * Build the schema for the tree rooted at the given AST class.
+	 * 
+	 * @param root
+	 * @return
+	 */
+	public static AstSchema forClass(Class<?> root) {
+		return new AstSchema(root);
+	}
+	
+	private void addShape(Class<?> clazz) {
+		final String name = clazz.getSimpleName();
+		if(this.shapes.containsKey(name)) {
+			return;
+		}
+		
+		Map<String, String> fields = new LinkedHashMap<>();
+		this.shapes.put(name, fields);
+		
+		List<Field> allFields = ReflectionUtils.getAllFields(clazz);
+		for(Field field : allFields) {
+			int modifiers = field.getModifiers();
+			if(!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+				continue;
+			}
+			
+			Class<?> child = getNodeClass(field);
+			if(child == null) {
+				fields.put(field.getName(), "");
+				continue;
+			}
+			
+			fields.put(field.getName(), child.getSimpleName());
+			this.addShape(child);
+		}
+	}
+	
+	/**
+	 * Find the AST class held by the field, directly or as the element of a
+	 * collection, or <code>null</code> if the field holds a scalar.
+	 * 
+	 * @param field
+	 * @return
+	 */
+	static Class<?> getNodeClass(Field field) {
+		Class<?> type = field.getType();
+		if(type.isPrimitive() || String.class.equals(type)) {
+			return null;
+		}
+		
+		if(Collection.class.isAssignableFrom(type)) {
+			if(!(field.getGenericType() instanceof ParameterizedType)) {
+				return null;
+			}
+			
+			java.lang.reflect.Type inner = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+			if(!(inner instanceof Class)) {
+				return null;
+			}
+			
+			type = (Class<?>) inner;
+		}
+		
+		if(!type.getPackage().equals(SourceFile.class.getPackage())) {
+			return null;
+		}
+		
+		return type;
+	}
+	
+	public String toJson() {
+		return new Gson().toJson(this.shapes);
+	}
+	
+	private static class SourceFileHolder {
+		private static final AstSchema INSTANCE = new AstSchema(SourceFile.class);
+	}
+
+	// Usual accessors follow
+	
+	public String getRoot() {
+		return root;
+	}
+	
+	public Map<String, Map<String, String>> getShapes() {
+		return shapes;
+	}
+
+}
@@ -0,0 +1,43 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+/**
+ * 
+ * Receives the nodes of an AST as they are walked on the JS side, without
+ * a Java object graph being built. The {@link AstEvent} passed in is reused
+ * for every call and must not be retained.
+ * 
+ * Callbacks run on the thread that owns the runtime while the walk is in
+ * progress, and must not parse using the same {@link TypescriptParser}.
+ *
+ */
+public interface AstVisitor {
+	
+	/**
+	 * Called before the children of a node are visited.
+	 * 
+	 * @param event
+	 */
+	public void enter(AstEvent event);
+	
+	/**
+	 * Called after the children of a node have been visited. Only the kind,
+	 * position and depth are filled in.
+	 * 
+	 * @param event
+	 */
+	public void leave(AstEvent event);
+
+}
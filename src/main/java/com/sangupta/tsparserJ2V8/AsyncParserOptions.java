@@ -0,0 +1,95 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+/**
+ * 
+ * Configuration for an {@link AsyncTypescriptParser}.
+ *
+ */
+public class AsyncParserOptions {
+	
+	/**
+	 * Number of worker threads parsing requests
+	 */
+	private int workers = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Number of requests that may wait for a worker
+	 */
+	private int queueCapacity = 256;
+	
+	/**
+	 * What to do when the queue is full
+	 */
+	private AdmissionPolicy admissionPolicy = AdmissionPolicy.REJECT;
+	
+	/**
+	 * Maximum time a caller blocks for admission with {@link AdmissionPolicy#WAIT}
+	 */
+	private long admissionTimeoutMillis = 1000l;
+	
+	/**
+	 * Default time within which a request must complete, or zero for none
+	 */
+	private long deadlineMillis = 0;
+
+	// Usual accessors follow
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	public AsyncParserOptions setWorkers(int workers) {
+		this.workers = workers;
+		return this;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public AsyncParserOptions setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+		return this;
+	}
+
+	public AdmissionPolicy getAdmissionPolicy() {
+		return admissionPolicy;
+	}
+
+	public AsyncParserOptions setAdmissionPolicy(AdmissionPolicy admissionPolicy) {
+		this.admissionPolicy = admissionPolicy;
+		return this;
+	}
+
+	public long getAdmissionTimeoutMillis() {
+		return admissionTimeoutMillis;
+	}
+
+	public AsyncParserOptions setAdmissionTimeoutMillis(long admissionTimeoutMillis) {
+		this.admissionTimeoutMillis = admissionTimeoutMillis;
+		return this;
+	}
+
+	public long getDeadlineMillis() {
+		return deadlineMillis;
+	}
+
+	public AsyncParserOptions setDeadlineMillis(long deadlineMillis) {
+		this.deadlineMillis = deadlineMillis;
+		return this;
+	}
+
+}
@@ -0,0 +1,225 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+/**
+ * 
+ * Submits parses to a fixed set of worker threads that run them on the
+ * runtimes of a {@link TypescriptParser}, and returns a
+ * {@link CompletableFuture} right away. Admission is bounded: at most
+ * <code>workers + queueCapacity</code> requests are in flight, and the
+ * {@link AdmissionPolicy} decides whether further callers are rejected or
+ * wait. Requests may carry a deadline after which they fail with a
+ * {@link TimeoutException}, whether still queued or running. A request
+ * that is running when its deadline passes also has its V8 call aborted,
+ * which frees the worker, the runtime and the admission slot. A request
+ * that is still checking out a runtime at that moment is not aborted,
+ * and runs to completion with its result discarded.
+ * 
+ * Waiting on the returned futures only parks the caller, which is cheap
+ * for virtual threads. The wrapped parser's pool should allow at least as
+ * many runtimes as there are workers; it is not closed by {@link #close()}.
+ *
+ */
+public class AsyncTypescriptParser implements AutoCloseable {
+	
+	private final TypescriptParser parser;
+	
+	private final AsyncParserOptions options;
+	
+	private final Semaphore admission;
+	
+	private final ExecutorService workers;
+	
+	private final ScheduledExecutorService timer;
+	
+	public AsyncTypescriptParser(TypescriptParser parser, AsyncParserOptions options) {
+		this.parser = parser;
+		this.options = options;
+		this.admission = new Semaphore(options.getWorkers() + options.getQueueCapacity());
+		this.workers = Executors.newFixedThreadPool(options.getWorkers(), daemonThreads("tsparser-worker-"));
+		this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("tsparser-deadline-"));
+	}
+	
+	/**
+	 * Parse the given code asynchronously with the default deadline.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	public CompletableFuture<SourceFile> parseAsync(String fileName, String code) {
+		return this.parseAsync(fileName, code, this.options.getDeadlineMillis());
+	}
+	
+	/**
+	 * Parse the given code asynchronously.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param deadlineMillis
+	 *            time from now within which the parse must complete, or zero
+	 *            for no deadline
+	 * 
+	 * @return a future completed with the parsed file, or exceptionally with
+	 *         a {@link RejectedExecutionException} if the request was not
+	 *         admitted or a {@link TimeoutException} if the deadline passed
+	 */
+	public CompletableFuture<SourceFile> parseAsync(final String fileName, final String code, long deadlineMillis) {
+		final CompletableFuture<SourceFile> future = new CompletableFuture<>();
+		
+		if(!this.admit()) {
+			future.completeExceptionally(new RejectedExecutionException("Parse queue is full, rejected: " + fileName));
+			return future;
+		}
+		
+		final Runner runner = new Runner();
+		final ScheduledFuture<?> deadline = this.scheduleDeadline(future, runner, fileName, deadlineMillis);
+		try {
+			this.workers.execute(() -> {
+				try {
+					// skip requests that timed out or were cancelled while queued
+					if(!runner.start(future)) {
+						return;
+					}
+					
+					try {
+						future.complete(this.parser.parse(fileName, code));
+					} finally {
+						runner.stop();
+					}
+				} catch(Throwable t) {
+					future.completeExceptionally(t);
+				} finally {
+					this.admission.release();
+					if(deadline != null) {
+						deadline.cancel(false);
+					}
+				}
+			});
+		} catch(RejectedExecutionException e) {
+			this.admission.release();
+			if(deadline != null) {
+				deadline.cancel(false);
+			}
+			
+			future.completeExceptionally(e);
+		}
+		
+		return future;
+	}
+	
+	private boolean admit() {
+		if(this.options.getAdmissionPolicy() == AdmissionPolicy.REJECT) {
+			return this.admission.tryAcquire();
+		}
+		
+		try {
+			return this.admission.tryAcquire(this.options.getAdmissionTimeoutMillis(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	private ScheduledFuture<?> scheduleDeadline(final CompletableFuture<SourceFile> future, final Runner runner, final String fileName, final long deadlineMillis) {
+		if(deadlineMillis <= 0) {
+			return null;
+		}
+		
+		return this.timer.schedule(() -> {
+			if(future.completeExceptionally(new TimeoutException("Parse did not complete within " + deadlineMillis + " millis: " + fileName))) {
+				runner.abort(this.parser.getPool().getSupervisor());
+			}
+		}, deadlineMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Number of requests admitted and not yet completed.
+	 * 
+	 * @return
+	 */
+	public int getInFlightCount() {
+		return this.options.getWorkers() + this.options.getQueueCapacity() - this.admission.availablePermits();
+	}
+	
+	/**
+	 * Stop accepting requests. Requests already admitted are completed.
+	 */
+	@Override
+	public void close() {
+		this.workers.shutdown();
+		try {
+			this.workers.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		
+		this.timer.shutdownNow();
+	}
+	
+	/**
+	 * The worker thread running a request, if it is running. The deadline
+	 * may only abort calls made while the thread is still on this request,
+	 * not those of the next one it picks up.
+	 */
+	private static class Runner {
+		
+		private Thread thread;
+		
+		synchronized boolean start(CompletableFuture<SourceFile> future) {
+			if(future.isDone()) {
+				return false;
+			}
+			
+			this.thread = Thread.currentThread();
+			return true;
+		}
+		
+		synchronized void stop() {
+			this.thread = null;
+		}
+		
+		synchronized void abort(RuntimeSupervisor supervisor) {
+			if(this.thread != null) {
+				supervisor.terminate(this.thread);
+			}
+		}
+		
+	}
+	
+	private static ThreadFactory daemonThreads(final String prefix) {
+		final AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+}
@@ -0,0 +1,78 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import com.eclipsesource.v8.V8;
+import com.eclipsesource.v8.V8Value;
+import com.eclipsesource.v8.utils.MemoryManager;
+
+/**
+ * 
+ * A scope that owns every V8 handle created on its runtime while it is
+ * open, and releases all of them at once when closed. Handles that must
+ * outlive the scope are taken out of it using {@link #persist(V8Value)}.
+ * 
+ * Arenas may be nested: a handle is released as soon as the innermost
+ * arena that has not persisted it is closed.
+ *
+ */
+public class HandleArena implements AutoCloseable {
+	
+	private final MemoryManager memoryManager;
+	
+	public HandleArena(V8 v8) {
+		this.memoryManager = new MemoryManager(v8);
+	}
+	
+	/**
+	 * Keep the given handle alive after this arena is closed. The caller
+	 * becomes responsible for releasing it.
+	 * 
+	 * @param value
+	 * @return the same handle
+	 */
+	public <T extends V8Value> T persist(T value) {
+		if(value != null) {
+			this.memoryManager.persist(value);
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Number of handles currently owned by this arena.
+	 * 
+	 * @return
+	 */
+	public int getHandleCount() {
+		if(this.memoryManager.isReleased()) {
+			return 0;
+		}
+		
+		return this.memoryManager.getObjectReferenceCount();
+	}
+	
+	public boolean isClosed() {
+		return this.memoryManager.isReleased();
+	}
+	
+	@Override
+	public void close() {
+		if(this.memoryManager.isReleased()) {
+			return;
+		}
+		
+		this.memoryManager.release();
+	}
+}
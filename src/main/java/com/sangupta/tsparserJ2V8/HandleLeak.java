@@ -0,0 +1,61 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+/**
+ * 
+ * A V8 handle that was still open when its runtime was returned to the
+ * {@link RuntimePool}, along with where it was allocated.
+ *
+ */
+public class HandleLeak {
+	
+	private final String type;
+	
+	private final String thread;
+	
+	private final StackTraceElement[] allocationSite;
+	
+	HandleLeak(String type, String thread, StackTraceElement[] allocationSite) {
+		this.type = type;
+		this.thread = thread;
+		this.allocationSite = allocationSite;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Leaked ").append(this.type).append(" allocated on thread ").append(this.thread);
+		for(StackTraceElement element : this.allocationSite) {
+			builder.append("\n\tat ").append(element);
+		}
+		
+		return builder.toString();
+	}
+	
+	// Usual accessors follow
+	
+	public String getType() {
+		return type;
+	}
+	
+	public String getThread() {
+		return thread;
+	}
+	
+	public StackTraceElement[] getAllocationSite() {
+		return allocationSite;
+	}
+	
+}
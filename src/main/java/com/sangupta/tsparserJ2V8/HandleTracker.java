@@ -0,0 +1,99 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eclipsesource.v8.ReferenceHandler;
+import com.eclipsesource.v8.V8Value;
+
+/**
+ * 
+ * Records where every open V8 handle of a runtime was allocated, so that
+ * handles still open when the runtime is returned can be reported. This
+ * captures a stack trace per handle and is only meant for debugging.
+ *
+ */
+class HandleTracker implements ReferenceHandler {
+	
+	/**
+	 * Frames from J2V8 and this class at the top of a captured stack
+	 */
+	private static final String[] SKIPPED_PACKAGES = { "com.eclipsesource.v8.", HandleTracker.class.getName() };
+	
+	private final Map<V8Value, HandleLeak> open = new IdentityHashMap<>();
+	
+	@Override
+	public synchronized void v8HandleCreated(V8Value object) {
+		Thread thread = Thread.currentThread();
+		this.open.put(object, new HandleLeak(object.getClass().getSimpleName(), thread.getName(), allocationSite(thread.getStackTrace())));
+	}
+	
+	@Override
+	public synchronized void v8HandleDisposed(V8Value object) {
+		this.open.remove(object);
+	}
+	
+	/**
+	 * Handles that are currently open.
+	 * 
+	 * @return
+	 */
+	synchronized List<HandleLeak> getOpen() {
+		return new ArrayList<>(this.open.values());
+	}
+	
+	/**
+	 * Handles that are currently open, which are then no longer tracked.
+	 * 
+	 * @return
+	 */
+	synchronized List<HandleLeak> drainOpen() {
+		List<HandleLeak> open = new ArrayList<>(this.open.values());
+		this.open.clear();
+		return open;
+	}
+	
+	synchronized int getOpenCount() {
+		return this.open.size();
+	}
+	
+	private static StackTraceElement[] allocationSite(StackTraceElement[] stack) {
+		int start = 0;
+		while(start < stack.length && isSkipped(stack[start].getClassName())) {
+			start++;
+		}
+		
+		StackTraceElement[] site = new StackTraceElement[stack.length - start];
+		System.arraycopy(stack, start, site, 0, site.length);
+		return site;
+	}
+	
+	private static boolean isSkipped(String className) {
+		if("java.lang.Thread".equals(className)) {
+			return true;
+		}
+		
+		for(String prefix : SKIPPED_PACKAGES) {
+			if(className.startsWith(prefix)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
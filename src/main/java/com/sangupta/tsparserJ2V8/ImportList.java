@@ -0,0 +1,99 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 
+ * The modules and files one source file depends on, as read by
+ * <code>ts.preProcessFile</code> without building an AST, or the error
+ * that stopped them from being read.
+ *
+ */
+public class ImportList {
+	
+	private final String fileName;
+	
+	/**
+	 * Module specifiers as written, from import and export declarations,
+	 * dynamic imports and require calls
+	 */
+	private final List<String> imports;
+	
+	/**
+	 * Paths of the <code>/// &lt;reference path /&gt;</code> directives
+	 */
+	private final List<String> references;
+	
+	/**
+	 * Names of the <code>/// &lt;reference types /&gt;</code> directives
+	 */
+	private final List<String> typeReferences;
+	
+	private final Throwable error;
+	
+	public ImportList(String fileName, List<String> imports, List<String> references, List<String> typeReferences) {
+		this.fileName = fileName;
+		this.imports = Collections.unmodifiableList(imports);
+		this.references = Collections.unmodifiableList(references);
+		this.typeReferences = Collections.unmodifiableList(typeReferences);
+		this.error = null;
+	}
+	
+	public ImportList(String fileName, Throwable error) {
+		this.fileName = fileName;
+		this.imports = Collections.emptyList();
+		this.references = Collections.emptyList();
+		this.typeReferences = Collections.emptyList();
+		this.error = error;
+	}
+	
+	public boolean isSuccess() {
+		return this.error == null;
+	}
+	
+	@Override
+	public String toString() {
+		if(this.error != null) {
+			return "[ImportList: " + this.fileName + "; Error: " + this.error.getMessage() + "]";
+		}
+		
+		return "[ImportList: " + this.fileName + "; Imports=" + this.imports + "]";
+	}
+
+	// Usual accessors follow
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public List<String> getImports() {
+		return imports;
+	}
+
+	public List<String> getReferences() {
+		return references;
+	}
+
+	public List<String> getTypeReferences() {
+		return typeReferences;
+	}
+
+	public Throwable getError() {
+		return error;
+	}
+
+}
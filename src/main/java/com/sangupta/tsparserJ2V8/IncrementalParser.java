@@ -0,0 +1,193 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+import com.sangupta.tsparserJ2V8.ast.Statement;
+
+/**
+ * 
+ * Parses files that change a few characters at a time, such as files open
+ * in an editor. The Typescript source file of every open document is kept
+ * alive in a dedicated runtime and updated with
+ * <code>ts.updateSourceFile</code>; only the statements that changed are
+ * sent to Java, and the previous {@link SourceFile} is patched by reusing
+ * the unchanged {@link Statement} objects.
+ * 
+ * Instances are thread-safe; calls are serialized on the single runtime.
+ *
+ */
+public class IncrementalParser implements AutoCloseable {
+	
+	private static final Gson GSON = new Gson();
+	
+	private final TypescriptLibrary library;
+	
+	/**
+	 * The last AST handed out per open document
+	 */
+	private final Map<String, SourceFile> documents = new HashMap<>();
+	
+	private TypescriptRuntime runtime;
+	
+	private boolean closed = false;
+	
+	public IncrementalParser() {
+		this(TypescriptLibrary.bundled());
+	}
+	
+	public IncrementalParser(TypescriptLibrary library) {
+		this.library = library;
+	}
+	
+	/**
+	 * Fully parse a file and keep it open for incremental updates. Opening a
+	 * file that is already open replaces it.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized SourceFile open(String fileName, String code) {
+		String json;
+		
+		TypescriptRuntime runtime = this.attach();
+		try {
+			json = runtime.openDocument(fileName, code);
+		} finally {
+			runtime.detach();
+		}
+		
+		SourceFile sourceFile = AstConverter.convertToAst(GSON.fromJson(json, Map.class), SourceFile.class);
+		this.documents.put(fileName, sourceFile);
+		return sourceFile;
+	}
+	
+	/**
+	 * Apply an edit to an open file.
+	 * 
+	 * @param fileName
+	 *            the file, which must have been opened before
+	 * 
+	 * @param newText
+	 *            the complete text of the file after the edit
+	 * 
+	 * @param change
+	 *            the range of the old text that was edited
+	 * 
+	 * @return the updated AST, sharing unchanged statements with the
+	 *         previous one
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized SourceFile update(String fileName, String newText, TextChangeRange change) {
+		SourceFile previous = this.documents.get(fileName);
+		if(previous == null) {
+			throw new IllegalStateException("File is not open: " + fileName);
+		}
+		
+		String json;
+		TypescriptRuntime runtime = this.attach();
+		try {
+			json = runtime.updateDocument(fileName, newText, change);
+		} finally {
+			runtime.detach();
+		}
+		
+		Map<String, Object> delta = GSON.fromJson(json, Map.class);
+		
+		SourceFile sourceFile = new SourceFile();
+		sourceFile.kind = ((Number) delta.get("kind")).intValue();
+		
+		List<Object> statements = (List<Object>) delta.get("statements");
+		sourceFile.statements = new ArrayList<>(statements.size());
+		for(Object statement : statements) {
+			if(statement instanceof Number) {
+				// unchanged, reuse the statement from the previous tree
+				sourceFile.statements.add(previous.statements.get(((Number) statement).intValue()));
+				continue;
+			}
+			
+			sourceFile.statements.add(AstConverter.convertToAst((Map<String, Object>) statement, Statement.class));
+		}
+		
+		sourceFile.afterConversion();
+		this.documents.put(fileName, sourceFile);
+		return sourceFile;
+	}
+	
+	/**
+	 * Close a file and release the state kept for it.
+	 * 
+	 * @param fileName
+	 */
+	public synchronized void close(String fileName) {
+		if(this.documents.remove(fileName) == null) {
+			return;
+		}
+		
+		TypescriptRuntime runtime = this.attach();
+		try {
+			runtime.closeDocument(fileName);
+		} finally {
+			runtime.detach();
+		}
+	}
+	
+	public synchronized boolean isOpen(String fileName) {
+		return this.documents.containsKey(fileName);
+	}
+	
+	/**
+	 * Bind the runtime to the current thread, creating it on first use.
+	 * 
+	 * @return
+	 */
+	private TypescriptRuntime attach() {
+		if(this.closed) {
+			throw new IllegalStateException("Parser has been closed");
+		}
+		
+		if(this.runtime == null) {
+			this.runtime = TypescriptRuntime.create(this.library);
+		} else {
+			this.runtime.attach();
+		}
+		
+		return this.runtime;
+	}
+	
+	@Override
+	public synchronized void close() {
+		if(this.closed) {
+			return;
+		}
+		
+		this.closed = true;
+		this.documents.clear();
+		
+		if(this.runtime != null) {
+			this.runtime.attach();
+			this.runtime.release();
+			this.runtime = null;
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.eclipsesource.v8.JavaVoidCallback;
+import com.eclipsesource.v8.V8Array;
+import com.eclipsesource.v8.V8Object;
+
+/**
+ * 
+ * Receives the chunks of JSON written by the JS serializer and passes them
+ * on to the writer of the current call. A failing writer aborts the
+ * serializer; the failure is kept so that it can be rethrown as is.
+ *
+ */
+class JsonChunkWriter implements JavaVoidCallback {
+	
+	private Writer writer;
+	
+	private IOException failure;
+	
+	void start(Writer writer) {
+		this.writer = writer;
+		this.failure = null;
+	}
+	
+	void stop() {
+		this.writer = null;
+	}
+	
+	IOException getFailure() {
+		return this.failure;
+	}
+	
+	@Override
+	public void invoke(V8Object receiver, V8Array parameters) {
+		final String chunk = parameters.getString(0);
+		try {
+			this.writer.write(chunk);
+		} catch(IOException e) {
+			this.failure = e;
+			
+			// unwinds the serializer
+			throw new IllegalStateException("Unable to write JSON chunk", e);
+		}
+	}
+
+}
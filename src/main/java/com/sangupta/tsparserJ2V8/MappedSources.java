@@ -0,0 +1,162 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 
+ * Loads source files into direct buffers so that their bytes can be handed
+ * to V8 without being read into the Java heap. Large files are mapped;
+ * small ones are read into a direct buffer that each thread reuses, as a
+ * mapping per file costs a system call to set up and holds on to address
+ * space until the garbage collector gets to it.
+ *
+ */
+public class MappedSources {
+	
+	/**
+	 * Files of at least this many bytes are mapped, smaller ones are read
+	 */
+	public static final int MAP_THRESHOLD = 256 * 1024;
+	
+	/**
+	 * Largest buffer a thread keeps around for reading small files
+	 */
+	private static final int SCRATCH_LIMIT = 4 * 1024 * 1024;
+	
+	private static final ThreadLocal<ByteBuffer> SCRATCH = new ThreadLocal<>();
+	
+	private MappedSources() {
+		// not to be instantiated
+	}
+	
+	/**
+	 * Map the given file read-only. The mapping stays valid after this
+	 * returns and is released once the buffer is garbage collected.
+	 * 
+	 * @param file
+	 * @return a direct buffer spanning exactly the file contents
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be read or is larger than 2GB
+	 */
+	public static ByteBuffer map(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return map(file, channel, sizeOf(file, channel));
+		}
+	}
+	
+	/**
+	 * Start loading a set of files on the current thread. The buffers
+	 * handed out by the returned reader for small files share the direct
+	 * buffer of this thread, and are overwritten once the thread starts
+	 * another reader. They must therefore not be used past the call into V8
+	 * they were loaded for, nor passed to another thread.
+	 * 
+	 * @return
+	 */
+	public static Reader reader() {
+		ByteBuffer scratch = SCRATCH.get();
+		if(scratch != null) {
+			scratch.clear();
+		}
+		
+		return new Reader(scratch);
+	}
+	
+	private static long sizeOf(Path file, FileChannel channel) throws IOException {
+		final long size = channel.size();
+		if(size > Integer.MAX_VALUE) {
+			throw new IOException("File too large to map: " + file);
+		}
+		
+		return size;
+	}
+	
+	private static ByteBuffer map(Path file, FileChannel channel, long size) throws IOException {
+		if(size == 0) {
+			// an empty mapping has no address to hand to V8
+			return ByteBuffer.allocateDirect(0);
+		}
+		
+		return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+	}
+	
+	/**
+	 * Loads the files of one call into V8, see {@link MappedSources#reader()}.
+	 */
+	public static class Reader {
+		
+		private ByteBuffer scratch;
+		
+		private Reader(ByteBuffer scratch) {
+			this.scratch = scratch;
+		}
+		
+		/**
+		 * Load the given file, reading it if it is smaller than
+		 * {@link MappedSources#MAP_THRESHOLD} and mapping it otherwise.
+		 * 
+		 * @param file
+		 * @return a direct buffer spanning exactly the file contents
+		 * 
+		 * @throws IOException
+		 *             if the file cannot be read or is larger than 2GB
+		 */
+		public ByteBuffer read(Path file) throws IOException {
+			try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				final long size = sizeOf(file, channel);
+				if(size == 0 || size >= MAP_THRESHOLD) {
+					return map(file, channel, size);
+				}
+				
+				this.ensureRemaining((int) size);
+				
+				final int start = this.scratch.position();
+				this.scratch.limit(start + (int) size);
+				while(this.scratch.hasRemaining() && channel.read(this.scratch) >= 0) {
+					// the file may shrink while being read
+				}
+				
+				this.scratch.limit(this.scratch.position());
+				this.scratch.position(start);
+				ByteBuffer source = this.scratch.slice();
+				
+				this.scratch.position(this.scratch.limit());
+				this.scratch.limit(this.scratch.capacity());
+				return source;
+			}
+		}
+		
+		private void ensureRemaining(int size) {
+			if(this.scratch != null && this.scratch.remaining() >= size) {
+				return;
+			}
+			
+			// buffers already handed out keep the old scratch alive
+			int capacity = this.scratch == null ? MAP_THRESHOLD : this.scratch.capacity() * 2;
+			this.scratch = ByteBuffer.allocateDirect(Math.max(capacity, size));
+			if(this.scratch.capacity() <= SCRATCH_LIMIT) {
+				SCRATCH.set(this.scratch);
+			}
+		}
+		
+	}
+
+}
@@ -0,0 +1,71 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+/**
+ * 
+ * Outcome of parsing one file: either the parsed {@link SourceFile} or the
+ * error that stopped it from being parsed.
+ *
+ */
+public class ParseResult {
+	
+	private final String fileName;
+	
+	private final SourceFile sourceFile;
+	
+	private final Throwable error;
+	
+	public ParseResult(String fileName, SourceFile sourceFile) {
+		this.fileName = fileName;
+		this.sourceFile = sourceFile;
+		this.error = null;
+	}
+	
+	public ParseResult(String fileName, Throwable error) {
+		this.fileName = fileName;
+		this.sourceFile = null;
+		this.error = error;
+	}
+	
+	public boolean isSuccess() {
+		return this.error == null;
+	}
+	
+	@Override
+	public String toString() {
+		if(this.error != null) {
+			return "[ParseResult: " + this.fileName + "; Error: " + this.error.getMessage() + "]";
+		}
+		
+		return "[ParseResult: " + this.fileName + "]";
+	}
+
+	// Usual accessors follow
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public SourceFile getSourceFile() {
+		return sourceFile;
+	}
+
+	public Throwable getError() {
+		return error;
+	}
+
+}
@@ -0,0 +1,124 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+/**
+ * 
+ * Configuration for a {@link SizeAwareParseScheduler}.
+ *
+ */
+public class ParseSchedulerOptions {
+	
+	/**
+	 * Size of code, in characters, from which a file goes to the large lane
+	 */
+	private int largeFileThreshold = 64 * 1024;
+	
+	/**
+	 * Number of worker threads serving small files
+	 */
+	private int smallWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	
+	/**
+	 * Number of worker threads serving large files
+	 */
+	private int largeWorkers = 1;
+	
+	/**
+	 * Maximum number of small files parsed in one call into V8
+	 */
+	private int batchMaxFiles = 32;
+	
+	/**
+	 * Maximum size of code, in characters, parsed in one call into V8
+	 */
+	private int batchMaxChars = 256 * 1024;
+	
+	/**
+	 * Time after which a queued large file is taken ahead of smaller ones,
+	 * and may be picked up by an idle small worker
+	 */
+	private long maxWaitMillis = 2000l;
+	
+	/**
+	 * Number of files that may wait across both lanes
+	 */
+	private int queueCapacity = 1024;
+
+	// Usual accessors follow
+
+	public int getLargeFileThreshold() {
+		return largeFileThreshold;
+	}
+
+	public ParseSchedulerOptions setLargeFileThreshold(int largeFileThreshold) {
+		this.largeFileThreshold = largeFileThreshold;
+		return this;
+	}
+
+	public int getSmallWorkers() {
+		return smallWorkers;
+	}
+
+	public ParseSchedulerOptions setSmallWorkers(int smallWorkers) {
+		this.smallWorkers = smallWorkers;
+		return this;
+	}
+
+	public int getLargeWorkers() {
+		return largeWorkers;
+	}
+
+	public ParseSchedulerOptions setLargeWorkers(int largeWorkers) {
+		this.largeWorkers = largeWorkers;
+		return this;
+	}
+
+	public int getBatchMaxFiles() {
+		return batchMaxFiles;
+	}
+
+	public ParseSchedulerOptions setBatchMaxFiles(int batchMaxFiles) {
+		this.batchMaxFiles = batchMaxFiles;
+		return this;
+	}
+
+	public int getBatchMaxChars() {
+		return batchMaxChars;
+	}
+
+	public ParseSchedulerOptions setBatchMaxChars(int batchMaxChars) {
+		this.batchMaxChars = batchMaxChars;
+		return this;
+	}
+
+	public long getMaxWaitMillis() {
+		return maxWaitMillis;
+	}
+
+	public ParseSchedulerOptions setMaxWaitMillis(long maxWaitMillis) {
+		this.maxWaitMillis = maxWaitMillis;
+		return this;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public ParseSchedulerOptions setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+		return this;
+	}
+
+}
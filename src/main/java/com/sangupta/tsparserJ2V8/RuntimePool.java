@@ -0,0 +1,396 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 
+ * A bounded pool of warm {@link TypescriptRuntime}s. Runtimes are handed
+ * out most-recently-used first so that the warmest runtime is reused, and
+ * runtimes that stay idle beyond the configured timeout are released by a
+ * background evictor.
+ *
+ */
+public class RuntimePool {
+	
+	private final TypescriptParserOptions options;
+	
+	/**
+	 * Idle runtimes, most recently returned first
+	 */
+	private final Deque<TypescriptRuntime> idle = new ArrayDeque<>();
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	private final Condition available = lock.newCondition();
+	
+	private final ScheduledExecutorService evictor;
+	
+	private final RuntimeSupervisor supervisor;
+	
+	/**
+	 * Maximum number of leak reports kept for {@link #getHandleLeaks()}
+	 */
+	private static final int MAX_LEAK_REPORTS = 256;
+	
+	/**
+	 * Handles found open beyond a runtime's baseline on check in
+	 */
+	private final LongAdder leakedHandles = new LongAdder();
+	
+	/**
+	 * Most recent leak reports, oldest first
+	 */
+	private final Deque<HandleLeak> leaks = new ArrayDeque<>();
+	
+	/**
+	 * Number of runtimes alive: checked out plus idle
+	 */
+	private int alive = 0;
+	
+	private boolean closed = false;
+	
+	public RuntimePool(TypescriptParserOptions options) {
+		if(options.getMaxRuntimes() < 1) {
+			throw new IllegalArgumentException("Pool must allow at least one runtime");
+		}
+		
+		this.options = options;
+		this.supervisor = new RuntimeSupervisor(options);
+		
+		this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tsparser-runtime-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		long period = Math.max(1000l, options.getIdleTimeoutMillis() / 2);
+		this.evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Create the minimum number of idle runtimes upfront so that the first
+	 * parse calls do not pay the startup cost.
+	 */
+	public void warmUp() {
+		List<TypescriptRuntime> runtimes = new ArrayList<>();
+		try {
+			for(int index = 0; index < this.options.getMinIdleRuntimes(); index++) {
+				runtimes.add(this.checkout());
+			}
+		} finally {
+			for(TypescriptRuntime runtime : runtimes) {
+				this.checkin(runtime);
+			}
+		}
+	}
+	
+	/**
+	 * Check out a runtime, creating one if none is idle and the pool has
+	 * not reached its limit. The runtime is bound to the calling thread
+	 * until it is checked back in.
+	 * 
+	 * @return
+	 */
+	public TypescriptRuntime checkout() {
+		TypescriptRuntime runtime = null;
+		List<TypescriptRuntime> terminated = new ArrayList<>();
+		
+		this.lock.lock();
+		try {
+			long remaining = TimeUnit.MILLISECONDS.toNanos(this.options.getCheckoutTimeoutMillis());
+			while(true) {
+				if(this.closed) {
+					throw new IllegalStateException("Runtime pool has been closed");
+				}
+				
+				runtime = this.idle.pollFirst();
+				if(runtime != null && runtime.isTerminated()) {
+					// aborted after it was returned, never hand it out
+					terminated.add(runtime);
+					this.alive--;
+					runtime = null;
+					continue;
+				}
+				
+				if(runtime != null) {
+					break;
+				}
+				
+				if(this.alive < this.options.getMaxRuntimes()) {
+					// reserve a slot and create outside the lock
+					this.alive++;
+					break;
+				}
+				
+				if(remaining <= 0) {
+					throw new RuntimeException(new TimeoutException("No Typescript runtime available within " + this.options.getCheckoutTimeoutMillis() + " millis"));
+				}
+				
+				remaining = this.available.awaitNanos(remaining);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} finally {
+			this.lock.unlock();
+			
+			for(TypescriptRuntime discarded : terminated) {
+				releaseRuntime(discarded);
+			}
+		}
+		
+		if(runtime != null) {
+			runtime.attach();
+		} else {
+			try {
+				runtime = TypescriptRuntime.create(this.options.getLibrary(), this.options.isTrackHandleAllocations());
+			} catch(RuntimeException e) {
+				this.discarded();
+				throw e;
+			}
+		}
+		
+		this.supervisor.checkedOut(runtime);
+		return runtime;
+	}
+	
+	/**
+	 * Return a runtime that was obtained using {@link #checkout()}.
+	 * 
+	 * @param runtime
+	 */
+	public void checkin(TypescriptRuntime runtime) {
+		if(runtime == null) {
+			return;
+		}
+		
+		if(runtime.isReleased()) {
+			this.supervisor.forget(runtime);
+			this.discarded();
+			return;
+		}
+		
+		runtime.touch();
+		this.accountLeaks(runtime);
+		
+		RuntimeSupervisor.Recycle recycle;
+		try {
+			recycle = this.supervisor.checkedIn(runtime);
+		} catch(RuntimeException e) {
+			// a runtime that cannot report its heap is not fit for reuse
+			recycle = RuntimeSupervisor.Recycle.TERMINATED;
+		}
+		
+		if(recycle != RuntimeSupervisor.Recycle.KEEP) {
+			// replaced lazily by the next check out
+			releaseRuntime(runtime);
+			this.discarded();
+			return;
+		}
+		
+		runtime.detach();
+		
+		boolean release = false;
+		this.lock.lock();
+		try {
+			if(this.closed) {
+				release = true;
+				this.alive--;
+			} else {
+				this.idle.addFirst(runtime);
+				this.available.signal();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+		
+		if(release) {
+			releaseRuntime(runtime);
+		}
+	}
+
+	/**
+	 * Count the handles a runtime still has open beyond its baseline. Every
+	 * handle of a parse is released with its arena, so these were created
+	 * outside of one and never released.
+	 * 
+	 * @param runtime
+	 */
+	private void accountLeaks(TypescriptRuntime runtime) {
+		try {
+			long leaked = runtime.collectLeakedHandles();
+			if(leaked == 0) {
+				return;
+			}
+			
+			this.leakedHandles.add(leaked);
+			
+			List<HandleLeak> reports = runtime.collectHandleLeaks();
+			if(reports.isEmpty()) {
+				return;
+			}
+			
+			synchronized (this.leaks) {
+				for(HandleLeak report : reports) {
+					if(this.leaks.size() == MAX_LEAK_REPORTS) {
+						this.leaks.pollFirst();
+					}
+					
+					this.leaks.addLast(report);
+				}
+			}
+		} catch(RuntimeException e) {
+			// accounting must never fail a check in
+		}
+	}
+
+	/**
+	 * Release runtimes that have been idle longer than the configured
+	 * timeout, keeping the configured minimum around.
+	 */
+	void evictIdle() {
+		List<TypescriptRuntime> evicted = new ArrayList<>();
+		
+		this.lock.lock();
+		try {
+			long cutoff = System.currentTimeMillis() - this.options.getIdleTimeoutMillis();
+			while(this.idle.size() > this.options.getMinIdleRuntimes()) {
+				TypescriptRuntime oldest = this.idle.peekLast();
+				if(oldest.getLastUsed() > cutoff) {
+					break;
+				}
+				
+				evicted.add(this.idle.pollLast());
+				this.alive--;
+			}
+			
+			if(!evicted.isEmpty()) {
+				this.available.signalAll();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+		
+		for(TypescriptRuntime runtime : evicted) {
+			releaseRuntime(runtime);
+		}
+	}
+
+	/**
+	 * Close the pool and release all idle runtimes. Runtimes that are
+	 * currently checked out are released when they are checked in.
+	 */
+	public void close() {
+		List<TypescriptRuntime> runtimes;
+		
+		this.lock.lock();
+		try {
+			this.closed = true;
+			runtimes = new ArrayList<>(this.idle);
+			this.alive -= this.idle.size();
+			this.idle.clear();
+			this.available.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		
+		this.evictor.shutdownNow();
+		this.supervisor.close();
+		
+		for(TypescriptRuntime runtime : runtimes) {
+			releaseRuntime(runtime);
+		}
+	}
+	
+	/**
+	 * Number of runtimes alive, checked out as well as idle.
+	 * 
+	 * @return
+	 */
+	public int getAliveCount() {
+		this.lock.lock();
+		try {
+			return this.alive;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	public int getIdleCount() {
+		this.lock.lock();
+		try {
+			return this.idle.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * Total number of handles found leaked by runtimes returned to this
+	 * pool.
+	 * 
+	 * @return
+	 */
+	public long getLeakedHandleCount() {
+		return this.leakedHandles.sum();
+	}
+	
+	/**
+	 * Allocation sites of the most recently leaked handles. Only recorded
+	 * when {@link TypescriptParserOptions#isTrackHandleAllocations()} is
+	 * set.
+	 * 
+	 * @return
+	 */
+	public List<HandleLeak> getHandleLeaks() {
+		synchronized (this.leaks) {
+			return new ArrayList<>(this.leaks);
+		}
+	}
+	
+	public RuntimeSupervisor getSupervisor() {
+		return this.supervisor;
+	}
+	
+	private void discarded() {
+		this.lock.lock();
+		try {
+			this.alive--;
+			this.available.signal();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	private static void releaseRuntime(TypescriptRuntime runtime) {
+		try {
+			runtime.attach();
+			runtime.release();
+		} catch(RuntimeException e) {
+			// eat up
+		}
+	}
+}
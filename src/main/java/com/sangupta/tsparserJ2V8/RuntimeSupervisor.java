@@ -0,0 +1,230 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * Keeps the runtimes of a {@link RuntimePool} healthy. Runtimes that have
+ * grown their heap or served too many parses are recycled when they are
+ * checked in, and a watchdog aborts parses that run past their deadline
+ * so that no thread is stuck in V8 for good. An aborted runtime is
+ * released on check in and a fresh one takes its place on the next
+ * check out.
+ *
+ */
+public class RuntimeSupervisor {
+	
+	/**
+	 * Why a runtime was taken out of service
+	 */
+	public enum Recycle {
+		
+		KEEP,
+		
+		HEAP,
+		
+		PARSE_COUNT,
+		
+		TERMINATED;
+		
+	}
+	
+	private final long parseTimeoutNanos;
+	
+	private final long maxHeapBytes;
+	
+	private final long heapCheckInterval;
+	
+	private final long maxParses;
+	
+	/**
+	 * Runtimes currently checked out, with the thread that checked them out
+	 */
+	private final Map<TypescriptRuntime, Thread> running = new ConcurrentHashMap<>();
+	
+	private final ScheduledExecutorService watchdog;
+	
+	private final LongAdder recycledForHeap = new LongAdder();
+	
+	private final LongAdder recycledForParseCount = new LongAdder();
+	
+	private final LongAdder terminated = new LongAdder();
+	
+	public RuntimeSupervisor(TypescriptParserOptions options) {
+		this.parseTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(options.getParseTimeoutMillis());
+		this.maxHeapBytes = options.getMaxRuntimeHeapBytes();
+		this.heapCheckInterval = options.getHeapCheckInterval();
+		this.maxParses = options.getMaxParsesPerRuntime();
+		
+		if(this.parseTimeoutNanos <= 0) {
+			this.watchdog = null;
+			return;
+		}
+		
+		this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tsparser-runtime-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		// check often enough that a parse overruns its deadline by a quarter at most
+		long period = Math.min(1000l, Math.max(10l, options.getParseTimeoutMillis() / 4));
+		this.watchdog.scheduleWithFixedDelay(this::terminateOverdue, period, period, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Start watching a runtime that has just been checked out.
+	 * 
+	 * @param runtime
+	 */
+	void checkedOut(TypescriptRuntime runtime) {
+		this.running.put(runtime, Thread.currentThread());
+	}
+	
+	/**
+	 * Stop watching a runtime that is being checked in, and decide whether
+	 * it may be reused. The runtime must still be attached to the current
+	 * thread, as its heap may be sampled. A heap that outgrows the limit is
+	 * noticed within {@link TypescriptParserOptions#getHeapCheckInterval()}
+	 * parses.
+	 * 
+	 * @param runtime
+	 * @return
+	 */
+	Recycle checkedIn(TypescriptRuntime runtime) {
+		this.running.remove(runtime);
+		
+		if(runtime.isTerminated()) {
+			return Recycle.TERMINATED;
+		}
+		
+		if(this.maxParses > 0 && runtime.getParseCount() >= this.maxParses) {
+			this.recycledForParseCount.increment();
+			return Recycle.PARSE_COUNT;
+		}
+		
+		// sampling the heap is a call into V8, so only every few parses
+		if(this.maxHeapBytes > 0 && runtime.getHeapUsed(this.heapCheckInterval) > this.maxHeapBytes) {
+			this.recycledForHeap.increment();
+			return Recycle.HEAP;
+		}
+		
+		return Recycle.KEEP;
+	}
+	
+	/**
+	 * Stop watching a runtime that was released while checked out.
+	 * 
+	 * @param runtime
+	 */
+	void forget(TypescriptRuntime runtime) {
+		this.running.remove(runtime);
+	}
+	
+	/**
+	 * Abort every call that has been running for longer than the timeout.
+	 */
+	void terminateOverdue() {
+		final long now = System.nanoTime();
+		for(TypescriptRuntime runtime : this.running.keySet()) {
+			long started = runtime.getCallStartedNanos();
+			if(started == 0 || now - started < this.parseTimeoutNanos) {
+				continue;
+			}
+			
+			this.terminate(runtime, started);
+		}
+	}
+	
+	/**
+	 * Abort the call currently running on the runtimes checked out by the
+	 * given thread, if any. Used to enforce per request deadlines.
+	 * 
+	 * @param owner
+	 * @return whether a call was aborted
+	 */
+	public boolean terminate(Thread owner) {
+		boolean aborted = false;
+		for(Map.Entry<TypescriptRuntime, Thread> entry : this.running.entrySet()) {
+			if(entry.getValue() != owner) {
+				continue;
+			}
+			
+			TypescriptRuntime runtime = entry.getKey();
+			long started = runtime.getCallStartedNanos();
+			if(started != 0 && this.terminate(runtime, started)) {
+				aborted = true;
+			}
+		}
+		
+		return aborted;
+	}
+	
+	private boolean terminate(TypescriptRuntime runtime, long started) {
+		try {
+			if(runtime.terminate(started)) {
+				this.terminated.increment();
+				return true;
+			}
+		} catch(RuntimeException e) {
+			// the runtime was released meanwhile
+		}
+		
+		return false;
+	}
+	
+	public void close() {
+		if(this.watchdog != null) {
+			this.watchdog.shutdownNow();
+		}
+		
+		this.running.clear();
+	}
+	
+	/**
+	 * Number of runtimes replaced because their heap grew past the limit.
+	 * 
+	 * @return
+	 */
+	public long getRecycledForHeap() {
+		return this.recycledForHeap.sum();
+	}
+	
+	/**
+	 * Number of runtimes replaced because they served the maximum number of
+	 * parses.
+	 * 
+	 * @return
+	 */
+	public long getRecycledForParseCount() {
+		return this.recycledForParseCount.sum();
+	}
+	
+	/**
+	 * Number of parses aborted by the watchdog or by a request deadline.
+	 * 
+	 * @return
+	 */
+	public long getTerminatedCount() {
+		return this.terminated.sum();
+	}
+	
+}
@@ -0,0 +1,390 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+/**
+ * 
+ * Schedules parses on two lanes by the size of the code, so that a few
+ * huge files cannot hold up the many small ones queued behind them.
+ * 
+ * Small files are served first-come first-served by their own workers,
+ * several files per call into V8 using
+ * {@link TypescriptParser#parseBatch(List)}. Large files are served by
+ * dedicated workers, shortest first, except that a file that has waited
+ * longer than the configured maximum is taken ahead of all others. Workers
+ * of the large lane help with small files when they have nothing else to
+ * do; workers of the small lane take a large file only once it has waited
+ * too long and no small file is queued.
+ * 
+ * The wrapped parser's pool should allow at least as many runtimes as
+ * there are workers in both lanes; it is not closed by {@link #close()}.
+ *
+ */
+public class SizeAwareParseScheduler implements AutoCloseable {
+	
+	private final TypescriptParser parser;
+	
+	private final ParseSchedulerOptions options;
+	
+	private final long maxWaitNanos;
+	
+	/**
+	 * Small files, oldest first
+	 */
+	private final Deque<Job> small = new ArrayDeque<>();
+	
+	/**
+	 * Large files, oldest first
+	 */
+	private final List<Job> large = new ArrayList<>();
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	private final Condition available = lock.newCondition();
+	
+	private final List<Thread> workers = new ArrayList<>();
+	
+	private boolean closed = false;
+	
+	private SizeAwareParseScheduler(TypescriptParser parser, ParseSchedulerOptions options) {
+		this.parser = parser;
+		this.options = options;
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(options.getMaxWaitMillis());
+	}
+	
+	/**
+	 * Create a scheduler and start the workers of both lanes.
+	 * 
+	 * @param parser
+	 * @param options
+	 * @return
+	 */
+	public static SizeAwareParseScheduler start(TypescriptParser parser, ParseSchedulerOptions options) {
+		if(options.getSmallWorkers() < 1 || options.getLargeWorkers() < 1) {
+			throw new IllegalArgumentException("Each lane needs at least one worker");
+		}
+		
+		// workers see the scheduler only once it is fully constructed
+		SizeAwareParseScheduler scheduler = new SizeAwareParseScheduler(parser, options);
+		for(int index = 1; index <= options.getSmallWorkers(); index++) {
+			scheduler.startWorker(false, "tsparser-small-" + index);
+		}
+		
+		for(int index = 1; index <= options.getLargeWorkers(); index++) {
+			scheduler.startWorker(true, "tsparser-large-" + index);
+		}
+		
+		return scheduler;
+	}
+	
+	/**
+	 * Queue the given code for parsing on the lane its size belongs to.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return a future completed with the parsed file, or exceptionally with
+	 *         a {@link RejectedExecutionException} if the queue is full or
+	 *         the scheduler has been closed
+	 */
+	public CompletableFuture<SourceFile> submit(String fileName, String code) {
+		final Job job = new Job(fileName, code);
+		
+		this.lock.lock();
+		try {
+			if(this.closed) {
+				job.future.completeExceptionally(new RejectedExecutionException("Scheduler has been closed, rejected: " + fileName));
+				return job.future;
+			}
+			
+			if(this.small.size() + this.large.size() >= this.options.getQueueCapacity()) {
+				job.future.completeExceptionally(new RejectedExecutionException("Parse queue is full, rejected: " + fileName));
+				return job.future;
+			}
+			
+			if(code.length() >= this.options.getLargeFileThreshold()) {
+				this.large.add(job);
+			} else {
+				this.small.addLast(job);
+			}
+			
+			this.available.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		
+		return job.future;
+	}
+	
+	private void startWorker(final boolean largeLane, String name) {
+		Thread thread = new Thread(() -> this.work(largeLane), name);
+		thread.setDaemon(true);
+		thread.start();
+		
+		this.workers.add(thread);
+	}
+	
+	private void work(boolean largeLane) {
+		while(true) {
+			List<Job> jobs;
+			try {
+				jobs = this.take(largeLane);
+			} catch (InterruptedException e) {
+				return;
+			}
+			
+			if(jobs == null) {
+				return;
+			}
+			
+			this.run(jobs);
+		}
+	}
+	
+	/**
+	 * Wait for the next piece of work for a worker of the given lane.
+	 * 
+	 * @param largeLane
+	 * @return the files to parse, or <code>null</code> once the scheduler
+	 *         has been closed and nothing is left
+	 * 
+	 * @throws InterruptedException
+	 */
+	private List<Job> take(boolean largeLane) throws InterruptedException {
+		this.lock.lock();
+		try {
+			while(true) {
+				final long now = System.nanoTime();
+				
+				List<Job> jobs = null;
+				if(largeLane) {
+					jobs = this.takeLarge(now, false);
+					if(jobs == null) {
+						jobs = this.takeSmall();
+					}
+				} else {
+					jobs = this.takeSmall();
+					if(jobs == null) {
+						jobs = this.takeLarge(now, true);
+					}
+				}
+				
+				if(jobs != null) {
+					return jobs;
+				}
+				
+				if(this.closed) {
+					return null;
+				}
+				
+				if(!largeLane && !this.large.isEmpty()) {
+					// wake up when the oldest large file is due
+					long due = this.large.get(0).queued + this.maxWaitNanos - now;
+					this.available.awaitNanos(Math.max(due, 1));
+				} else {
+					this.available.await();
+				}
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * Take as many small files as fit in one batch. Must be called with the
+	 * lock held.
+	 * 
+	 * @return
+	 */
+	private List<Job> takeSmall() {
+		if(this.small.isEmpty()) {
+			return null;
+		}
+		
+		List<Job> jobs = new ArrayList<>();
+		long chars = 0;
+		while(!this.small.isEmpty() && jobs.size() < this.options.getBatchMaxFiles()) {
+			Job next = this.small.peekFirst();
+			if(!jobs.isEmpty() && chars + next.code.length() > this.options.getBatchMaxChars()) {
+				break;
+			}
+			
+			jobs.add(this.small.pollFirst());
+			chars += next.code.length();
+		}
+		
+		return jobs;
+	}
+	
+	/**
+	 * Take the oldest large file if it has waited too long, else the
+	 * smallest one. Must be called with the lock held.
+	 * 
+	 * @param now
+	 * @param agedOnly
+	 *            whether to take only a file that has waited too long
+	 * 
+	 * @return
+	 */
+	private List<Job> takeLarge(long now, boolean agedOnly) {
+		if(this.large.isEmpty()) {
+			return null;
+		}
+		
+		// the list is in arrival order, so the first file is the oldest
+		int chosen = 0;
+		if(now - this.large.get(0).queued < this.maxWaitNanos) {
+			if(agedOnly) {
+				return null;
+			}
+			
+			for(int index = 1; index < this.large.size(); index++) {
+				if(this.large.get(index).code.length() < this.large.get(chosen).code.length()) {
+					chosen = index;
+				}
+			}
+		}
+		
+		List<Job> jobs = new ArrayList<>(1);
+		jobs.add(this.large.remove(chosen));
+		return jobs;
+	}
+	
+	private void run(List<Job> jobs) {
+		// skip files that were cancelled while queued
+		Iterator<Job> iterator = jobs.iterator();
+		while(iterator.hasNext()) {
+			if(iterator.next().future.isDone()) {
+				iterator.remove();
+			}
+		}
+		
+		if(jobs.isEmpty()) {
+			return;
+		}
+		
+		if(jobs.size() == 1) {
+			Job job = jobs.get(0);
+			try {
+				job.future.complete(this.parser.parse(job.fileName, job.code));
+			} catch(Throwable t) {
+				job.future.completeExceptionally(t);
+			}
+			
+			return;
+		}
+		
+		List<SourceInput> inputs = new ArrayList<>(jobs.size());
+		for(Job job : jobs) {
+			inputs.add(new SourceInput(job.fileName, job.code));
+		}
+		
+		try {
+			List<ParseResult> results = this.parser.parseBatch(inputs);
+			for(int index = 0; index < jobs.size(); index++) {
+				ParseResult result = results.get(index);
+				if(result.isSuccess()) {
+					jobs.get(index).future.complete(result.getSourceFile());
+				} else {
+					jobs.get(index).future.completeExceptionally(result.getError());
+				}
+			}
+		} catch(Throwable t) {
+			for(Job job : jobs) {
+				job.future.completeExceptionally(t);
+			}
+		}
+	}
+	
+	/**
+	 * Number of small files waiting for a worker.
+	 * 
+	 * @return
+	 */
+	public int getQueuedSmallCount() {
+		this.lock.lock();
+		try {
+			return this.small.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * Number of large files waiting for a worker.
+	 * 
+	 * @return
+	 */
+	public int getQueuedLargeCount() {
+		this.lock.lock();
+		try {
+			return this.large.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * Stop accepting files. Files already queued are still parsed.
+	 */
+	@Override
+	public void close() {
+		this.lock.lock();
+		try {
+			this.closed = true;
+			this.available.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		
+		for(Thread worker : this.workers) {
+			try {
+				worker.join(TimeUnit.MINUTES.toMillis(1));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	
+	private static class Job {
+		
+		final String fileName;
+		
+		final String code;
+		
+		final long queued = System.nanoTime();
+		
+		final CompletableFuture<SourceFile> future = new CompletableFuture<>();
+		
+		Job(String fileName, String code) {
+			this.fileName = fileName;
+			this.code = code;
+		}
+		
+	}
+
+}
@@ -0,0 +1,47 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+/**
+ * 
+ * A single source file to be parsed.
+ *
+ */
+public class SourceInput {
+	
+	private final String fileName;
+	
+	private final String code;
+	
+	public SourceInput(String fileName, String code) {
+		this.fileName = fileName;
+		this.code = code;
+	}
+	
+	@Override
+	public String toString() {
+		return "[SourceInput: " + this.fileName + "]";
+	}
+
+	// Usual accessors follow
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+}
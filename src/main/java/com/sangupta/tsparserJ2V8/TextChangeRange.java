@@ -0,0 +1,65 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+/**
+ * 
+ * Describes an edit to a file: the span of the old text that was replaced
+ * and the length of the text that replaced it. Mirrors Typescript's
+ * <code>TextChangeRange</code>.
+ *
+ */
+public class TextChangeRange {
+	
+	/**
+	 * Start of the replaced span in the old text
+	 */
+	private final int start;
+	
+	/**
+	 * Length of the replaced span in the old text
+	 */
+	private final int length;
+	
+	/**
+	 * Length of the replacement in the new text
+	 */
+	private final int newLength;
+	
+	public TextChangeRange(int start, int length, int newLength) {
+		this.start = start;
+		this.length = length;
+		this.newLength = newLength;
+	}
+	
+	@Override
+	public String toString() {
+		return "[TextChangeRange: Start=" + this.start + "; Length=" + this.length + "; NewLength=" + this.newLength + "]";
+	}
+
+	// Usual accessors follow
+
+	public int getStart() {
+		return start;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	public int getNewLength() {
+		return newLength;
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * 
+ * The Typescript compiler source (<code>typescript.js</code>) that gets
+ * loaded in every runtime. By default the version bundled on the classpath
+ * is used so that no network access is needed.
+ *
+ */
+public class TypescriptLibrary {
+	
+	/**
+	 * The Typescript version shipped with this library
+	 */
+	public static final String BUNDLED_VERSION = "4.6.3";
+	
+	private static final String BUNDLED_RESOURCE = "META-INF/resources/webjars/typescript/" + BUNDLED_VERSION + "/lib/typescript.js";
+	
+	private final String version;
+	
+	private final String name;
+	
+	private final String source;
+	
+	public TypescriptLibrary(String version, String name, String source) {
+		this.version = version;
+		this.name = name;
+		this.source = source;
+	}
+	
+	/**
+	 * Return the Typescript library bundled on the classpath. The source is
+	 * read only once per JVM.
+	 * 
+	 * @return
+	 */
+	public static TypescriptLibrary bundled() {
+		return BundledHolder.INSTANCE;
+	}
+	
+	/**
+	 * Load a Typescript library from the given file.
+	 * 
+	 * @param file
+	 * @param version
+	 * @return
+	 */
+	public static TypescriptLibrary fromFile(File file, String version) {
+		try {
+			return new TypescriptLibrary(version, file.getName(), FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read Typescript library from: " + file.getAbsolutePath(), e);
+		}
+	}
+	
+	private static TypescriptLibrary loadBundled() {
+		try(InputStream stream = TypescriptLibrary.class.getClassLoader().getResourceAsStream(BUNDLED_RESOURCE)) {
+			if(stream == null) {
+				throw new IllegalStateException("Bundled Typescript library not found on classpath: " + BUNDLED_RESOURCE);
+			}
+			
+			return new TypescriptLibrary(BUNDLED_VERSION, "typescript-" + BUNDLED_VERSION + ".js", IOUtils.toString(stream, StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read bundled Typescript library", e);
+		}
+	}
+	
+	private static class BundledHolder {
+		private static final TypescriptLibrary INSTANCE = loadBundled();
+	}
+
+	// Usual accessors follow
+	
+	public String getVersion() {
+		return version;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+}
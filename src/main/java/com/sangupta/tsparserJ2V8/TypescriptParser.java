@@ -0,0 +1,719 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.sangupta.jerry.util.AssertUtils;
+import com.sangupta.tsparserJ2V8.binary.BinaryAst;
+import com.sangupta.tsparserJ2V8.binary.CompactAst;
+import com.sangupta.tsparserJ2V8.cache.ParseCache;
+import com.sangupta.tsparserJ2V8.lazy.LazySourceFile;
+import com.sangupta.tsparserJ2V8.metrics.ParseMetrics;
+import com.sangupta.tsparserJ2V8.metrics.ParsePhase;
+import com.sangupta.tsparserJ2V8.metrics.ParseSample;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+/**
+ * 
+ * Parse Typescript code (TS/TSX) into strongly-typed AST objects using a
+ * pool of warm V8 runtimes. Instances are thread-safe and are meant to be
+ * shared: each call checks out a runtime that already has the Typescript
+ * compiler loaded, so the cost of a parse is that of
+ * <code>createSourceFile</code> alone.
+ *
+ */
+public class TypescriptParser implements AutoCloseable {
+	
+	private static final Gson GSON = new Gson();
+	
+	private final TypescriptParserOptions options;
+	
+	private final RuntimePool pool;
+	
+	private final long createdNanos = System.nanoTime();
+	
+	private final AtomicLong coldStartNanos = new AtomicLong(-1);
+	
+	public TypescriptParser() {
+		this(new TypescriptParserOptions());
+	}
+	
+	public TypescriptParser(TypescriptParserOptions options) {
+		// a cache keyed by another compiler version would serve stale trees
+		ParseCache cache = options.getParseCache();
+		if(cache != null && !cache.getVersion().equals(options.getLibrary().getVersion())) {
+			throw new IllegalArgumentException("Parse cache is for Typescript " + cache.getVersion() + " but the parser uses " + options.getLibrary().getVersion());
+		}
+		
+		this.options = options;
+		this.pool = new RuntimePool(options);
+		this.pool.warmUp();
+	}
+	
+	/**
+	 * Parse the given code.
+	 * 
+	 * @param fileName
+	 *            the name of the file, the extension decides if the code is
+	 *            treated as TS or TSX
+	 * 
+	 * @param code
+	 *            the code to parse
+	 * 
+	 * @return the parsed {@link SourceFile}
+	 */
+	public SourceFile parse(String fileName, String code) {
+		return this.parse(fileName, code, null);
+	}
+	
+	/**
+	 * Parse the given code, sharing strings and leaf nodes with other files
+	 * through the given interner.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param interner
+	 *            the interner of the project, or <code>null</code> for none
+	 * 
+	 * @return the parsed {@link SourceFile}
+	 */
+	@SuppressWarnings("unchecked")
+	public SourceFile parse(String fileName, String code, AstInterner interner) {
+		final ParseMetrics metrics = this.options.getMetrics();
+		final ParseSample sample = new ParseSample(fileName);
+		long mark = System.nanoTime();
+		
+		final ParseCache cache = this.options.getParseCache();
+		final String key = cache != null ? cache.keyOf(fileName, code) : null;
+		if(cache != null) {
+			SourceFile cached = cache.get(key, code.length());
+			mark = sample.time(ParsePhase.CACHE, mark);
+			
+			if(cached != null) {
+				sample.cacheHit = true;
+				metrics.recordParse(sample);
+				return cached;
+			}
+		}
+		
+		String json;
+		
+		TypescriptRuntime runtime = this.pool.checkout();
+		try {
+			mark = sample.time(ParsePhase.CHECKOUT, mark);
+			json = runtime.createSourceFile(fileName, code);
+			mark = sample.time(ParsePhase.V8_PARSE, mark);
+			
+			if(metrics.isEnabled()) {
+				runtime.sample(sample);
+				mark = System.nanoTime();
+			}
+		} finally {
+			this.pool.checkin(runtime);
+		}
+		
+		Map<String, Object> map = GSON.fromJson(json, Map.class);
+		mark = sample.time(ParsePhase.DECODE, mark);
+		SourceFile sourceFile = AstConverter.convertToAst(map, SourceFile.class, interner);
+		sample.time(ParsePhase.CONVERT, mark);
+		this.coldStartNanos.compareAndSet(-1, System.nanoTime() - this.createdNanos);
+		
+		// the file is shared from now on, and comes back read-only
+		if(cache != null) {
+			cache.put(key, code.length(), sourceFile);
+		}
+		
+		sample.bytesMarshalled = 2l * (code.length() + json.length());
+		metrics.recordParse(sample);
+		return sourceFile;
+	}
+	
+	/**
+	 * Parse many files with a single call into V8. All sources are sent in
+	 * one transfer, parsed on the JS side, and all ASTs come back in one
+	 * transfer. This avoids the fixed per-call overhead that dominates for
+	 * small files. Files found in the cache, if one is configured, are not
+	 * sent at all.
+	 * 
+	 * @param inputs
+	 *            the files to parse
+	 * 
+	 * @return one {@link ParseResult} per input, in the same order
+	 */
+	public List<ParseResult> parseBatch(List<SourceInput> inputs) {
+		return this.parseBatch(inputs, null);
+	}
+	
+	/**
+	 * Parse many files with a single call into V8, sharing strings and leaf
+	 * nodes through the given interner.
+	 * 
+	 * @param inputs
+	 *            the files to parse
+	 * 
+	 * @param interner
+	 *            the interner of the project, or <code>null</code> for none
+	 * 
+	 * @return one {@link ParseResult} per input, in the same order
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ParseResult> parseBatch(List<SourceInput> inputs, AstInterner interner) {
+		if(AssertUtils.isEmpty(inputs)) {
+			return new ArrayList<>();
+		}
+		
+		final ParseMetrics metrics = this.options.getMetrics();
+		final ParseSample sample = new ParseSample(inputs.get(0).getFileName());
+		long mark = System.nanoTime();
+		
+		final ParseCache cache = this.options.getParseCache();
+		ParseResult[] results = new ParseResult[inputs.size()];
+		
+		// indexes of the inputs that need to be parsed, and their cache keys
+		List<Integer> pending = new ArrayList<>();
+		List<String> keys = new ArrayList<>();
+		JsonArray sources = new JsonArray();
+		long codeLength = 0;
+		for(int index = 0; index < inputs.size(); index++) {
+			SourceInput input = inputs.get(index);
+			String key = null;
+			if(cache != null) {
+				key = cache.keyOf(input.getFileName(), input.getCode());
+				SourceFile cached = cache.get(key, input.getCode().length());
+				if(cached != null) {
+					results[index] = new ParseResult(input.getFileName(), cached);
+					continue;
+				}
+			}
+			
+			JsonArray source = new JsonArray();
+			source.add(input.getFileName());
+			source.add(input.getCode());
+			
+			sources.add(source);
+			pending.add(index);
+			keys.add(key);
+			codeLength += input.getCode().length();
+		}
+		
+		mark = sample.time(ParsePhase.CACHE, mark);
+		sample.fileCount = pending.size();
+		sample.cacheHit = pending.isEmpty();
+		
+		if(!pending.isEmpty()) {
+			String json;
+			TypescriptRuntime runtime = this.pool.checkout();
+			try {
+				mark = sample.time(ParsePhase.CHECKOUT, mark);
+				json = runtime.parseBatch(GSON.toJson(sources));
+				mark = sample.time(ParsePhase.V8_PARSE, mark);
+				
+				if(metrics.isEnabled()) {
+					runtime.sample(sample);
+					mark = System.nanoTime();
+				}
+			} finally {
+				this.pool.checkin(runtime);
+			}
+			
+			List<Object> asts = GSON.fromJson(json, List.class);
+			mark = sample.time(ParsePhase.DECODE, mark);
+			sample.bytesMarshalled = 2l * (codeLength + json.length());
+			
+			for(int item = 0; item < pending.size(); item++) {
+				final int index = pending.get(item);
+				final SourceInput input = inputs.get(index);
+				
+				ParseResult result = toResult(input.getFileName(), (Map<String, Object>) asts.get(item), interner);
+				if(cache != null && result.isSuccess()) {
+					cache.put(keys.get(item), input.getCode().length(), result.getSourceFile());
+				}
+				
+				results[index] = result;
+			}
+			
+			sample.time(ParsePhase.CONVERT, mark);
+		}
+		
+		metrics.recordParse(sample);
+		return new ArrayList<>(Arrays.asList(results));
+	}
+	
+	/**
+	 * Parse the given file. The file is loaded by {@link MappedSources} and
+	 * its UTF-8 bytes are decoded inside V8, so its code is never held in a
+	 * Java string. The cache is not consulted, as it is keyed by code.
+	 * 
+	 * @param file
+	 * @return the parsed {@link SourceFile}
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public SourceFile parse(Path file) throws IOException {
+		return this.parse(file, null);
+	}
+	
+	/**
+	 * Parse the given file, sharing strings and leaf nodes with other files
+	 * through the given interner.
+	 * 
+	 * @param file
+	 * @param interner
+	 *            the interner of the project, or <code>null</code> for none
+	 * 
+	 * @return the parsed {@link SourceFile}
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	@SuppressWarnings("unchecked")
+	public SourceFile parse(Path file, AstInterner interner) throws IOException {
+		final String fileName = file.toString();
+		final ParseMetrics metrics = this.options.getMetrics();
+		final ParseSample sample = new ParseSample(fileName);
+		
+		long mark = System.nanoTime();
+		ByteBuffer source = MappedSources.reader().read(file);
+		metrics.recordRead(fileName, source.capacity(), System.nanoTime() - mark);
+		mark = System.nanoTime();
+		
+		String json;
+		
+		TypescriptRuntime runtime = this.pool.checkout();
+		try {
+			mark = sample.time(ParsePhase.CHECKOUT, mark);
+			json = runtime.createSourceFile(fileName, source);
+			mark = sample.time(ParsePhase.V8_PARSE, mark);
+			
+			if(metrics.isEnabled()) {
+				runtime.sample(sample);
+				mark = System.nanoTime();
+			}
+		} finally {
+			this.pool.checkin(runtime);
+		}
+		
+		Map<String, Object> map = GSON.fromJson(json, Map.class);
+		mark = sample.time(ParsePhase.DECODE, mark);
+		SourceFile sourceFile = AstConverter.convertToAst(map, SourceFile.class, interner);
+		sample.time(ParsePhase.CONVERT, mark);
+		this.coldStartNanos.compareAndSet(-1, System.nanoTime() - this.createdNanos);
+		
+		sample.bytesMarshalled = source.capacity() + 2l * json.length();
+		metrics.recordParse(sample);
+		return sourceFile;
+	}
+	
+	/**
+	 * Parse many files with a single call into V8, each handed to V8 as
+	 * UTF-8 bytes in a direct buffer.
+	 * 
+	 * @param files
+	 *            the files to parse
+	 * 
+	 * @return one {@link ParseResult} per file, in the same order
+	 */
+	public List<ParseResult> parseFiles(List<Path> files) {
+		return this.parseFiles(files, null);
+	}
+	
+	/**
+	 * Parse many files with a single call into V8, as
+	 * {@link #parseBatch(List, AstInterner)} does, but hand each file to V8
+	 * as UTF-8 bytes in a direct buffer in place of a Java string. The cache
+	 * is not consulted, as it is keyed by code.
+	 * 
+	 * @param files
+	 *            the files to parse
+	 * 
+	 * @param interner
+	 *            the interner of the project, or <code>null</code> for none
+	 * 
+	 * @return one {@link ParseResult} per file, in the same order
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ParseResult> parseFiles(List<Path> files, AstInterner interner) {
+		if(AssertUtils.isEmpty(files)) {
+			return new ArrayList<>();
+		}
+		
+		final ParseMetrics metrics = this.options.getMetrics();
+		final ParseSample sample = new ParseSample(files.get(0).toString());
+		ParseResult[] results = new ParseResult[files.size()];
+		
+		// indexes of the files that could be read
+		List<Integer> pending = new ArrayList<>();
+		JsonArray fileNames = new JsonArray();
+		List<ByteBuffer> sources = new ArrayList<>();
+		long sourceLength = 0;
+		MappedSources.Reader reader = MappedSources.reader();
+		for(int index = 0; index < files.size(); index++) {
+			final String fileName = files.get(index).toString();
+			try {
+				final long start = System.nanoTime();
+				ByteBuffer source = reader.read(files.get(index));
+				metrics.recordRead(fileName, source.capacity(), System.nanoTime() - start);
+				
+				fileNames.add(fileName);
+				sources.add(source);
+				pending.add(index);
+				sourceLength += source.capacity();
+			} catch(IOException e) {
+				results[index] = new ParseResult(fileName, e);
+			}
+		}
+		
+		sample.fileCount = pending.size();
+		long mark = System.nanoTime();
+		
+		if(!pending.isEmpty()) {
+			String json;
+			TypescriptRuntime runtime = this.pool.checkout();
+			try {
+				mark = sample.time(ParsePhase.CHECKOUT, mark);
+				json = runtime.parseBatch(GSON.toJson(fileNames), sources);
+				mark = sample.time(ParsePhase.V8_PARSE, mark);
+				
+				if(metrics.isEnabled()) {
+					runtime.sample(sample);
+					mark = System.nanoTime();
+				}
+			} finally {
+				this.pool.checkin(runtime);
+			}
+			
+			List<Object> asts = GSON.fromJson(json, List.class);
+			mark = sample.time(ParsePhase.DECODE, mark);
+			sample.bytesMarshalled = sourceLength + 2l * json.length();
+			
+			for(int item = 0; item < pending.size(); item++) {
+				final int index = pending.get(item);
+				results[index] = toResult(files.get(index).toString(), (Map<String, Object>) asts.get(item), interner);
+			}
+			
+			sample.time(ParsePhase.CONVERT, mark);
+		}
+		
+		metrics.recordParse(sample);
+		return new ArrayList<>(Arrays.asList(results));
+	}
+	
+	/**
+	 * Read the imports of the given code without building its AST. This is
+	 * far cheaper than a parse when only the dependencies of a file are
+	 * needed.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	public ImportList preProcess(String fileName, String code) {
+		return this.preProcessBatch(Arrays.asList(new SourceInput(fileName, code))).get(0);
+	}
+	
+	/**
+	 * Read the imports of many files with a single call into V8, without
+	 * building their ASTs.
+	 * 
+	 * @param inputs
+	 * @return one {@link ImportList} per input, in the same order
+	 */
+	public List<ImportList> preProcessBatch(List<SourceInput> inputs) {
+		if(AssertUtils.isEmpty(inputs)) {
+			return new ArrayList<>();
+		}
+		
+		JsonArray sources = new JsonArray();
+		List<String> fileNames = new ArrayList<>(inputs.size());
+		for(SourceInput input : inputs) {
+			JsonArray source = new JsonArray();
+			source.add(input.getFileName());
+			source.add(input.getCode());
+			
+			sources.add(source);
+			fileNames.add(input.getFileName());
+		}
+		
+		String json;
+		TypescriptRuntime runtime = this.pool.checkout();
+		try {
+			json = runtime.preProcessBatch(GSON.toJson(sources));
+		} finally {
+			this.pool.checkin(runtime);
+		}
+		
+		return toImportLists(fileNames, json);
+	}
+	
+	/**
+	 * Read the imports of many files with a single call into V8, handing
+	 * each file to V8 as UTF-8 bytes in a direct buffer.
+	 * 
+	 * @param files
+	 * @return one {@link ImportList} per file, in the same order
+	 */
+	public List<ImportList> preProcessFiles(List<Path> files) {
+		if(AssertUtils.isEmpty(files)) {
+			return new ArrayList<>();
+		}
+		
+		final ParseMetrics metrics = this.options.getMetrics();
+		ImportList[] results = new ImportList[files.size()];
+		
+		// indexes of the files that could be read
+		List<Integer> pending = new ArrayList<>();
+		List<String> fileNames = new ArrayList<>();
+		List<ByteBuffer> sources = new ArrayList<>();
+		MappedSources.Reader reader = MappedSources.reader();
+		for(int index = 0; index < files.size(); index++) {
+			final String fileName = files.get(index).toString();
+			try {
+				final long start = System.nanoTime();
+				ByteBuffer source = reader.read(files.get(index));
+				metrics.recordRead(fileName, source.capacity(), System.nanoTime() - start);
+				
+				fileNames.add(fileName);
+				sources.add(source);
+				pending.add(index);
+			} catch(IOException e) {
+				results[index] = new ImportList(fileName, e);
+			}
+		}
+		
+		if(!pending.isEmpty()) {
+			String json;
+			TypescriptRuntime runtime = this.pool.checkout();
+			try {
+				json = runtime.preProcessBatch(sources);
+			} finally {
+				this.pool.checkin(runtime);
+			}
+			
+			List<ImportList> lists = toImportLists(fileNames, json);
+			for(int item = 0; item < pending.size(); item++) {
+				results[pending.get(item)] = lists.get(item);
+			}
+		}
+		
+		return new ArrayList<>(Arrays.asList(results));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static List<ImportList> toImportLists(List<String> fileNames, String json) {
+		List<Object> items = GSON.fromJson(json, List.class);
+		List<ImportList> lists = new ArrayList<>(items.size());
+		
+		for(int index = 0; index < items.size(); index++) {
+			final String fileName = fileNames.get(index);
+			Map<String, Object> item = (Map<String, Object>) items.get(index);
+			
+			if(item.containsKey("error")) {
+				lists.add(new ImportList(fileName, new RuntimeException("Unable to read imports of " + fileName + ": " + item.get("error"))));
+				continue;
+			}
+			
+			lists.add(new ImportList(fileName, (List<String>) item.get("imports"), (List<String>) item.get("references"), (List<String>) item.get("types")));
+		}
+		
+		return lists;
+	}
+	
+	/**
+	 * Convert one projected AST of a batch, or the error reported in its
+	 * place, into a result.
+	 * 
+	 * @param fileName
+	 * @param ast
+	 * @param interner
+	 * @return
+	 */
+	private static ParseResult toResult(String fileName, Map<String, Object> ast, AstInterner interner) {
+		if(ast.containsKey("error")) {
+			return new ParseResult(fileName, new RuntimeException("Unable to parse " + fileName + ": " + ast.get("error")));
+		}
+		
+		try {
+			return new ParseResult(fileName, AstConverter.convertToAst(ast, SourceFile.class, interner));
+		} catch(RuntimeException e) {
+			return new ParseResult(fileName, e);
+		}
+	}
+	
+	/**
+	 * Parse the given code and write its AST as JSON straight to the given
+	 * writer. The JSON holds the same fields as the {@link SourceFile} model
+	 * but is serialized inside V8 and written in chunks, so no Java object
+	 * graph is built and the document is never held in memory as a whole.
+	 * The writer is neither flushed nor closed.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param writer
+	 * @throws IOException
+	 *             if the writer fails
+	 */
+	public void writeJson(String fileName, String code, Writer writer) throws IOException {
+		TypescriptRuntime runtime = this.pool.checkout();
+		try {
+			runtime.writeJson(fileName, code, this.options.getJsonChunkSize(), writer);
+		} finally {
+			this.pool.checkin(runtime);
+		}
+	}
+	
+	/**
+	 * Parse the given code and write its AST as UTF-8 JSON straight to the
+	 * given stream. The stream is flushed but not closed.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param stream
+	 * @throws IOException
+	 *             if the stream fails
+	 */
+	public void writeJson(String fileName, String code, OutputStream stream) throws IOException {
+		Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+		this.writeJson(fileName, code, writer);
+		writer.flush();
+	}
+	
+	/**
+	 * Parse the given code into the flat binary layout of {@link BinaryAst}.
+	 * The whole tree reaches Java in one bulk transfer through a shared
+	 * buffer and is decoded lazily as it is read.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	public BinaryAst parseBinary(String fileName, String code) {
+		TypescriptRuntime runtime = this.pool.checkout();
+		try {
+			return BinaryAst.wrap(runtime.encode(fileName, code));
+		} finally {
+			this.pool.checkin(runtime);
+		}
+	}
+	
+	/**
+	 * Parse the given code into a {@link CompactAst}, suitable for keeping
+	 * the trees of a large number of files in memory.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param offHeap
+	 *            whether to keep the node columns in off-heap memory
+	 * 
+	 * @return
+	 */
+	public CompactAst parseCompact(String fileName, String code, boolean offHeap) {
+		return CompactAst.from(this.parseBinary(fileName, code), offHeap);
+	}
+	
+	/**
+	 * Parse the given code into a {@link LazySourceFile} whose nodes are read
+	 * from V8 only when accessed. The file keeps a runtime checked out until
+	 * it is closed, and must be used and closed on the calling thread.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	public LazySourceFile parseLazy(String fileName, String code) {
+		final TypescriptRuntime runtime = this.pool.checkout();
+		try {
+			return LazySourceFile.parse(runtime, fileName, code, () -> this.pool.checkin(runtime));
+		} catch(RuntimeException e) {
+			this.pool.checkin(runtime);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Walk the AST of the given code and report every node to the visitor,
+	 * without building a {@link SourceFile}. Events reach Java in chunks, so
+	 * heap use stays flat irrespective of the size of the file.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param visitor
+	 */
+	public void stream(String fileName, String code, AstVisitor visitor) {
+		this.stream(fileName, code, visitor, (int[]) null);
+	}
+	
+	/**
+	 * Walk the AST of the given code and report only the nodes of the given
+	 * kinds to the visitor.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param visitor
+	 * @param kinds
+	 *            the node kinds to report, all nodes are reported if none are
+	 *            given
+	 */
+	public void stream(String fileName, String code, AstVisitor visitor, int... kinds) {
+		String kindsJson = null;
+		if(kinds != null && kinds.length > 0) {
+			kindsJson = GSON.toJson(kinds);
+		}
+		
+		TypescriptRuntime runtime = this.pool.checkout();
+		try {
+			runtime.stream(fileName, code, kindsJson, this.options.getStreamChunkSize(), visitor);
+		} finally {
+			this.pool.checkin(runtime);
+		}
+	}
+	
+	/**
+	 * Time from creating this parser up to the end of its first parse, or
+	 * <code>-1</code> if nothing has been parsed yet.
+	 * 
+	 * @return
+	 */
+	public long getColdStartNanos() {
+		return this.coldStartNanos.get();
+	}
+	
+	public TypescriptParserOptions getOptions() {
+		return this.options;
+	}
+	
+	public RuntimePool getPool() {
+		return this.pool;
+	}
+	
+	@Override
+	public void close() {
+		this.pool.close();
+	}
+
+}
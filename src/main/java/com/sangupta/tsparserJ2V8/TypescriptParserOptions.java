@@ -0,0 +1,239 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import com.sangupta.tsparserJ2V8.cache.ParseCache;
+import com.sangupta.tsparserJ2V8.metrics.ParseMetrics;
+
+/**
+ * 
+ * Configuration for a {@link TypescriptParser}.
+ *
+ */
+public class TypescriptParserOptions {
+	
+	/**
+	 * The Typescript library to load in each runtime
+	 */
+	private TypescriptLibrary library;
+	
+	/**
+	 * Maximum number of runtimes that can be alive at any point of time
+	 */
+	private int maxRuntimes = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Number of runtimes to keep warm even when they are idle
+	 */
+	private int minIdleRuntimes = 0;
+	
+	/**
+	 * Time after which an idle runtime is released
+	 */
+	private long idleTimeoutMillis = 5 * 60 * 1000l;
+	
+	/**
+	 * Maximum time to wait for a runtime to become available
+	 */
+	private long checkoutTimeoutMillis = 60 * 1000l;
+	
+	/**
+	 * Time after which a single parse is aborted and its runtime replaced,
+	 * or <code>0</code> to let parses run for as long as they take
+	 */
+	private long parseTimeoutMillis = 0;
+	
+	/**
+	 * V8 heap in use after a parse beyond which the runtime is replaced,
+	 * or <code>0</code> for no limit
+	 */
+	private long maxRuntimeHeapBytes = 0;
+	
+	/**
+	 * Number of parses between two samples of a runtime's heap when it is
+	 * limited; samples taken for the metrics are reused in between
+	 */
+	private long heapCheckInterval = 16;
+	
+	/**
+	 * Number of parses after which a runtime is replaced, or <code>0</code>
+	 * for no limit
+	 */
+	private long maxParsesPerRuntime = 0;
+	
+	/**
+	 * Number of events sent from the JS side to an {@link AstVisitor} at a
+	 * time when streaming
+	 */
+	private int streamChunkSize = 1024;
+	
+	/**
+	 * Number of characters of JSON sent from the JS side at a time when
+	 * writing JSON directly
+	 */
+	private int jsonChunkSize = 64 * 1024;
+	
+	/**
+	 * Cache consulted before parsing, if any
+	 */
+	private ParseCache parseCache;
+	
+	/**
+	 * Where parse timings and runtime samples are reported
+	 */
+	private ParseMetrics metrics = ParseMetrics.NOOP;
+	
+	/**
+	 * Whether runtimes record where each V8 handle is allocated, so that
+	 * leaked handles can be reported. This is slow and meant for debugging.
+	 */
+	private boolean trackHandleAllocations = false;
+	
+	public TypescriptParserOptions() {
+		this(TypescriptLibrary.bundled());
+	}
+	
+	public TypescriptParserOptions(TypescriptLibrary library) {
+		this.library = library;
+	}
+
+	// Usual accessors follow
+
+	public TypescriptLibrary getLibrary() {
+		return library;
+	}
+
+	public TypescriptParserOptions setLibrary(TypescriptLibrary library) {
+		this.library = library;
+		return this;
+	}
+
+	public int getMaxRuntimes() {
+		return maxRuntimes;
+	}
+
+	public TypescriptParserOptions setMaxRuntimes(int maxRuntimes) {
+		this.maxRuntimes = maxRuntimes;
+		return this;
+	}
+
+	public int getMinIdleRuntimes() {
+		return minIdleRuntimes;
+	}
+
+	public TypescriptParserOptions setMinIdleRuntimes(int minIdleRuntimes) {
+		this.minIdleRuntimes = minIdleRuntimes;
+		return this;
+	}
+
+	public long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	public TypescriptParserOptions setIdleTimeoutMillis(long idleTimeoutMillis) {
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		return this;
+	}
+
+	public long getCheckoutTimeoutMillis() {
+		return checkoutTimeoutMillis;
+	}
+
+	public TypescriptParserOptions setCheckoutTimeoutMillis(long checkoutTimeoutMillis) {
+		this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+		return this;
+	}
+
+	public long getParseTimeoutMillis() {
+		return parseTimeoutMillis;
+	}
+	
+	public TypescriptParserOptions setParseTimeoutMillis(long parseTimeoutMillis) {
+		this.parseTimeoutMillis = parseTimeoutMillis;
+		return this;
+	}
+	
+	public long getMaxRuntimeHeapBytes() {
+		return maxRuntimeHeapBytes;
+	}
+	
+	public TypescriptParserOptions setMaxRuntimeHeapBytes(long maxRuntimeHeapBytes) {
+		this.maxRuntimeHeapBytes = maxRuntimeHeapBytes;
+		return this;
+	}
+	
+	public long getHeapCheckInterval() {
+		return heapCheckInterval;
+	}
+	
+	public TypescriptParserOptions setHeapCheckInterval(long heapCheckInterval) {
+		this.heapCheckInterval = heapCheckInterval;
+		return this;
+	}
+	
+	public long getMaxParsesPerRuntime() {
+		return maxParsesPerRuntime;
+	}
+	
+	public TypescriptParserOptions setMaxParsesPerRuntime(long maxParsesPerRuntime) {
+		this.maxParsesPerRuntime = maxParsesPerRuntime;
+		return this;
+	}
+	
+	public int getStreamChunkSize() {
+		return streamChunkSize;
+	}
+
+	public TypescriptParserOptions setStreamChunkSize(int streamChunkSize) {
+		this.streamChunkSize = streamChunkSize;
+		return this;
+	}
+
+	public int getJsonChunkSize() {
+		return jsonChunkSize;
+	}
+
+	public TypescriptParserOptions setJsonChunkSize(int jsonChunkSize) {
+		this.jsonChunkSize = jsonChunkSize;
+		return this;
+	}
+
+	public ParseCache getParseCache() {
+		return parseCache;
+	}
+
+	public TypescriptParserOptions setParseCache(ParseCache parseCache) {
+		this.parseCache = parseCache;
+		return this;
+	}
+
+	public ParseMetrics getMetrics() {
+		return metrics;
+	}
+
+	public TypescriptParserOptions setMetrics(ParseMetrics metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+	
+	public boolean isTrackHandleAllocations() {
+		return trackHandleAllocations;
+	}
+	
+	public TypescriptParserOptions setTrackHandleAllocations(boolean trackHandleAllocations) {
+		this.trackHandleAllocations = trackHandleAllocations;
+		return this;
+	}
+
+}
@@ -0,0 +1,835 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.apache.commons.io.IOUtils;
+
+import com.eclipsesource.v8.NodeJS;
+import com.eclipsesource.v8.Releasable;
+import com.eclipsesource.v8.V8;
+import com.eclipsesource.v8.V8Array;
+import com.eclipsesource.v8.V8ArrayBuffer;
+import com.eclipsesource.v8.V8Object;
+import com.sangupta.tsparserJ2V8.metrics.ParseSample;
+
+/**
+ * 
+ * A single NodeJS/V8 runtime with the Typescript compiler already loaded.
+ * 
+ * A runtime is confined to one thread at a time: the thread that checks
+ * it out of the {@link RuntimePool} holds the V8 lock until the runtime
+ * is returned.
+ *
+ */
+public class TypescriptRuntime {
+	
+	private final NodeJS nodeJS;
+	
+	/**
+	 * Describes the compiler options every runtime parses with
+	 */
+	public static final String COMPILER_OPTIONS = "module=ScriptTarget.Latest";
+	
+	private static final String HELPERS_RESOURCE = "tsparser.js";
+	
+	private final V8Object typescript;
+	
+	private final V8Object helpers;
+	
+	private final V8Object compilerOptions;
+	
+	private final AstEvent.Dispatcher dispatcher;
+	
+	private final JsonChunkWriter jsonWriter;
+	
+	private final long created = System.currentTimeMillis();
+	
+	private final long startupNanos;
+	
+	private final long libraryLoadNanos;
+	
+	private long firstParseNanos = -1;
+	
+	private long lastUsed = created;
+	
+	private long parseCount;
+	
+	/**
+	 * When the current call into V8 started, or <code>0</code> if none is
+	 * running
+	 */
+	private volatile long callStartedNanos;
+	
+	/**
+	 * Makes ending a call and aborting it mutually exclusive, so that the
+	 * watchdog never aborts a call that has already finished
+	 */
+	private final Object callLock = new Object();
+	
+	private volatile boolean terminated = false;
+	
+	private long heapUsed = -1;
+	
+	/**
+	 * The parse count at which the heap was last sampled
+	 */
+	private long heapSampledAt = -1;
+	
+	private long baselineHandles;
+	
+	private HandleTracker tracker;
+	
+	private boolean released = false;
+	
+	private TypescriptRuntime(NodeJS nodeJS, V8Object typescript, V8Object helpers, V8Object compilerOptions, AstEvent.Dispatcher dispatcher, JsonChunkWriter jsonWriter, long startupNanos, long libraryLoadNanos) {
+		this.nodeJS = nodeJS;
+		this.typescript = typescript;
+		this.helpers = helpers;
+		this.compilerOptions = compilerOptions;
+		this.dispatcher = dispatcher;
+		this.jsonWriter = jsonWriter;
+		this.startupNanos = startupNanos;
+		this.libraryLoadNanos = libraryLoadNanos;
+	}
+
+	/**
+	 * Create a new runtime on the current thread and load the Typescript
+	 * library in it.
+	 * 
+	 * @param library
+	 *            the Typescript library to load
+	 * 
+	 * @return
+	 */
+	public static TypescriptRuntime create(TypescriptLibrary library) {
+		return create(library, false);
+	}
+	
+	/**
+	 * Create a new runtime on the current thread and load the Typescript
+	 * library in it.
+	 * 
+	 * @param library
+	 *            the Typescript library to load
+	 * 
+	 * @param trackAllocations
+	 *            whether to record where each handle is allocated, so that
+	 *            leaked handles can be reported by {@link #getHandleLeaks()}
+	 * 
+	 * @return
+	 */
+	public static TypescriptRuntime create(TypescriptLibrary library, boolean trackAllocations) {
+		final long start = System.nanoTime();
+		NodeJS nodeJS = NodeJS.createNodeJS();
+		final long started = System.nanoTime();
+		
+		TypescriptRuntime runtime;
+		
+		// everything created here is released with the arena unless persisted
+		V8 v8 = nodeJS.getRuntime();
+		try(HandleArena arena = new HandleArena(v8)) {
+			// evaluate the library directly, it declares a global `ts`
+			v8.executeVoidScript(library.getSource(), library.getName(), 0);
+			V8Object typescript = v8.getObject("ts");
+			
+			v8.executeVoidScript(HelpersHolder.SOURCE, HELPERS_RESOURCE, 0);
+			V8Object helpers = v8.getObject("tsparser");
+			
+			AstSchema schema = AstSchema.sourceFile();
+			helpers.executeJSFunction("setSchema", schema.toJson(), schema.getRoot());
+			
+			AstEvent.Dispatcher dispatcher = new AstEvent.Dispatcher();
+			helpers.registerJavaMethod(dispatcher, "emit");
+			
+			JsonChunkWriter jsonWriter = new JsonChunkWriter();
+			helpers.registerJavaMethod(jsonWriter, "write");
+			final long loaded = System.nanoTime();
+
+			// setup compiler options
+			V8Object moduleKind = typescript.getObject("ScriptTarget");
+			final Integer system = moduleKind.getInteger("Latest");
+
+			V8Object compilerOptions = new V8Object(v8);
+			compilerOptions.add("module", system);
+			
+			runtime = new TypescriptRuntime(nodeJS, arena.persist(typescript), arena.persist(helpers), arena.persist(compilerOptions), dispatcher, jsonWriter, started - start, loaded - started);
+		} catch(RuntimeException e) {
+			release(nodeJS);
+			throw e;
+		}
+		
+		// whatever is open now stays open for the life of the runtime
+		runtime.baselineHandles = v8.getObjectReferenceCount();
+		if(trackAllocations) {
+			runtime.tracker = new HandleTracker();
+			v8.addReferenceHandler(runtime.tracker);
+		}
+		
+		return runtime;
+	}
+	
+	/**
+	 * Parse the given code and return the AST as JSON. The tree is projected
+	 * to the fields of the {@link AstSchema} before it leaves V8.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	public String createSourceFile(String fileName, String code) {
+		final long start = System.nanoTime();
+		
+		String json = this.call(fileName, arena -> (String) this.helpers.executeJSFunction("parse", fileName, code, this.compilerOptions));
+		
+		if(this.firstParseNanos < 0) {
+			this.firstParseNanos = System.nanoTime() - start;
+		}
+		
+		return json;
+	}
+	
+	/**
+	 * Parse the given UTF-8 source bytes and return the AST as JSON. The
+	 * buffer is handed to V8 as the backing store of an ArrayBuffer and
+	 * decoded on the JS side, so the code never exists as a Java string.
+	 * V8 only reads from the buffer, which may therefore be a read-only
+	 * mapped file.
+	 * 
+	 * @param fileName
+	 * @param utf8
+	 *            a direct buffer holding exactly the source bytes
+	 * 
+	 * @return
+	 */
+	public String createSourceFile(String fileName, ByteBuffer utf8) {
+		final long start = System.nanoTime();
+		
+		String json = this.call(fileName, arena -> (String) this.helpers.executeJSFunction("parseBuffer", fileName, new V8ArrayBuffer(this.getV8(), utf8), this.compilerOptions));
+		
+		if(this.firstParseNanos < 0) {
+			this.firstParseNanos = System.nanoTime() - start;
+		}
+		
+		return json;
+	}
+	
+	/**
+	 * Parse the given code and return the Typescript <code>SourceFile</code>
+	 * object itself. The caller owns the returned handle.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	public V8Object createSourceFileObject(String fileName, String code) {
+		return this.call(fileName, arena -> arena.persist((V8Object) this.typescript.executeJSFunction("createSourceFile", fileName, code, this.compilerOptions, false)));
+	}
+	
+	/**
+	 * Parse the given code and keep the Typescript source file alive in this
+	 * runtime, keyed by its name, for later incremental updates.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return the projected AST as JSON
+	 */
+	public String openDocument(String fileName, String code) {
+		return this.call(fileName, arena -> (String) this.helpers.executeJSFunction("openDocument", fileName, code, this.compilerOptions));
+	}
+	
+	/**
+	 * Incrementally reparse a document opened with
+	 * {@link #openDocument(String, String)} using <code>ts.updateSourceFile</code>.
+	 * 
+	 * @param fileName
+	 * @param newCode
+	 * @param change
+	 * @return JSON object whose <code>statements</code> hold, for every
+	 *         statement of the new tree, either the index of the reused
+	 *         statement in the old tree or the projected new statement
+	 */
+	public String updateDocument(String fileName, String newCode, TextChangeRange change) {
+		return this.call(fileName, arena -> (String) this.helpers.executeJSFunction("updateDocument", fileName, newCode, change.getStart(), change.getLength(), change.getNewLength()));
+	}
+	
+	/**
+	 * Release the Typescript source file kept for the given document.
+	 * 
+	 * @param fileName
+	 */
+	public void closeDocument(String fileName) {
+		this.inArena(arena -> this.helpers.executeJSFunction("closeDocument", fileName));
+	}
+	
+	/**
+	 * Parse many files in a single call into V8. The inputs and the results
+	 * each cross the JNI boundary once, as a single JSON string.
+	 * 
+	 * @param inputsJson
+	 *            JSON array of <code>[fileName, code]</code> pairs
+	 * 
+	 * @return JSON array with one projected AST, or one
+	 *         <code>{ error }</code> object, per input
+	 */
+	public String parseBatch(String inputsJson) {
+		return this.call(null, arena -> (String) this.helpers.executeJSFunction("parseBatch", inputsJson, this.compilerOptions));
+	}
+	
+	/**
+	 * Parse many files given as UTF-8 source bytes in a single call into V8,
+	 * as {@link #createSourceFile(String, ByteBuffer)} does for one file.
+	 * 
+	 * @param fileNamesJson
+	 *            JSON array of the file names
+	 * 
+	 * @param sources
+	 *            direct buffers holding the source bytes, one per file name
+	 * 
+	 * @return JSON array with one projected AST, or one
+	 *         <code>{ error }</code> object, per file
+	 */
+	public String parseBatch(String fileNamesJson, List<ByteBuffer> sources) {
+		return this.call(null, arena -> {
+			V8Array buffers = new V8Array(this.getV8());
+			for(ByteBuffer source : sources) {
+				buffers.push(new V8ArrayBuffer(this.getV8(), source));
+			}
+			
+			return (String) this.helpers.executeJSFunction("parseBufferBatch", fileNamesJson, buffers, this.compilerOptions);
+		});
+	}
+	
+	/**
+	 * Read the imports of many files with <code>ts.preProcessFile</code>,
+	 * without building their ASTs.
+	 * 
+	 * @param inputsJson
+	 *            JSON array of <code>[fileName, code]</code> pairs
+	 * 
+	 * @return JSON array with one <code>{ imports, references, types }</code>
+	 *         or <code>{ error }</code> object per input
+	 */
+	public String preProcessBatch(String inputsJson) {
+		return this.call(null, arena -> (String) this.helpers.executeJSFunction("preProcessBatch", inputsJson));
+	}
+	
+	/**
+	 * Read the imports of many files given as UTF-8 source bytes, as
+	 * {@link #preProcessBatch(String)} does.
+	 * 
+	 * @param sources
+	 *            direct buffers holding the source bytes
+	 * 
+	 * @return
+	 */
+	public String preProcessBatch(List<ByteBuffer> sources) {
+		return this.call(null, arena -> {
+			V8Array buffers = new V8Array(this.getV8());
+			for(ByteBuffer source : sources) {
+				buffers.push(new V8ArrayBuffer(this.getV8(), source));
+			}
+			
+			return (String) this.helpers.executeJSFunction("preProcessBufferBatch", buffers);
+		});
+	}
+	
+	/**
+	 * Parse the given code and encode the projected AST in the flat binary
+	 * layout of {@link com.sangupta.tsparserJ2V8.binary.BinaryAst}. The
+	 * buffer is allocated on the Java side and handed to V8 as the backing
+	 * store of an ArrayBuffer, so the JS encoder writes into it directly and
+	 * nothing is copied on the way back.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return a direct buffer in native byte order
+	 */
+	public ByteBuffer encode(String fileName, String code) {
+		return this.call(fileName, arena -> {
+			int size = ((Number) this.helpers.executeJSFunction("encode", fileName, code, this.compilerOptions)).intValue();
+			
+			ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+			this.helpers.executeJSFunction("writeEncoded", new V8ArrayBuffer(this.getV8(), buffer));
+			return buffer;
+		});
+	}
+	
+	/**
+	 * Walk the AST of the given code on the JS side and report its nodes to
+	 * the visitor in chunks, without materializing the tree in Java.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param kindsJson
+	 *            JSON array of the node kinds to report, or <code>null</code>
+	 *            to report all nodes
+	 * 
+	 * @param chunkSize
+	 *            the number of events sent to Java at a time
+	 * 
+	 * @param visitor
+	 */
+	public void stream(String fileName, String code, String kindsJson, int chunkSize, AstVisitor visitor) {
+		this.dispatcher.start(visitor, chunkSize);
+		try {
+			this.call(fileName, arena -> this.helpers.executeJSFunction("stream", fileName, code, this.compilerOptions, kindsJson, chunkSize));
+		} finally {
+			this.dispatcher.stop();
+		}
+	}
+	
+	/**
+	 * Parse the given code and write its projected AST as JSON to the given
+	 * writer, in chunks, as it is serialized inside V8. The same JSON as
+	 * {@link #createSourceFile(String, String)} is produced, but neither the
+	 * tree nor the whole document is held in memory.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param chunkSize
+	 *            the number of characters sent to Java at a time
+	 * 
+	 * @param writer
+	 * @throws IOException
+	 *             if the writer fails
+	 */
+	public void writeJson(String fileName, String code, int chunkSize, Writer writer) throws IOException {
+		this.jsonWriter.start(writer);
+		try {
+			this.call(fileName, arena -> this.helpers.executeJSFunction("writeJson", fileName, code, this.compilerOptions, chunkSize));
+		} catch(RuntimeException e) {
+			IOException failure = this.jsonWriter.getFailure();
+			if(failure != null) {
+				throw failure;
+			}
+			
+			throw e;
+		} finally {
+			this.jsonWriter.stop();
+		}
+	}
+	
+	/**
+	 * Make a call into V8 that may be aborted by the watchdog, and wait for
+	 * NodeJS to finish whatever it scheduled. Every handle created during
+	 * the call is released once it returns, except the ones it persists.
+	 * 
+	 * @param fileName
+	 *            the file being parsed, or <code>null</code> for a batch
+	 * 
+	 * @param body
+	 * @return
+	 */
+	private <T> T call(String fileName, Function<HandleArena, T> body) {
+		this.started();
+		try {
+			return this.inArena(arena -> {
+				T result = body.apply(arena);
+				
+				this.drain();
+				return result;
+			});
+		} catch(RuntimeException e) {
+			throw this.failed(fileName, e);
+		} finally {
+			this.finished();
+		}
+	}
+	
+	/**
+	 * Run the given code inside a {@link HandleArena} of this runtime.
+	 * 
+	 * @param body
+	 * @return
+	 */
+	private <T> T inArena(Function<HandleArena, T> body) {
+		try(HandleArena arena = new HandleArena(this.getV8())) {
+			return body.apply(arena);
+		}
+	}
+	
+	/**
+	 * Mark the start of a call into V8, from which the watchdog measures its
+	 * deadline.
+	 */
+	private void started() {
+		this.callStartedNanos = System.nanoTime();
+	}
+	
+	private void finished() {
+		synchronized (this.callLock) {
+			this.callStartedNanos = 0;
+		}
+		
+		this.parseCount++;
+		this.lastUsed = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Report a call that was terminated by the watchdog as having timed out.
+	 * 
+	 * @param fileName
+	 *            the file being parsed, or <code>null</code> for a batch
+	 * 
+	 * @param e
+	 *            the exception raised by V8
+	 * 
+	 * @return
+	 */
+	private RuntimeException failed(String fileName, RuntimeException e) {
+		if(!this.terminated) {
+			return e;
+		}
+		
+		TimeoutException timeout = new TimeoutException("Parsing " + (fileName != null ? fileName : "batch") + " exceeded its deadline and was terminated");
+		timeout.initCause(e);
+		return new RuntimeException(timeout);
+	}
+	
+	/**
+	 * Wait for NodeJS to finish up everything that got scheduled.
+	 */
+	private void drain() {
+		while (this.nodeJS.isRunning()) {
+			this.nodeJS.handleMessage();
+		}
+	}
+	
+	/**
+	 * Fill in the runtime side of a metrics sample: the number of nodes
+	 * projected by the last parse, the Java handles still open into this
+	 * runtime, and the V8 heap size. This costs a call into V8.
+	 * 
+	 * @param sample
+	 */
+	public void sample(ParseSample sample) {
+		this.inArena(arena -> {
+			V8Array stats = this.helpers.executeArrayFunction("stats", null);
+			sample.nodeCount = (int) stats.getDouble(0);
+			sample.heapUsed = (long) stats.getDouble(1);
+			sample.heapTotal = (long) stats.getDouble(2);
+			return null;
+		});
+		
+		sample.liveHandles = this.getLiveHandleCount();
+		this.heapUsed = sample.heapUsed;
+		this.heapSampledAt = this.parseCount;
+	}
+	
+	/**
+	 * The V8 heap in use after the last parse. The heap is sampled at most
+	 * once per parse, so this is cheap to call repeatedly.
+	 * 
+	 * @return the heap used in bytes, or <code>-1</code> if not known
+	 */
+	public long getHeapUsed() {
+		return this.getHeapUsed(1);
+	}
+	
+	/**
+	 * The V8 heap in use, as last sampled. The heap is sampled again only if
+	 * it never was, or if the last sample is at least the given number of
+	 * parses old, so callers can check it after every parse without a call
+	 * into V8 each time.
+	 * 
+	 * @param maxAgeParses
+	 *            number of parses after which a sample is stale
+	 * 
+	 * @return the heap used in bytes, or <code>-1</code> if not known
+	 */
+	public long getHeapUsed(long maxAgeParses) {
+		if(this.heapSampledAt < 0 || this.parseCount - this.heapSampledAt >= Math.max(1, maxAgeParses)) {
+			this.heapUsed = this.inArena(arena -> (long) this.helpers.executeArrayFunction("stats", null).getDouble(1));
+			
+			this.heapSampledAt = this.parseCount;
+		}
+		
+		return this.heapUsed;
+	}
+	
+	/**
+	 * Number of Java handles currently open into this runtime, including
+	 * the ones the runtime itself holds on to.
+	 * 
+	 * @return
+	 */
+	public long getLiveHandleCount() {
+		return this.getV8().getObjectReferenceCount();
+	}
+	
+	/**
+	 * Number of handles the runtime holds on to for its whole life. Any
+	 * handle beyond these that is still open when the runtime is idle has
+	 * leaked.
+	 * 
+	 * @return
+	 */
+	public long getBaselineHandleCount() {
+		return this.baselineHandles;
+	}
+	
+	/**
+	 * Handles opened since the runtime was created that are still open,
+	 * with their allocation sites. Always empty unless the runtime was
+	 * created with allocation tracking.
+	 * 
+	 * @return
+	 */
+	public List<HandleLeak> getHandleLeaks() {
+		if(this.tracker == null) {
+			return Collections.emptyList();
+		}
+		
+		return this.tracker.getOpen();
+	}
+	
+	public boolean isTrackingAllocations() {
+		return this.tracker != null;
+	}
+	
+	/**
+	 * Account for the handles leaked since the last call: they become part
+	 * of the baseline so that they are reported only once.
+	 * 
+	 * @return the number of handles leaked since the last call
+	 */
+	long collectLeakedHandles() {
+		long live = this.getLiveHandleCount();
+		long leaked = live - this.baselineHandles;
+		if(leaked > 0) {
+			this.baselineHandles = live;
+		}
+		
+		return Math.max(0, leaked);
+	}
+	
+	/**
+	 * Allocation sites of the handles leaked since the last call, if the
+	 * runtime tracks allocations.
+	 * 
+	 * @return
+	 */
+	List<HandleLeak> collectHandleLeaks() {
+		if(this.tracker == null) {
+			return Collections.emptyList();
+		}
+		
+		return this.tracker.drainOpen();
+	}
+	
+	/**
+	 * Abort the call currently running in this runtime, if it is still the
+	 * one that started at the given time. This may be called from any
+	 * thread. A terminated runtime cannot be used any more and must be
+	 * released.
+	 * 
+	 * @param startedNanos
+	 *            the start of the call to abort, as seen by the caller
+	 * 
+	 * @return whether the call was aborted
+	 */
+	boolean terminate(long startedNanos) {
+		synchronized (this.callLock) {
+			if(startedNanos == 0 || this.callStartedNanos != startedNanos) {
+				return false;
+			}
+			
+			// set before the call can finish, so check in sees it
+			this.terminated = true;
+			this.getV8().terminateExecution();
+			return true;
+		}
+	}
+	
+	/**
+	 * When the current call into V8 started, as per {@link System#nanoTime()},
+	 * or <code>0</code> if no call is running.
+	 * 
+	 * @return
+	 */
+	long getCallStartedNanos() {
+		return this.callStartedNanos;
+	}
+	
+	/**
+	 * Bind this runtime to the current thread.
+	 */
+	void attach() {
+		V8 v8 = this.nodeJS.getRuntime();
+		if(!v8.getLocker().hasLock()) {
+			v8.getLocker().acquire();
+		}
+	}
+	
+	/**
+	 * Unbind this runtime from the current thread so that another thread
+	 * may use it.
+	 */
+	void detach() {
+		V8 v8 = this.nodeJS.getRuntime();
+		if(v8.getLocker().hasLock()) {
+			v8.getLocker().release();
+		}
+	}
+	
+	/**
+	 * Mark this runtime as used right now.
+	 */
+	void touch() {
+		this.lastUsed = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Release all native resources held by this runtime. The runtime must
+	 * be attached to the current thread.
+	 */
+	public void release() {
+		if(this.released) {
+			return;
+		}
+		
+		this.released = true;
+		if(this.tracker != null) {
+			this.getV8().removeReferenceHandler(this.tracker);
+		}
+		
+		release(this.compilerOptions);
+		release(this.helpers);
+		release(this.typescript);
+		release(this.nodeJS);
+	}
+	
+	public V8 getV8() {
+		return this.nodeJS.getRuntime();
+	}
+
+	public long getCreated() {
+		return this.created;
+	}
+
+	public long getLastUsed() {
+		return this.lastUsed;
+	}
+
+	public long getParseCount() {
+		return this.parseCount;
+	}
+	
+	/**
+	 * Time taken to start the V8 runtime.
+	 * 
+	 * @return
+	 */
+	public long getStartupNanos() {
+		return this.startupNanos;
+	}
+	
+	/**
+	 * Time taken to evaluate the Typescript library in the runtime.
+	 * 
+	 * @return
+	 */
+	public long getLibraryLoadNanos() {
+		return this.libraryLoadNanos;
+	}
+	
+	/**
+	 * Time taken by the first parse in this runtime, or <code>-1</code> if
+	 * nothing has been parsed yet.
+	 * 
+	 * @return
+	 */
+	public long getFirstParseNanos() {
+		return this.firstParseNanos;
+	}
+	
+	/**
+	 * Cold start time from creating the runtime up to the end of its first
+	 * parse, or <code>-1</code> if nothing has been parsed yet.
+	 * 
+	 * @return
+	 */
+	public long getColdStartNanos() {
+		if(this.firstParseNanos < 0) {
+			return -1;
+		}
+		
+		return this.startupNanos + this.libraryLoadNanos + this.firstParseNanos;
+	}
+	
+	public boolean isReleased() {
+		return this.released;
+	}
+	
+	/**
+	 * Whether a call in this runtime was aborted by the watchdog, after
+	 * which the runtime can no longer be used.
+	 * 
+	 * @return
+	 */
+	public boolean isTerminated() {
+		return this.terminated;
+	}
+
+	private static class HelpersHolder {
+		private static final String SOURCE = readHelpers();
+	}
+	
+	private static String readHelpers() {
+		try(InputStream stream = TypescriptRuntime.class.getResourceAsStream(HELPERS_RESOURCE)) {
+			if(stream == null) {
+				throw new IllegalStateException("Parser helpers not found on classpath: " + HELPERS_RESOURCE);
+			}
+			
+			return IOUtils.toString(stream, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read parser helpers", e);
+		}
+	}
+	
+	private static void release(NodeJS nodeJS) {
+		if (nodeJS == null) {
+			return;
+		}
+		
+		try {
+			nodeJS.release();
+		} catch (Exception e) {
+			// eat up
+		}
+	}
+
+	private static void release(Releasable obj) {
+		if (obj == null) {
+			return;
+		}
+
+		try {
+			obj.release();
+		} catch (Exception e) {
+			// eat up
+		}
+	}
+}
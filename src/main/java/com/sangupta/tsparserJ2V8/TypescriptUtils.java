@@ -20,7 +20,9 @@ import com.sangupta.jerry.util.StringUtils;
 import com.sangupta.tsparserJ2V8.ast.AstNode;
 import com.sangupta.tsparserJ2V8.ast.AstObject;
 import com.sangupta.tsparserJ2V8.ast.Block;
+import com.sangupta.tsparserJ2V8.ast.BodyStatement;
 import com.sangupta.tsparserJ2V8.ast.Expression;
+import com.sangupta.tsparserJ2V8.ast.FunctionBody;
 import com.sangupta.tsparserJ2V8.ast.Member;
 import com.sangupta.tsparserJ2V8.ast.Statement;
 
@@ -28,40 +30,53 @@ public class TypescriptUtils {
 	
 	public static final String UNKNOWN = "$unknown";
 	
-	private static final int KIND_VOID_KEYWORD = 113;
-	private static final int KIND_ANY_KEYWORD = 128;
-	private static final int KIND_BOOLEAN_KEYWORD = 131;
-	private static final int KIND_NEVER_KEYWORD = 141;
-	private static final int KIND_NUMBER_KEYWORD = 144;
-	private static final int KIND_STRING_KEYWORD = 147;
-	private static final int KIND_UNDEFINED_KEYWORD = 150;
-	private static final int KIND_ARROW_METHOD = 164;
-	private static final int KIND_SIMPLE_METHOD = 166;
-	private static final int KIND_FUNCTION_TYPE = 175;
-	private static final int KIND_UNION_TYPE = 183;
-	private static final int KIND_NULL_KEYWORD = 192;
-	private static final int KIND_PROPERTY_ACCESS_EXPR = 198;
-	private static final int KIND_PARANTHESIS_EXPR = 208;	
-	private static final int KIND_EXPR_WITH_TYPE_ARGS = 224;
-	private static final int KIND_RETURN_STATEMENT = 243;
-	private static final int KIND_CLASS_DECL = 253;	
-	private static final int KIND_FUNCTION_DECL = 252;
-	private static final int KIND_INTERFACE_DECL = 254;
-	private static final int KIND_IMPORT_DECL = 262;
-	private static final int KIND_JSX_ELEMENT = 274;
-	private static final int KIND_JSX_FRAGMENT = 278;
-	private static final int KIND_HERITAGE_CLAUSE = 287;
+	// SyntaxKind values, every check of a node kind refers to these
+	public static final int KIND_NUMERIC_LITERAL = 8;
+	public static final int KIND_STRING_LITERAL = 10;
+	public static final int KIND_DEFAULT_KEYWORD = 87;
+	public static final int KIND_EXPORT_KEYWORD = 92;
+	public static final int KIND_FALSE_KEYWORD = 94;
+	public static final int KIND_TRUE_KEYWORD = 109;
+	public static final int KIND_VOID_KEYWORD = 113;
+	public static final int KIND_ANY_KEYWORD = 128;
+	public static final int KIND_BOOLEAN_KEYWORD = 131;
+	public static final int KIND_NEVER_KEYWORD = 141;
+	public static final int KIND_NUMBER_KEYWORD = 144;
+	public static final int KIND_STRING_KEYWORD = 147;
+	public static final int KIND_UNDEFINED_KEYWORD = 150;
+	public static final int KIND_ARROW_METHOD = 164;
+	public static final int KIND_METHOD_SIGNATURE = 165;
+	public static final int KIND_SIMPLE_METHOD = 166;
+	public static final int KIND_FUNCTION_TYPE = 175;
+	public static final int KIND_UNION_TYPE = 183;
+	public static final int KIND_NULL_KEYWORD = 192;
+	public static final int KIND_PROPERTY_ACCESS_EXPR = 198;
+	public static final int KIND_PARANTHESIS_EXPR = 208;
+	public static final int KIND_FUNCTION_EXPRESSION = 209;
+	public static final int KIND_ARROW_FUNCTION = 210;
+	public static final int KIND_EXPR_WITH_TYPE_ARGS = 224;
+	public static final int KIND_RETURN_STATEMENT = 243;
+	public static final int KIND_FUNCTION_DECL = 252;
+	public static final int KIND_CLASS_DECL = 253;
+	public static final int KIND_INTERFACE_DECL = 254;
+	public static final int KIND_TYPE_ALIAS_DECL = 255;
+	public static final int KIND_IMPORT_DECL = 262;
+	public static final int KIND_EXPORT_ASSIGNMENT = 267;
+	public static final int KIND_EXPORT_DECL = 268;
+	public static final int KIND_JSX_ELEMENT = 274;
+	public static final int KIND_JSX_FRAGMENT = 278;
+	public static final int KIND_HERITAGE_CLAUSE = 287;
 	
 	
 	public static String getNodeType(AstNode node) {
 		switch(node.kind) {
-			case 253:
+			case KIND_CLASS_DECL:
 				return "ClassDeclaration";
-			case 252:
+			case KIND_FUNCTION_DECL:
 				return "FunctionDeclaration";
-			case 254:
+			case KIND_INTERFACE_DECL:
 				return "InterfaceDeclaration";
-			case 262:
+			case KIND_IMPORT_DECL:
 				return "ImportDeclaration";
 		}
 		
@@ -122,7 +137,7 @@ public class TypescriptUtils {
 		}
 		
 		for(Member member : statement.members) {
-			if(isMethodDeclaration(member) && member.name.escapedText.equals(methodName)) {
+			if(isMethodDeclaration(member) && member.name != null && methodName.equals(member.name.escapedText)) {
 				return true;
 			}
 		}
@@ -149,7 +164,7 @@ public class TypescriptUtils {
 	}
 
 	public static boolean returnsJsxFragement(Block body) {
-		for(Statement statement : body.statements) {
+		for(BodyStatement statement : body.statements) {
 			if(isReturnStatement(statement) && isJsxElement(statement.expression)) {
 				return true;
 			}
@@ -158,6 +173,25 @@ public class TypescriptUtils {
 		return false;
 	}
 
+	/**
+	 * Check if the given function body returns JSX, from a return statement
+	 * or as the expression body of an arrow function.
+	 * 
+	 * @param body
+	 * @return
+	 */
+	public static boolean returnsJsx(FunctionBody body) {
+		if(body.kind == KIND_JSX_ELEMENT || body.kind == KIND_JSX_FRAGMENT) {
+			return true;
+		}
+		
+		if(body.kind == KIND_PARANTHESIS_EXPR) {
+			return isJsxElement(body.expression);
+		}
+		
+		return returnsJsxFragement(body);
+	}
+
 	/**
 	 * Check if given expression returns a JsxElement or a JsxFragment.
 	 * 
@@ -16,6 +16,14 @@ package com.sangupta.tsparserJ2V8.ast;
 public abstract class AstNode {
 
 	public int kind;
+	
+	/**
+	 * Called once all fields of this node have been set by the converter,
+	 * to build anything derived from them.
+	 */
+	public void afterConversion() {
+		// nothing to do
+	}
 
 	@Override
 	public String toString() {
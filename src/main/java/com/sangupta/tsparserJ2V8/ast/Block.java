@@ -18,6 +18,6 @@ import java.util.List;
 
 public class Block extends AstNode {
 	
-	public final List<Statement> statements = new ArrayList<>();
+	public final List<BodyStatement> statements = new ArrayList<>();
 
 }
@@ -0,0 +1,27 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.ast;
+
+/**
+ * The body of a function expression: a block, or for an arrow function
+ * with an expression body the expression itself.
+ */
+public class FunctionBody extends Block {
+	
+	/**
+	 * The wrapped expression, when the body is a parenthesized expression
+	 */
+	public Expression expression;
+
+}
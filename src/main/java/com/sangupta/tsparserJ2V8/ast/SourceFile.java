@@ -14,62 +14,51 @@
 package com.sangupta.tsparserJ2V8.ast;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.sangupta.tsparserJ2V8.TypescriptUtils;
 
 public class SourceFile extends AstNode {
 	
-	private final Map<String, String> resolvedImports = new HashMap<>();
+	/**
+	 * Built when the file is converted, never serialized
+	 */
+	private transient volatile SourceFileIndex index;
 	
-	private boolean importsResolved = false;
+	/**
+	 * Resolves types across modules, if the file belongs to a project
+	 */
+	private transient volatile TypeResolver typeResolver;
 	
 	public List<Statement> statements = new ArrayList<>();
 	
-	public String getImportPath(String key) {
-		if(!this.importsResolved) {
-			this.resolveImports();
-		}
-		
-		return this.resolvedImports.get(key);
+	@Override
+	public void afterConversion() {
+		this.index = SourceFileIndex.build(this.statements);
 	}
-
-	private void resolveImports() {
-		for(Statement statement : this.statements) {
-			if(!TypescriptUtils.isImportDeclaration(statement)) {
-				continue;
-			}
-
-			// this is an imports clause
-			final String library = statement.moduleSpecifier.text;
-			if(statement.importClause.name != null) {
-				this.resolvedImports.put(statement.importClause.name.escapedText, library);
-			}
-			
-			if(statement.importClause.namedBindings != null) {
-				if(statement.importClause.namedBindings.name != null) {
-					this.resolvedImports.put(statement.importClause.namedBindings.name.escapedText, library);
-				}
-				
-				for(Element element : statement.importClause.namedBindings.elements) {
-					this.resolvedImports.put(element.name.escapedText, library);
-				}
-			}
+	
+	/**
+	 * Return the lookup index over the statements of this file, building it
+	 * if the file was not created by the converter.
+	 * 
+	 * @return
+	 */
+	public SourceFileIndex getIndex() {
+		SourceFileIndex current = this.index;
+		if(current == null) {
+			current = SourceFileIndex.build(this.statements);
+			this.index = current;
 		}
 		
-		this.importsResolved = true;
+		return current;
+	}
+	
+	public String getImportPath(String key) {
+		return this.getIndex().getImportPath(key);
 	}
 
 	public boolean hasClassDeclaration() {
-		for(Statement statement : this.statements) {
-			if(TypescriptUtils.isClassDeclaration(statement)) {
-				return true;
-			}
-		}
-		
-		return false;
+		return !this.getIndex().getStatements(TypescriptUtils.KIND_CLASS_DECL).isEmpty();
 	}
 
 	/**
@@ -85,18 +74,34 @@ public class SourceFile extends AstNode {
 			return this.getMembersOfTypeFromLibrary(importLibrary, typeName);
 		}
 		
-		for(Statement statement : this.statements) {
-			if(TypescriptUtils.isInterfaceDeclaration(statement)) {
-				if(statement.name != null && typeName.equals(statement.name.escapedText)) {
-					return statement.members;
-				}
-			}
+		// the resolver also follows what the type extends
+		if(this.typeResolver != null) {
+			return this.typeResolver.getMembersOfType(typeName);
+		}
+		
+		Statement declaration = this.getIndex().getDeclaration(TypescriptUtils.KIND_INTERFACE_DECL, typeName);
+		if(declaration != null) {
+			return declaration.members;
 		}
 		
 		return null;
 	}
 
 	private List<Member> getMembersOfTypeFromLibrary(String importLibrary, String typeName) {
-		return null;
+		if(this.typeResolver == null) {
+			return null;
+		}
+		
+		return this.typeResolver.getMembersOfType(typeName);
+	}
+
+	// Usual accessors follow
+
+	public TypeResolver getTypeResolver() {
+		return typeResolver;
+	}
+
+	public void setTypeResolver(TypeResolver typeResolver) {
+		this.typeResolver = typeResolver;
 	}
 }
@@ -0,0 +1,299 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+
+/**
+ * 
+ * Immutable lookup tables over the top-level statements of a
+ * {@link SourceFile}: declarations by name, statements by kind, exports
+ * and imports. It is built once when the file is converted, so lookups do
+ * not scan the statements and the file can be read from many threads
+ * without locking.
+ *
+ */
+public final class SourceFileIndex {
+	
+	/**
+	 * Imported name of a default import
+	 */
+	public static final String DEFAULT_IMPORT = "default";
+	
+	/**
+	 * Imported name of a namespace import, <code>* as name</code>
+	 */
+	public static final String NAMESPACE_IMPORT = "*";
+	
+	private final Map<String, List<Statement>> declarations;
+	
+	private final Map<Integer, List<Statement>> statementsByKind;
+	
+	private final Map<String, Statement> exports;
+	
+	private final Statement defaultExport;
+	
+	private final Map<String, String> imports;
+	
+	/**
+	 * Local name to the name it has in the module it was imported from
+	 */
+	private final Map<String, String> importedNames;
+	
+	private SourceFileIndex(Map<String, List<Statement>> declarations, Map<Integer, List<Statement>> statementsByKind, Map<String, Statement> exports, Statement defaultExport, Map<String, String> imports, Map<String, String> importedNames) {
+		this.declarations = declarations;
+		this.statementsByKind = statementsByKind;
+		this.exports = exports;
+		this.defaultExport = defaultExport;
+		this.imports = imports;
+		this.importedNames = importedNames;
+	}
+	
+	/**
+	 * Build the index over the given top-level statements.
+	 * 
+	 * @param statements
+	 * @return
+	 */
+	public static SourceFileIndex build(List<Statement> statements) {
+		final Map<String, List<Statement>> declarations = new HashMap<>();
+		final Map<Integer, List<Statement>> statementsByKind = new HashMap<>();
+		final Map<String, Statement> exports = new HashMap<>();
+		final Map<String, String> imports = new HashMap<>();
+		final Map<String, String> importedNames = new HashMap<>();
+		Statement defaultExport = null;
+		String defaultExportName = null;
+		
+		for(Statement statement : statements) {
+			statementsByKind.computeIfAbsent(statement.kind, kind -> new ArrayList<>()).add(statement);
+			
+			if(TypescriptUtils.isImportDeclaration(statement)) {
+				addImports(statement, imports, importedNames);
+				continue;
+			}
+			
+			if(statement.kind == TypescriptUtils.KIND_EXPORT_ASSIGNMENT) {
+				// export default Name;
+				if(statement.expression != null) {
+					defaultExportName = statement.expression.escapedText;
+				}
+				
+				continue;
+			}
+			
+			final List<String> names = getDeclaredNames(statement);
+			for(String name : names) {
+				declarations.computeIfAbsent(name, key -> new ArrayList<>()).add(statement);
+			}
+			
+			if(hasModifier(statement, TypescriptUtils.KIND_EXPORT_KEYWORD)) {
+				if(hasModifier(statement, TypescriptUtils.KIND_DEFAULT_KEYWORD)) {
+					defaultExport = statement;
+				} else {
+					for(String name : names) {
+						exports.putIfAbsent(name, statement);
+					}
+				}
+			}
+		}
+		
+		if(defaultExport == null && defaultExportName != null) {
+			List<Statement> declared = declarations.get(defaultExportName);
+			if(declared != null) {
+				defaultExport = declared.get(0);
+			}
+		}
+		
+		for(Map.Entry<String, List<Statement>> entry : declarations.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		
+		for(Map.Entry<Integer, List<Statement>> entry : statementsByKind.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		
+		return new SourceFileIndex(Collections.unmodifiableMap(declarations), Collections.unmodifiableMap(statementsByKind), Collections.unmodifiableMap(exports), defaultExport, Collections.unmodifiableMap(imports), Collections.unmodifiableMap(importedNames));
+	}
+	
+	private static void addImports(Statement statement, Map<String, String> imports, Map<String, String> importedNames) {
+		// side-effect imports have neither a clause nor names
+		if(statement.moduleSpecifier == null || statement.importClause == null) {
+			return;
+		}
+		
+		final String library = statement.moduleSpecifier.text;
+		if(statement.importClause.name != null) {
+			imports.put(statement.importClause.name.escapedText, library);
+			importedNames.put(statement.importClause.name.escapedText, DEFAULT_IMPORT);
+		}
+		
+		NamedBindings bindings = statement.importClause.namedBindings;
+		if(bindings == null) {
+			return;
+		}
+		
+		if(bindings.name != null) {
+			imports.put(bindings.name.escapedText, library);
+			importedNames.put(bindings.name.escapedText, NAMESPACE_IMPORT);
+		}
+		
+		for(Element element : bindings.elements) {
+			imports.put(element.name.escapedText, library);
+			
+			// import { Original as Local }
+			AstObject original = element.propertyName != null ? element.propertyName : element.name;
+			importedNames.put(element.name.escapedText, original.escapedText);
+		}
+	}
+	
+	/**
+	 * Names declared by a statement: its own name, or every variable of a
+	 * variable statement that is not a destructuring pattern.
+	 * 
+	 * @param statement
+	 * @return
+	 */
+	private static List<String> getDeclaredNames(Statement statement) {
+		if(statement.name != null) {
+			return statement.name.escapedText != null ? Collections.singletonList(statement.name.escapedText) : Collections.emptyList();
+		}
+		
+		if(statement.declarationList == null) {
+			return Collections.emptyList();
+		}
+		
+		List<String> names = new ArrayList<>();
+		for(VariableDeclaration declaration : statement.declarationList.declarations) {
+			if(declaration.name != null && declaration.name.escapedText != null) {
+				names.add(declaration.name.escapedText);
+			}
+		}
+		
+		return names;
+	}
+	
+	private static boolean hasModifier(Statement statement, int kind) {
+		for(AstObject modifier : statement.modifiers) {
+			if(modifier.kind == kind) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * All top-level declarations with the given name, in source order. A name
+	 * may be declared more than once, e.g. an interface merged with a class.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public List<Statement> getDeclarations(String name) {
+		List<Statement> declared = this.declarations.get(name);
+		return declared != null ? declared : Collections.emptyList();
+	}
+	
+	/**
+	 * The first top-level declaration of the given kind and name.
+	 * 
+	 * @param kind
+	 * @param name
+	 * @return the declaration, or <code>null</code> if there is none
+	 */
+	public Statement getDeclaration(int kind, String name) {
+		List<Statement> declared = this.declarations.get(name);
+		if(declared == null) {
+			return null;
+		}
+		
+		for(Statement statement : declared) {
+			if(statement.kind == kind) {
+				return statement;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * All top-level statements of the given kind, in source order.
+	 * 
+	 * @param kind
+	 * @return
+	 */
+	public List<Statement> getStatements(int kind) {
+		List<Statement> statements = this.statementsByKind.get(kind);
+		return statements != null ? statements : Collections.emptyList();
+	}
+	
+	public boolean hasStatement(int kind) {
+		return this.statementsByKind.containsKey(kind);
+	}
+	
+	/**
+	 * The named export with the given name.
+	 * 
+	 * @param name
+	 * @return the exported declaration, or <code>null</code> if there is none
+	 */
+	public Statement getExport(String name) {
+		return this.exports.get(name);
+	}
+	
+	/**
+	 * The module a local name was imported from.
+	 * 
+	 * @param name
+	 * @return the module specifier, or <code>null</code> if the name was not
+	 *         imported
+	 */
+	public String getImportPath(String name) {
+		return this.imports.get(name);
+	}
+
+	/**
+	 * The name a local name has in the module it was imported from:
+	 * {@link #DEFAULT_IMPORT} for a default import, {@link #NAMESPACE_IMPORT}
+	 * for a namespace import, and the exported name otherwise.
+	 * 
+	 * @param name
+	 * @return the imported name, or <code>null</code> if the name was not
+	 *         imported
+	 */
+	public String getImportedName(String name) {
+		return this.importedNames.get(name);
+	}
+
+	// Usual accessors follow
+
+	public Map<String, Statement> getExports() {
+		return exports;
+	}
+
+	public Statement getDefaultExport() {
+		return defaultExport;
+	}
+
+	public Map<String, String> getImports() {
+		return imports;
+	}
+
+}
@@ -13,68 +13,19 @@
 
 package com.sangupta.tsparserJ2V8.ast;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import com.sangupta.tsparserJ2V8.TypescriptUtils;
-
-public class Statement extends AstNode {
-	
-	public ImportClause importClause;
-	
-	public ModuleSpecifier moduleSpecifier;
-	
-	public AstObject name;
-	
-	public Block body;
-	
-	public Expression expression;
-	
-	public final List<HeritageClause> heritageClauses = new ArrayList<>();
-
-	public final List<AstObject> modifiers = new ArrayList<>();
-	
-	public final List<Member> members = new ArrayList<>();
-	
-	public final List<AstObject> jsDoc = new ArrayList<>();
-	
-	public final List<Parameter> parameters = new ArrayList<>();
-	
-	public String getClassName() {
-		if(!TypescriptUtils.isClassDeclaration(this)) {
-			throw new RuntimeException("Expected a class declaration");
-		}
-		
-		return this.name.escapedText;
-	}
-	
-	public boolean hasExportModifier() {
-		for(AstObject modifier : this.modifiers) {
-			if(modifier.kind == 92) {
-				return true;
-			}
-		}
-		
-		return false;
-	}
-	
-	public boolean hasDefaultModifier() {
-		for(AstObject modifier : this.modifiers) {
-			if(modifier.kind == 87) {
-				return true;
-			}
-		}
-		
-		return false;		
-	}
+/**
+ * A top-level statement of a {@link SourceFile}.
+ */
+public class Statement extends BodyStatement {
 	
-	public boolean hasHeritageClauses() {
-		return !this.heritageClauses.isEmpty();
-	}
+	/**
+	 * The aliased type of a type alias, or the return type of a function
+	 */
+	public TypeReference type;
 	
-	@Override
-	public String toString() {
-		return "[" + TypescriptUtils.getNodeType(this) + "]";
-	}
+	/**
+	 * The declared variables of a variable statement
+	 */
+	public VariableDeclarationList declarationList;
 	
 }
@@ -24,7 +24,13 @@ public class TypeReference extends AstNode {
 	
 	public final List<LiteralType> types = new ArrayList<>();
 	
+	public final List<TypeReference> typeArguments = new ArrayList<>();
+	
 	public final List<Parameter> parameters = new ArrayList<>();
 	
+	/**
+	 * Members of a type literal
+	 */
+	public final List<Member> members = new ArrayList<>();
 
 }
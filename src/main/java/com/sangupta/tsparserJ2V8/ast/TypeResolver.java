@@ -0,0 +1,36 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.ast;
+
+import java.util.List;
+
+/**
+ * 
+ * Resolves type names as seen from one {@link SourceFile}, across the
+ * modules of a project.
+ *
+ */
+public interface TypeResolver {
+	
+	/**
+	 * Find the members of the named interface or type, declared in the file
+	 * or imported into it, including the members it inherits.
+	 * 
+	 * @param typeName
+	 * @return the members, or <code>null</code> if the type cannot be
+	 *         resolved
+	 */
+	public List<Member> getMembersOfType(String typeName);
+
+}
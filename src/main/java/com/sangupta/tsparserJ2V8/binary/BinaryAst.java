@@ -0,0 +1,225 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * 
+ * A read-only view over an AST encoded in the flat binary layout written by
+ * the JS side. Nodes are numbered in pre-order and described by parallel
+ * columns; strings are kept in a deduplicated table and decoded only when
+ * first asked for.
+ * 
+ * The layout is a sequence of native-order 32-bit integers:
+ * 
+ * <pre>
+ * magic, version, nodeCount, stringCount, charCount
+ * kind[nodeCount]
+ * pos[nodeCount]
+ * end[nodeCount]
+ * parent[nodeCount]       (-1 for the root)
+ * childCount[nodeCount]
+ * field[nodeCount]        (string id of the field holding the node, -1 for the root)
+ * text[nodeCount]         (string id of the node's text, or -1)
+ * stringOffset[stringCount + 1]
+ * </pre>
+ * 
+ * followed by <code>charCount</code> UTF-16 code units of string data.
+ *
+ */
+public class BinaryAst {
+	
+	public static final int MAGIC = 0x31425354;
+	
+	public static final int VERSION = 1;
+	
+	static final int HEADER = 5;
+	
+	static final int COLUMNS = 7;
+	
+	private static final int KIND = 0;
+	
+	private static final int POS = 1;
+	
+	private static final int END = 2;
+	
+	private static final int PARENT = 3;
+	
+	private static final int CHILD_COUNT = 4;
+	
+	private static final int FIELD = 5;
+	
+	private static final int TEXT = 6;
+	
+	private final ByteBuffer buffer;
+	
+	private final IntBuffer ints;
+	
+	private final CharBuffer chars;
+	
+	private final int nodeCount;
+	
+	private final int stringCount;
+	
+	private final int stringOffsets;
+	
+	/**
+	 * Strings decoded so far
+	 */
+	private final String[] strings;
+	
+	private BinaryAst(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.ints = buffer.duplicate().order(buffer.order()).asIntBuffer();
+		
+		if(this.ints.get(0) != MAGIC) {
+			throw new IllegalArgumentException("Buffer does not hold a binary AST");
+		}
+		
+		if(this.ints.get(1) != VERSION) {
+			throw new IllegalArgumentException("Unsupported binary AST version: " + this.ints.get(1));
+		}
+		
+		this.nodeCount = this.ints.get(2);
+		this.stringCount = this.ints.get(3);
+		this.stringOffsets = HEADER + COLUMNS * this.nodeCount;
+		this.strings = new String[this.stringCount];
+		
+		int charStart = (this.stringOffsets + this.stringCount + 1) * 4;
+		ByteBuffer charBytes = buffer.duplicate().order(buffer.order());
+		charBytes.position(charStart);
+		charBytes.limit(charStart + this.ints.get(4) * 2);
+		this.chars = charBytes.slice().order(buffer.order()).asCharBuffer();
+	}
+	
+	/**
+	 * Wrap the given buffer, which must hold an AST written by the JS
+	 * encoder in native byte order.
+	 * 
+	 * @param buffer
+	 * @return
+	 */
+	public static BinaryAst wrap(ByteBuffer buffer) {
+		return new BinaryAst(buffer.order() == ByteOrder.nativeOrder() ? buffer : buffer.duplicate().order(ByteOrder.nativeOrder()));
+	}
+	
+	private int column(int column, int node) {
+		return this.ints.get(HEADER + column * this.nodeCount + node);
+	}
+	
+	public int getNodeCount() {
+		return this.nodeCount;
+	}
+	
+	public int getStringCount() {
+		return this.stringCount;
+	}
+	
+	public int getKind(int node) {
+		return this.column(KIND, node);
+	}
+	
+	public int getPos(int node) {
+		return this.column(POS, node);
+	}
+	
+	public int getEnd(int node) {
+		return this.column(END, node);
+	}
+	
+	/**
+	 * Index of the parent node, or <code>-1</code> for the root.
+	 * 
+	 * @param node
+	 * @return
+	 */
+	public int getParent(int node) {
+		return this.column(PARENT, node);
+	}
+	
+	public int getChildCount(int node) {
+		return this.column(CHILD_COUNT, node);
+	}
+	
+	/**
+	 * String id of the name of the field that holds this node in its
+	 * parent, or <code>-1</code> for the root.
+	 * 
+	 * @param node
+	 * @return
+	 */
+	public int getFieldId(int node) {
+		return this.column(FIELD, node);
+	}
+	
+	public String getField(int node) {
+		return this.getString(this.getFieldId(node));
+	}
+	
+	/**
+	 * String id of the text of the node, or <code>-1</code> if it has none.
+	 * 
+	 * @param node
+	 * @return
+	 */
+	public int getTextId(int node) {
+		return this.column(TEXT, node);
+	}
+	
+	public String getText(int node) {
+		return this.getString(this.getTextId(node));
+	}
+	
+	/**
+	 * Return the string with the given id, decoding it on first access.
+	 * 
+	 * @param id
+	 * @return the string, or <code>null</code> if the id is negative
+	 */
+	public String getString(int id) {
+		if(id < 0) {
+			return null;
+		}
+		
+		String value = this.strings[id];
+		if(value == null) {
+			int start = this.ints.get(this.stringOffsets + id);
+			int end = this.ints.get(this.stringOffsets + id + 1);
+			
+			value = this.chars.subSequence(start, end).toString();
+			this.strings[id] = value;
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * The underlying buffer.
+	 * 
+	 * @return
+	 */
+	public ByteBuffer getBuffer() {
+		return this.buffer.asReadOnlyBuffer();
+	}
+	
+	@Override
+	public String toString() {
+		return "[BinaryAst: Nodes=" + this.nodeCount + "; Strings=" + this.stringCount + "; Bytes=" + this.buffer.capacity() + "]";
+	}
+
+}
@@ -0,0 +1,266 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 
+ * A compact, struct-of-arrays representation of an AST meant for keeping
+ * very many trees resident. Every node is a row of seven integers (kind,
+ * first child, next sibling, pos, end, field id and text id) and all
+ * strings live in a single deduplicated table. The integer columns may be
+ * kept on the heap or in off-heap memory.
+ * 
+ * Nodes are read through reusable cursors such as {@link SourceFileCursor},
+ * {@link StatementCursor} and {@link MemberCursor}, which do not allocate
+ * as they move.
+ *
+ */
+public class CompactAst {
+	
+	private static final int WIDTH = 7;
+	
+	private static final int KIND = 0;
+	
+	private static final int FIRST_CHILD = 1;
+	
+	private static final int NEXT_SIBLING = 2;
+	
+	private static final int POS = 3;
+	
+	private static final int END = 4;
+	
+	private static final int FIELD = 5;
+	
+	private static final int TEXT = 6;
+	
+	private final IntBuffer nodes;
+	
+	private final int nodeCount;
+	
+	private final String[] strings;
+	
+	/**
+	 * Field name to string id, for the field names used in this tree
+	 */
+	private final Map<String, Integer> fieldIds;
+	
+	private CompactAst(IntBuffer nodes, int nodeCount, String[] strings, Map<String, Integer> fieldIds) {
+		this.nodes = nodes;
+		this.nodeCount = nodeCount;
+		this.strings = strings;
+		this.fieldIds = fieldIds;
+	}
+	
+	/**
+	 * Build a compact tree from a binary AST.
+	 * 
+	 * @param binary
+	 *            the binary AST to copy from
+	 * 
+	 * @param offHeap
+	 *            whether to keep the node columns in off-heap memory
+	 * 
+	 * @return
+	 */
+	public static CompactAst from(BinaryAst binary, boolean offHeap) {
+		final int count = binary.getNodeCount();
+		
+		IntBuffer nodes;
+		if(offHeap) {
+			nodes = ByteBuffer.allocateDirect(count * WIDTH * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+		} else {
+			nodes = IntBuffer.allocate(count * WIDTH);
+		}
+		
+		// last child seen per parent, to link siblings
+		int[] lastChild = new int[count];
+		Map<String, Integer> fieldIds = new HashMap<>();
+		
+		for(int node = 0; node < count; node++) {
+			int row = node * WIDTH;
+			lastChild[node] = -1;
+			
+			nodes.put(row + KIND, binary.getKind(node));
+			nodes.put(row + FIRST_CHILD, -1);
+			nodes.put(row + NEXT_SIBLING, -1);
+			nodes.put(row + POS, binary.getPos(node));
+			nodes.put(row + END, binary.getEnd(node));
+			nodes.put(row + FIELD, binary.getFieldId(node));
+			nodes.put(row + TEXT, binary.getTextId(node));
+			
+			int parent = binary.getParent(node);
+			if(parent < 0) {
+				continue;
+			}
+			
+			if(lastChild[parent] < 0) {
+				nodes.put(parent * WIDTH + FIRST_CHILD, node);
+			} else {
+				nodes.put(lastChild[parent] * WIDTH + NEXT_SIBLING, node);
+			}
+			
+			lastChild[parent] = node;
+			
+			int field = binary.getFieldId(node);
+			if(field >= 0) {
+				fieldIds.put(binary.getField(node), field);
+			}
+		}
+		
+		String[] strings = new String[binary.getStringCount()];
+		for(int id = 0; id < strings.length; id++) {
+			strings[id] = binary.getString(id);
+		}
+		
+		return new CompactAst(nodes, count, strings, fieldIds);
+	}
+	
+	/**
+	 * A cursor positioned at the root of the tree.
+	 * 
+	 * @return
+	 */
+	public SourceFileCursor sourceFile() {
+		SourceFileCursor cursor = new SourceFileCursor(this);
+		cursor.moveTo(0);
+		return cursor;
+	}
+	
+	/**
+	 * String id of the given field name, or <code>-1</code> if no node in
+	 * this tree is held by such a field.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public int getFieldId(String name) {
+		Integer id = this.fieldIds.get(name);
+		if(id == null) {
+			return -1;
+		}
+		
+		return id;
+	}
+	
+	public int getNodeCount() {
+		return this.nodeCount;
+	}
+	
+	public int getKind(int node) {
+		return this.nodes.get(node * WIDTH + KIND);
+	}
+	
+	public int getFirstChild(int node) {
+		return this.nodes.get(node * WIDTH + FIRST_CHILD);
+	}
+	
+	public int getNextSibling(int node) {
+		return this.nodes.get(node * WIDTH + NEXT_SIBLING);
+	}
+	
+	public int getPos(int node) {
+		return this.nodes.get(node * WIDTH + POS);
+	}
+	
+	public int getEnd(int node) {
+		return this.nodes.get(node * WIDTH + END);
+	}
+	
+	public int getFieldIdOf(int node) {
+		return this.nodes.get(node * WIDTH + FIELD);
+	}
+	
+	public int getTextId(int node) {
+		return this.nodes.get(node * WIDTH + TEXT);
+	}
+	
+	public String getText(int node) {
+		return this.getString(this.getTextId(node));
+	}
+	
+	public String getString(int id) {
+		if(id < 0) {
+			return null;
+		}
+		
+		return this.strings[id];
+	}
+	
+	/**
+	 * Find the first child of the node held by the given field.
+	 * 
+	 * @param node
+	 * @param fieldId
+	 * @return the index of the child, or <code>-1</code> if there is none
+	 */
+	public int findChild(int node, int fieldId) {
+		return this.findSibling(this.getFirstChild(node), fieldId);
+	}
+	
+	/**
+	 * Find the first node, starting at the given one and moving along its
+	 * siblings, that is held by the given field.
+	 * 
+	 * @param node
+	 * @param fieldId
+	 * @return the index of the node, or <code>-1</code> if there is none
+	 */
+	public int findSibling(int node, int fieldId) {
+		if(fieldId < 0) {
+			return -1;
+		}
+		
+		while(node >= 0) {
+			if(this.getFieldIdOf(node) == fieldId) {
+				return node;
+			}
+			
+			node = this.getNextSibling(node);
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Text of the child of the node held by the given field.
+	 * 
+	 * @param node
+	 * @param fieldId
+	 * @return
+	 */
+	public String getChildText(int node, int fieldId) {
+		int child = this.findChild(node, fieldId);
+		if(child < 0) {
+			return null;
+		}
+		
+		return this.getText(child);
+	}
+	
+	public boolean isOffHeap() {
+		return this.nodes.isDirect();
+	}
+	
+	@Override
+	public String toString() {
+		return "[CompactAst: Nodes=" + this.nodeCount + "; Strings=" + this.strings.length + "; OffHeap=" + this.isOffHeap() + "]";
+	}
+
+}
@@ -0,0 +1,71 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.binary;
+
+/**
+ * 
+ * Cursor over class and interface members, exposing the accessors of
+ * {@link com.sangupta.tsparserJ2V8.ast.Member}.
+ *
+ */
+public class MemberCursor extends NodeCursor {
+	
+	public MemberCursor(CompactAst ast) {
+		super(ast);
+	}
+	
+	/**
+	 * Check if the member is declared optional with a question token.
+	 * 
+	 * @return
+	 */
+	public boolean isOptional() {
+		return this.child("questionToken") >= 0;
+	}
+	
+	/**
+	 * The kind of the declared type of the member, or <code>0</code> if it
+	 * has none.
+	 * 
+	 * @return
+	 */
+	public int getTypeKind() {
+		int type = this.child("type");
+		if(type < 0) {
+			return 0;
+		}
+		
+		return this.ast.getKind(type);
+	}
+	
+	/**
+	 * The name of the type referred to by the declared type of the member.
+	 * 
+	 * @return
+	 */
+	public String getTypeName() {
+		int type = this.child("type");
+		if(type < 0) {
+			return null;
+		}
+		
+		return this.ast.getChildText(type, this.ast.getFieldId("typeName"));
+	}
+	
+	@Override
+	public String toString() {
+		return "[Member: " + this.getName() + "; Kind: " + this.kind + "]";
+	}
+
+}
@@ -0,0 +1,152 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.binary;
+
+import com.sangupta.tsparserJ2V8.ast.AstNode;
+
+/**
+ * 
+ * A flyweight positioned on one node of a {@link CompactAst}. Cursors are
+ * mutable and meant to be reused: moving a cursor allocates nothing. The
+ * <code>kind</code> field always reflects the current node so that the
+ * checks in <code>TypescriptUtils</code> work on cursors as well.
+ *
+ */
+public class NodeCursor extends AstNode {
+	
+	protected final CompactAst ast;
+	
+	/**
+	 * The current node, or <code>-1</code> if the cursor is not on a node
+	 */
+	protected int node = -1;
+	
+	/**
+	 * Field that siblings must be held by for {@link #next()} to stop on
+	 * them
+	 */
+	protected int siblingField = -1;
+	
+	/**
+	 * Node to move to on the next call to {@link #next()}
+	 */
+	protected int pending = -1;
+	
+	public NodeCursor(CompactAst ast) {
+		this.ast = ast;
+	}
+	
+	/**
+	 * Position this cursor on the given node.
+	 * 
+	 * @param node
+	 */
+	public void moveTo(int node) {
+		this.node = node;
+		this.kind = node < 0 ? 0 : this.ast.getKind(node);
+	}
+	
+	/**
+	 * Prepare this cursor to iterate the children of the given node that are
+	 * held by the given field. Call {@link #next()} to move to the first one.
+	 * 
+	 * @param parent
+	 * @param field
+	 */
+	public void children(int parent, String field) {
+		this.siblingField = this.ast.getFieldId(field);
+		this.pending = this.ast.findChild(parent, this.siblingField);
+		this.moveTo(-1);
+	}
+	
+	/**
+	 * Move to the next node prepared by {@link #children(int, String)}.
+	 * 
+	 * @return <code>false</code> when there are no more nodes
+	 */
+	public boolean next() {
+		if(this.pending < 0) {
+			this.moveTo(-1);
+			return false;
+		}
+		
+		this.moveTo(this.pending);
+		this.pending = this.ast.findSibling(this.ast.getNextSibling(this.pending), this.siblingField);
+		return true;
+	}
+	
+	public int getNode() {
+		return this.node;
+	}
+	
+	public int getKind() {
+		return this.kind;
+	}
+	
+	public int getPos() {
+		return this.ast.getPos(this.node);
+	}
+	
+	public int getEnd() {
+		return this.ast.getEnd(this.node);
+	}
+	
+	public String getText() {
+		return this.ast.getText(this.node);
+	}
+	
+	/**
+	 * The <code>escapedText</code> of the node's <code>name</code>.
+	 * 
+	 * @return
+	 */
+	public String getName() {
+		return this.childText("name");
+	}
+	
+	protected int child(String field) {
+		return this.ast.findChild(this.node, this.ast.getFieldId(field));
+	}
+	
+	protected String childText(String field) {
+		return this.ast.getChildText(this.node, this.ast.getFieldId(field));
+	}
+	
+	/**
+	 * Check if any child held by the given field has the given kind.
+	 * 
+	 * @param field
+	 * @param kind
+	 * @return
+	 */
+	protected boolean hasChildOfKind(String field, int kind) {
+		int fieldId = this.ast.getFieldId(field);
+		int child = this.ast.findChild(this.node, fieldId);
+		while(child >= 0) {
+			if(this.ast.getKind(child) == kind) {
+				return true;
+			}
+			
+			child = this.ast.findSibling(this.ast.getNextSibling(child), fieldId);
+		}
+		
+		return false;
+	}
+	
+	@Override
+	public String toString() {
+		return "[" + this.getClass().getSimpleName() + ": Node=" + this.node + "; Kind=" + this.kind + "]";
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.binary;
+
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+
+/**
+ * 
+ * Cursor on the root of a {@link CompactAst}, exposing the accessors of
+ * {@link com.sangupta.tsparserJ2V8.ast.SourceFile}.
+ *
+ */
+public class SourceFileCursor extends NodeCursor {
+	
+	private final StatementCursor scratch;
+	
+	public SourceFileCursor(CompactAst ast) {
+		super(ast);
+		this.scratch = new StatementCursor(ast);
+	}
+	
+	/**
+	 * Position the given cursor to iterate the top-level statements.
+	 * 
+	 * @param statements
+	 *            the cursor to reuse
+	 * 
+	 * @return the given cursor
+	 */
+	public StatementCursor statements(StatementCursor statements) {
+		statements.children(this.node, "statements");
+		return statements;
+	}
+	
+	public boolean hasClassDeclaration() {
+		StatementCursor statement = this.statements(this.scratch);
+		while(statement.next()) {
+			if(TypescriptUtils.isClassDeclaration(statement)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Find the module an imported name comes from.
+	 * 
+	 * @param key
+	 *            the name as imported in this file
+	 * 
+	 * @return the module specifier, or <code>null</code> if the name is not
+	 *         imported
+	 */
+	public String getImportPath(String key) {
+		final int name = this.ast.getFieldId("name");
+		final int elements = this.ast.getFieldId("elements");
+		
+		StatementCursor statement = this.statements(this.scratch);
+		while(statement.next()) {
+			if(!TypescriptUtils.isImportDeclaration(statement)) {
+				continue;
+			}
+			
+			int importClause = statement.child("importClause");
+			if(importClause < 0) {
+				continue;
+			}
+			
+			if(key.equals(this.ast.getChildText(importClause, name))) {
+				return statement.getModuleSpecifier();
+			}
+			
+			int namedBindings = this.ast.findChild(importClause, this.ast.getFieldId("namedBindings"));
+			if(namedBindings < 0) {
+				continue;
+			}
+			
+			if(key.equals(this.ast.getChildText(namedBindings, name))) {
+				return statement.getModuleSpecifier();
+			}
+			
+			int element = this.ast.findChild(namedBindings, elements);
+			while(element >= 0) {
+				if(key.equals(this.ast.getChildText(element, name))) {
+					return statement.getModuleSpecifier();
+				}
+				
+				element = this.ast.findSibling(this.ast.getNextSibling(element), elements);
+			}
+		}
+		
+		return null;
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.binary;
+
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+
+/**
+ * 
+ * Cursor over statements, exposing the accessors of
+ * {@link com.sangupta.tsparserJ2V8.ast.Statement}.
+ *
+ */
+public class StatementCursor extends NodeCursor {
+	
+	public StatementCursor(CompactAst ast) {
+		super(ast);
+	}
+	
+	public String getClassName() {
+		if(!TypescriptUtils.isClassDeclaration(this)) {
+			throw new RuntimeException("Expected a class declaration");
+		}
+		
+		return this.getName();
+	}
+	
+	public boolean hasExportModifier() {
+		return this.hasChildOfKind("modifiers", TypescriptUtils.KIND_EXPORT_KEYWORD);
+	}
+	
+	public boolean hasDefaultModifier() {
+		return this.hasChildOfKind("modifiers", TypescriptUtils.KIND_DEFAULT_KEYWORD);
+	}
+	
+	public boolean hasHeritageClauses() {
+		return this.child("heritageClauses") >= 0;
+	}
+	
+	/**
+	 * The text of the module specifier of an import declaration.
+	 * 
+	 * @return
+	 */
+	public String getModuleSpecifier() {
+		return this.childText("moduleSpecifier");
+	}
+	
+	/**
+	 * Position the given cursor to iterate the members of this statement.
+	 * 
+	 * @param members
+	 *            the cursor to reuse
+	 * 
+	 * @return the given cursor
+	 */
+	public MemberCursor members(MemberCursor members) {
+		members.children(this.node, "members");
+		return members;
+	}
+	
+	/**
+	 * Position the given cursor to iterate the statements in the body of
+	 * this statement.
+	 * 
+	 * @param statements
+	 *            the cursor to reuse
+	 * 
+	 * @return the given cursor
+	 */
+	public StatementCursor bodyStatements(StatementCursor statements) {
+		statements.children(this.child("body"), "statements");
+		return statements;
+	}
+	
+	@Override
+	public String toString() {
+		return "[" + TypescriptUtils.getNodeType(this) + "]";
+	}
+
+}
@@ -0,0 +1,92 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.cache;
+
+/**
+ * 
+ * A point-in-time snapshot of the counters of a {@link ParseCache}.
+ *
+ */
+public class CacheStats {
+	
+	private final long memoryHits;
+	
+	private final long diskHits;
+	
+	private final long misses;
+	
+	private final long evictions;
+	
+	private final long entries;
+	
+	private final long weight;
+	
+	public CacheStats(long memoryHits, long diskHits, long misses, long evictions, long entries, long weight) {
+		this.memoryHits = memoryHits;
+		this.diskHits = diskHits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.entries = entries;
+		this.weight = weight;
+	}
+	
+	public long getHits() {
+		return this.memoryHits + this.diskHits;
+	}
+	
+	public long getRequests() {
+		return this.getHits() + this.misses;
+	}
+	
+	public double getHitRate() {
+		long requests = this.getRequests();
+		if(requests == 0) {
+			return 0;
+		}
+		
+		return (double) this.getHits() / requests;
+	}
+	
+	@Override
+	public String toString() {
+		return "[CacheStats: MemoryHits=" + this.memoryHits + "; DiskHits=" + this.diskHits + "; Misses=" + this.misses + "; Evictions=" + this.evictions + "; Entries=" + this.entries + "; Weight=" + this.weight + "]";
+	}
+
+	// Usual accessors follow
+
+	public long getMemoryHits() {
+		return memoryHits;
+	}
+
+	public long getDiskHits() {
+		return diskHits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public long getEntries() {
+		return entries;
+	}
+
+	public long getWeight() {
+		return weight;
+	}
+
+}
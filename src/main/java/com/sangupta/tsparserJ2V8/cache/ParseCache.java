@@ -0,0 +1,407 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sangupta.tsparserJ2V8.AstConverter;
+import com.sangupta.tsparserJ2V8.AstSchema;
+import com.sangupta.tsparserJ2V8.TypescriptLibrary;
+import com.sangupta.tsparserJ2V8.TypescriptRuntime;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+/**
+ * 
+ * A content-addressed cache of parsed {@link SourceFile}s. Entries are
+ * keyed by a hash of the source text, the kind of file (TS or TSX), the
+ * Typescript version, the compiler options and the AST schema, so a change
+ * to any of them is a miss.
+ * 
+ * Converted files are kept in memory with least-recently-used eviction
+ * bounded by the total size of their sources, and optionally written to a
+ * directory on disk as gzipped JSON. The disk store is partitioned by
+ * Typescript version, so tools on different versions may share a
+ * directory. Stores of other versions are only deleted by
+ * {@link #purgeOtherVersions()}.
+ * 
+ * Cached {@link SourceFile}s are shared between callers. Their lists are
+ * made unmodifiable as they enter the cache, so a caller that tries to
+ * change one fails rather than corrupting the trees of later hits.
+ *
+ */
+public class ParseCache {
+	
+	private static final Gson GSON = new GsonBuilder().excludeFieldsWithModifiers(Modifier.STATIC, Modifier.TRANSIENT, Modifier.PRIVATE).create();
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	private final long maxWeight;
+	
+	private final File directory;
+	
+	private final String version;
+	
+	/**
+	 * Hashed into every key, covers everything except the source itself
+	 */
+	private final String fingerprint;
+	
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+	
+	private long weight = 0;
+	
+	private final AtomicLong memoryHits = new AtomicLong();
+	
+	private final AtomicLong diskHits = new AtomicLong();
+	
+	private final AtomicLong misses = new AtomicLong();
+	
+	private final AtomicLong evictions = new AtomicLong();
+	
+	/**
+	 * Create a memory-only cache for the bundled Typescript library.
+	 * 
+	 * @param maxWeight
+	 *            the total length of sources, in chars, to keep in memory
+	 */
+	public ParseCache(long maxWeight) {
+		this(maxWeight, null);
+	}
+	
+	/**
+	 * Create a cache for the bundled Typescript library.
+	 * 
+	 * @param maxWeight
+	 *            the total length of sources, in chars, to keep in memory
+	 * 
+	 * @param directory
+	 *            the directory to persist entries to, or <code>null</code>
+	 *            to keep them in memory only
+	 */
+	public ParseCache(long maxWeight, File directory) {
+		this(maxWeight, directory, TypescriptLibrary.BUNDLED_VERSION);
+	}
+	
+	/**
+	 * Create a cache for the given Typescript library. A
+	 * {@link com.sangupta.tsparserJ2V8.TypescriptParser} only accepts a
+	 * cache of the version of the library it parses with.
+	 * 
+	 * @param maxWeight
+	 * @param directory
+	 * @param library
+	 */
+	public ParseCache(long maxWeight, File directory, TypescriptLibrary library) {
+		this(maxWeight, directory, library.getVersion());
+	}
+	
+	public ParseCache(long maxWeight, File directory, String version) {
+		this.maxWeight = maxWeight;
+		this.version = version;
+		this.fingerprint = version + '\0' + TypescriptRuntime.COMPILER_OPTIONS + '\0' + AstSchema.sourceFile().toJson();
+		
+		if(directory == null) {
+			this.directory = null;
+			return;
+		}
+		
+		this.directory = new File(directory, "typescript-" + version);
+		this.directory.mkdirs();
+	}
+	
+	/**
+	 * Delete the disk stores of all other Typescript versions in the cache
+	 * directory. Only call this when no other process uses them.
+	 * 
+	 * @return the number of stores deleted
+	 */
+	public int purgeOtherVersions() {
+		if(this.directory == null) {
+			return 0;
+		}
+		
+		File[] stores = this.directory.getParentFile().listFiles();
+		if(stores == null) {
+			return 0;
+		}
+		
+		int purged = 0;
+		for(File store : stores) {
+			if(store.isDirectory() && store.getName().startsWith("typescript-") && !store.equals(this.directory)) {
+				FileUtils.deleteQuietly(store);
+				purged++;
+			}
+		}
+		
+		return purged;
+	}
+	
+	/**
+	 * Compute the key for the given source.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return
+	 */
+	public String keyOf(String fileName, String code) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		
+		digest.update(this.fingerprint.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(extensionOf(fileName).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		
+		// encode through a small buffer so that the source is never copied
+		// whole, the bytes are the same as those of String.getBytes()
+		CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+		CharBuffer source = CharBuffer.wrap(code);
+		ByteBuffer bytes = ByteBuffer.allocate(8192);
+		CoderResult result;
+		do {
+			result = encoder.encode(source, bytes, true);
+			bytes.flip();
+			digest.update(bytes);
+			bytes.clear();
+		} while(result.isOverflow());
+		
+		encoder.flush(bytes);
+		bytes.flip();
+		digest.update(bytes);
+		
+		byte[] hash = digest.digest();
+		char[] chars = new char[hash.length * 2];
+		for(int index = 0; index < hash.length; index++) {
+			chars[index * 2] = HEX[(hash[index] >> 4) & 0xf];
+			chars[index * 2 + 1] = HEX[hash[index] & 0xf];
+		}
+		
+		return new String(chars);
+	}
+	
+	/**
+	 * Look up a parsed file.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @return the cached file, or <code>null</code> on a miss
+	 */
+	public SourceFile get(String fileName, String code) {
+		return this.get(this.keyOf(fileName, code), code.length());
+	}
+	
+	/**
+	 * Look up a parsed file by a key computed with
+	 * {@link #keyOf(String, String)}, so that a miss followed by a
+	 * {@link #put(String, long, SourceFile)} hashes the source only once.
+	 * 
+	 * @param key
+	 * @param weight
+	 *            the length of the source, in chars
+	 * 
+	 * @return the cached file, or <code>null</code> on a miss
+	 */
+	public SourceFile get(String key, long weight) {
+		synchronized (this.entries) {
+			Entry entry = this.entries.get(key);
+			if(entry != null) {
+				this.memoryHits.incrementAndGet();
+				return entry.sourceFile;
+			}
+		}
+		
+		SourceFile sourceFile = this.readFromDisk(key);
+		if(sourceFile == null) {
+			this.misses.incrementAndGet();
+			return null;
+		}
+		
+		this.diskHits.incrementAndGet();
+		this.putInMemory(key, sourceFile, weight);
+		return sourceFile;
+	}
+	
+	/**
+	 * Add a parsed file to the cache.
+	 * 
+	 * @param fileName
+	 * @param code
+	 * @param sourceFile
+	 */
+	public void put(String fileName, String code, SourceFile sourceFile) {
+		this.put(this.keyOf(fileName, code), code.length(), sourceFile);
+	}
+	
+	/**
+	 * Add a parsed file to the cache under a key computed with
+	 * {@link #keyOf(String, String)}.
+	 * 
+	 * @param key
+	 * @param weight
+	 *            the length of the source, in chars
+	 * 
+	 * @param sourceFile
+	 */
+	public void put(String key, long weight, SourceFile sourceFile) {
+		AstConverter.freeze(sourceFile);
+		
+		this.putInMemory(key, sourceFile, weight);
+		this.writeToDisk(key, sourceFile);
+	}
+	
+	private void putInMemory(String key, SourceFile sourceFile, long weight) {
+		if(weight > this.maxWeight) {
+			return;
+		}
+		
+		synchronized (this.entries) {
+			Entry previous = this.entries.put(key, new Entry(sourceFile, weight));
+			if(previous != null) {
+				this.weight -= previous.weight;
+			}
+			
+			this.weight += weight;
+			
+			// evict least recently used entries
+			Iterator<Entry> iterator = this.entries.values().iterator();
+			while(this.weight > this.maxWeight && iterator.hasNext()) {
+				Entry eldest = iterator.next();
+				iterator.remove();
+				
+				this.weight -= eldest.weight;
+				this.evictions.incrementAndGet();
+			}
+		}
+	}
+	
+	private File fileOf(String key) {
+		return new File(new File(this.directory, key.substring(0, 2)), key + ".json.gz");
+	}
+	
+	@SuppressWarnings("unchecked")
+	private SourceFile readFromDisk(String key) {
+		if(this.directory == null) {
+			return null;
+		}
+		
+		File file = this.fileOf(key);
+		if(!file.exists()) {
+			return null;
+		}
+		
+		try(Reader reader = new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)) {
+			SourceFile sourceFile = AstConverter.convertToAst(GSON.fromJson(reader, Map.class), SourceFile.class);
+			AstConverter.freeze(sourceFile);
+			return sourceFile;
+		} catch(IOException | RuntimeException e) {
+			// a corrupt entry is a miss, and gets overwritten
+			FileUtils.deleteQuietly(file);
+			return null;
+		}
+	}
+	
+	private void writeToDisk(String key, SourceFile sourceFile) {
+		if(this.directory == null) {
+			return;
+		}
+		
+		File file = this.fileOf(key);
+		File temp = new File(file.getParentFile(), file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+		try {
+			file.getParentFile().mkdirs();
+			try(Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(temp)), StandardCharsets.UTF_8)) {
+				GSON.toJson(sourceFile, writer);
+			}
+			
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(IOException e) {
+			// the disk tier is best-effort
+			FileUtils.deleteQuietly(temp);
+		}
+	}
+	
+	private static String extensionOf(String fileName) {
+		int index = fileName.lastIndexOf('.');
+		if(index < 0) {
+			return "";
+		}
+		
+		return fileName.substring(index).toLowerCase();
+	}
+	
+	/**
+	 * Drop all entries held in memory.
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+			this.weight = 0;
+		}
+	}
+	
+	public CacheStats getStats() {
+		synchronized (this.entries) {
+			return new CacheStats(this.memoryHits.get(), this.diskHits.get(), this.misses.get(), this.evictions.get(), this.entries.size(), this.weight);
+		}
+	}
+	
+	public String getVersion() {
+		return this.version;
+	}
+	
+	private static class Entry {
+		
+		final SourceFile sourceFile;
+		
+		final long weight;
+		
+		Entry(SourceFile sourceFile, long weight) {
+			this.sourceFile = sourceFile;
+			this.weight = weight;
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.lazy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eclipsesource.v8.V8Array;
+import com.eclipsesource.v8.V8Object;
+import com.eclipsesource.v8.V8Value;
+import com.sangupta.tsparserJ2V8.ast.AstNode;
+
+/**
+ * 
+ * An AST node that holds on to the underlying V8 object and reads its
+ * properties only when they are first asked for. Values read are cached.
+ * 
+ * Lazy nodes may only be used on the thread that parsed them, and only
+ * until the owning {@link LazySourceFile} is closed.
+ *
+ */
+public class LazyNode extends AstNode {
+	
+	/**
+	 * Marks a property known to be absent
+	 */
+	private static final Object NONE = new Object();
+	
+	protected final V8Object object;
+	
+	private final Map<String, Object> cache = new HashMap<>();
+	
+	protected LazyNode(V8Object object) {
+		this.object = object;
+		this.kind = object.getInteger("kind");
+	}
+	
+	/**
+	 * Return the child node held by the given property.
+	 * 
+	 * @param property
+	 * @return the child, or <code>null</code> if there is none
+	 */
+	public LazyNode getChild(String property) {
+		Object value = this.cache.get(property);
+		if(value == null) {
+			value = NONE;
+			if(this.object.getType(property) == V8Value.V8_OBJECT) {
+				value = new LazyNode(this.object.getObject(property));
+			}
+			
+			this.cache.put(property, value);
+		}
+		
+		return value == NONE ? null : (LazyNode) value;
+	}
+	
+	/**
+	 * Return the child nodes held by the given array property.
+	 * 
+	 * @param property
+	 * @return the children, empty if there are none
+	 */
+	@SuppressWarnings("unchecked")
+	public List<LazyNode> getChildren(String property) {
+		Object value = this.cache.get(property);
+		if(value == null) {
+			value = Collections.emptyList();
+			if(this.object.getType(property) == V8Value.V8_ARRAY) {
+				V8Array array = this.object.getArray(property);
+				try {
+					final int length = array.length();
+					List<LazyNode> children = new ArrayList<>(length);
+					for(int index = 0; index < length; index++) {
+						children.add(new LazyNode(array.getObject(index)));
+					}
+					
+					value = Collections.unmodifiableList(children);
+				} finally {
+					array.release();
+				}
+			}
+			
+			this.cache.put(property, value);
+		}
+		
+		return (List<LazyNode>) value;
+	}
+	
+	/**
+	 * Return the string held by the given property.
+	 * 
+	 * @param property
+	 * @return the string, or <code>null</code> if there is none
+	 */
+	public String getString(String property) {
+		Object value = this.cache.get(property);
+		if(value == null) {
+			value = NONE;
+			if(this.object.getType(property) == V8Value.STRING) {
+				value = this.object.getString(property);
+			}
+			
+			this.cache.put(property, value);
+		}
+		
+		return value == NONE ? null : (String) value;
+	}
+	
+	public String getEscapedText() {
+		return this.getString("escapedText");
+	}
+	
+	public String getText() {
+		return this.getString("text");
+	}
+	
+	/**
+	 * The <code>escapedText</code> of the node's <code>name</code>.
+	 * 
+	 * @return
+	 */
+	public String getNameText() {
+		LazyNode name = this.getChild("name");
+		if(name == null) {
+			return null;
+		}
+		
+		return name.getEscapedText();
+	}
+	
+	/**
+	 * Check if the node has a modifier of the given kind.
+	 * 
+	 * @param modifierKind
+	 * @return
+	 */
+	public boolean hasModifier(int modifierKind) {
+		for(LazyNode modifier : this.getChildren("modifiers")) {
+			if(modifier.kind == modifierKind) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
+}
@@ -0,0 +1,161 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.lazy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eclipsesource.v8.V8Object;
+import com.sangupta.tsparserJ2V8.HandleArena;
+import com.sangupta.tsparserJ2V8.TypescriptRuntime;
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+
+/**
+ * 
+ * A source file whose nodes are read from V8 only when accessed. Top-level
+ * scans such as {@link #hasClassDeclaration()} and
+ * {@link #getImportPath(String)} therefore cost about as much as reading
+ * the statement list.
+ * 
+ * The file keeps its runtime checked out and owns every V8 handle created
+ * while it is open. {@link #close()} releases all of them at once and
+ * returns the runtime; it must be called on the thread that parsed the file.
+ *
+ */
+public class LazySourceFile extends LazyNode implements AutoCloseable {
+	
+	private final HandleArena arena;
+	
+	private final Runnable onClose;
+	
+	private Map<String, String> imports;
+	
+	private boolean closed = false;
+	
+	private LazySourceFile(V8Object object, HandleArena arena, Runnable onClose) {
+		super(object);
+		this.arena = arena;
+		this.onClose = onClose;
+	}
+	
+	/**
+	 * Parse the given code in the runtime, which must be attached to the
+	 * current thread.
+	 * 
+	 * @param runtime
+	 *            the runtime to parse in, kept busy until the file is closed
+	 * 
+	 * @param fileName
+	 * @param code
+	 * 
+	 * @param onClose
+	 *            invoked after all handles have been released on close
+	 * 
+	 * @return
+	 */
+	public static LazySourceFile parse(TypescriptRuntime runtime, String fileName, String code, Runnable onClose) {
+		HandleArena arena = new HandleArena(runtime.getV8());
+		try {
+			return new LazySourceFile(runtime.createSourceFileObject(fileName, code), arena, onClose);
+		} catch(RuntimeException e) {
+			arena.close();
+			throw e;
+		}
+	}
+	
+	public List<LazyNode> getStatements() {
+		return this.getChildren("statements");
+	}
+	
+	public boolean hasClassDeclaration() {
+		for(LazyNode statement : this.getStatements()) {
+			if(TypescriptUtils.isClassDeclaration(statement)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	public String getImportPath(String key) {
+		if(this.imports == null) {
+			this.imports = this.resolveImports();
+		}
+		
+		return this.imports.get(key);
+	}
+	
+	private Map<String, String> resolveImports() {
+		Map<String, String> imports = new HashMap<>();
+		
+		for(LazyNode statement : this.getStatements()) {
+			if(!TypescriptUtils.isImportDeclaration(statement)) {
+				continue;
+			}
+			
+			LazyNode importClause = statement.getChild("importClause");
+			LazyNode moduleSpecifier = statement.getChild("moduleSpecifier");
+			if(importClause == null || moduleSpecifier == null) {
+				continue;
+			}
+			
+			final String library = moduleSpecifier.getText();
+			if(importClause.getNameText() != null) {
+				imports.put(importClause.getNameText(), library);
+			}
+			
+			LazyNode namedBindings = importClause.getChild("namedBindings");
+			if(namedBindings == null) {
+				continue;
+			}
+			
+			if(namedBindings.getNameText() != null) {
+				imports.put(namedBindings.getNameText(), library);
+			}
+			
+			for(LazyNode element : namedBindings.getChildren("elements")) {
+				imports.put(element.getNameText(), library);
+			}
+		}
+		
+		return imports;
+	}
+	
+	/**
+	 * Number of V8 handles currently held by this file.
+	 * 
+	 * @return
+	 */
+	public int getHandleCount() {
+		return this.arena.getHandleCount();
+	}
+	
+	@Override
+	public void close() {
+		if(this.closed) {
+			return;
+		}
+		
+		this.closed = true;
+		try {
+			this.arena.close();
+		} finally {
+			if(this.onClose != null) {
+				this.onClose.run();
+			}
+		}
+	}
+
+}
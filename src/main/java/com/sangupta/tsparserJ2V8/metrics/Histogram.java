@@ -0,0 +1,138 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * A lock-free histogram of non-negative values with a bounded relative
+ * error. Values are counted in buckets that double in width, each split
+ * into {@value #SUB_BUCKETS} linear sub-buckets, so a percentile is
+ * reported within 1/{@value #SUB_BUCKETS} of the true value whatever its
+ * magnitude, from nanoseconds to hours, in a fixed 4 KB of counters.
+ *
+ */
+public class Histogram {
+	
+	private static final int SUB_BUCKET_BITS = 3;
+	
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	
+	private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+	
+	private final LongAdder count = new LongAdder();
+	
+	private final LongAdder sum = new LongAdder();
+	
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+	
+	public void record(long value) {
+		if(value < 0) {
+			value = 0;
+		}
+		
+		this.buckets.incrementAndGet(indexOf(value));
+		this.count.increment();
+		this.sum.add(value);
+		this.max.accumulate(value);
+	}
+	
+	/**
+	 * Return the value below which the given fraction of the recorded values
+	 * fall, e.g. <code>0.99</code> for the p99.
+	 * 
+	 * @param fraction
+	 * @return the upper bound of the bucket holding the percentile, or zero
+	 *         if nothing has been recorded
+	 */
+	public long getPercentile(double fraction) {
+		final long total = this.count.sum();
+		if(total == 0) {
+			return 0;
+		}
+		
+		final long rank = Math.max(1, (long) Math.ceil(fraction * total));
+		long seen = 0;
+		for(int index = 0; index < this.buckets.length(); index++) {
+			seen += this.buckets.get(index);
+			if(seen >= rank) {
+				return Math.min(upperBoundOf(index), this.max.get());
+			}
+		}
+		
+		return this.max.get();
+	}
+	
+	public long getCount() {
+		return this.count.sum();
+	}
+	
+	public long getSum() {
+		return this.sum.sum();
+	}
+	
+	public long getMax() {
+		return this.max.get();
+	}
+	
+	public double getMean() {
+		final long total = this.count.sum();
+		if(total == 0) {
+			return 0;
+		}
+		
+		return (double) this.sum.sum() / total;
+	}
+	
+	public void reset() {
+		for(int index = 0; index < this.buckets.length(); index++) {
+			this.buckets.set(index, 0);
+		}
+		
+		this.count.reset();
+		this.sum.reset();
+		this.max.reset();
+	}
+	
+	@Override
+	public String toString() {
+		return "[Histogram: count=" + this.getCount() + ", mean=" + (long) this.getMean() + ", p50=" + this.getPercentile(0.5) + ", p99=" + this.getPercentile(0.99) + ", max=" + this.getMax() + "]";
+	}
+	
+	static int indexOf(long value) {
+		if(value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		
+		// position of the highest bit, then the next bits below it
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+	
+	static long upperBoundOf(int index) {
+		if(index < SUB_BUCKETS) {
+			return index;
+		}
+		
+		final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		final long subBucket = index % SUB_BUCKETS;
+		final long width = 1l << (exponent - SUB_BUCKET_BITS);
+		return ((SUB_BUCKETS + subBucket) * width) + width - 1;
+	}
+
+}
@@ -0,0 +1,169 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * Keeps a {@link Histogram} per parse phase along with histograms of the
+ * per-call totals, node counts and runtime heap, so that the tail of the
+ * end-to-end latency can be attributed to a phase.
+ *
+ */
+public class HistogramParseMetrics implements ParseMetrics {
+	
+	private final Map<ParsePhase, Histogram> phases = new EnumMap<>(ParsePhase.class);
+	
+	private final Histogram total = new Histogram();
+	
+	private final Histogram read = new Histogram();
+	
+	private final Histogram nodeCounts = new Histogram();
+	
+	private final Histogram liveHandles = new Histogram();
+	
+	private final Histogram heapUsed = new Histogram();
+	
+	private final LongAdder bytesRead = new LongAdder();
+	
+	private final LongAdder bytesMarshalled = new LongAdder();
+	
+	private final LongAdder cacheHits = new LongAdder();
+	
+	public HistogramParseMetrics() {
+		for(ParsePhase phase : ParsePhase.values()) {
+			this.phases.put(phase, new Histogram());
+		}
+	}
+	
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+	
+	@Override
+	public void recordRead(String fileName, long bytes, long nanos) {
+		this.read.record(nanos);
+		this.bytesRead.add(bytes);
+	}
+	
+	@Override
+	public void recordParse(ParseSample sample) {
+		if(sample.cacheHit) {
+			this.cacheHits.increment();
+			this.phases.get(ParsePhase.CACHE).record(sample.getPhaseNanos(ParsePhase.CACHE));
+			return;
+		}
+		
+		for(ParsePhase phase : ParsePhase.values()) {
+			this.phases.get(phase).record(sample.getPhaseNanos(phase));
+		}
+		
+		this.total.record(sample.getTotalNanos());
+		this.bytesMarshalled.add(sample.bytesMarshalled);
+		
+		if(sample.nodeCount >= 0) {
+			this.nodeCounts.record(sample.nodeCount);
+		}
+		
+		if(sample.liveHandles >= 0) {
+			this.liveHandles.record(sample.liveHandles);
+		}
+		
+		if(sample.heapUsed >= 0) {
+			this.heapUsed.record(sample.heapUsed);
+		}
+	}
+	
+	/**
+	 * Time spent in the given phase, in nanos.
+	 * 
+	 * @param phase
+	 * @return
+	 */
+	public Histogram getPhase(ParsePhase phase) {
+		return this.phases.get(phase);
+	}
+	
+	public void reset() {
+		for(Histogram histogram : this.phases.values()) {
+			histogram.reset();
+		}
+		
+		this.total.reset();
+		this.read.reset();
+		this.nodeCounts.reset();
+		this.liveHandles.reset();
+		this.heapUsed.reset();
+		this.bytesRead.reset();
+		this.bytesMarshalled.reset();
+		this.cacheHits.reset();
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("[ParseMetrics: total=").append(this.total);
+		for(ParsePhase phase : ParsePhase.values()) {
+			builder.append(", ").append(phase).append('=').append(this.phases.get(phase));
+		}
+		
+		builder.append(", read=").append(this.read);
+		builder.append(", nodes=").append(this.nodeCounts);
+		builder.append(", bytesMarshalled=").append(this.bytesMarshalled.sum());
+		builder.append(", heapUsed=").append(this.heapUsed);
+		builder.append(", liveHandles=").append(this.liveHandles);
+		builder.append(", cacheHits=").append(this.cacheHits.sum());
+		builder.append(']');
+		return builder.toString();
+	}
+
+	// Usual accessors follow
+
+	public Histogram getTotal() {
+		return total;
+	}
+
+	public Histogram getRead() {
+		return read;
+	}
+
+	public Histogram getNodeCounts() {
+		return nodeCounts;
+	}
+
+	public Histogram getLiveHandles() {
+		return liveHandles;
+	}
+
+	public Histogram getHeapUsed() {
+		return heapUsed;
+	}
+
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	public long getBytesMarshalled() {
+		return bytesMarshalled.sum();
+	}
+
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+}
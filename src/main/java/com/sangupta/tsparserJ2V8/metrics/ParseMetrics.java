@@ -0,0 +1,108 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics;
+
+/**
+ * 
+ * Receives the measurements taken by the parser. Implementations must be
+ * thread-safe; they are called on the parsing threads, so they should also
+ * be cheap.
+ *
+ */
+public interface ParseMetrics {
+	
+	/**
+	 * Metrics that record nothing, the default
+	 */
+	public static final ParseMetrics NOOP = new ParseMetrics() {
+		
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+		
+		@Override
+		public void recordRead(String fileName, long bytes, long nanos) {
+			// nothing to do
+		}
+		
+		@Override
+		public void recordParse(ParseSample sample) {
+			// nothing to do
+		}
+		
+	};
+	
+	/**
+	 * Whether anything is recorded. Runtime values such as heap size cost a
+	 * call into V8 and are only sampled when this returns <code>true</code>.
+	 * 
+	 * @return
+	 */
+	public boolean isEnabled();
+	
+	/**
+	 * Record the time taken to read a source file from disk.
+	 * 
+	 * @param fileName
+	 * @param bytes
+	 * @param nanos
+	 */
+	public void recordRead(String fileName, long bytes, long nanos);
+	
+	/**
+	 * Record one call into the parser.
+	 * 
+	 * @param sample
+	 */
+	public void recordParse(ParseSample sample);
+	
+	/**
+	 * Send every measurement to all of the given metrics.
+	 * 
+	 * @param metrics
+	 * @return
+	 */
+	public static ParseMetrics combine(final ParseMetrics... metrics) {
+		return new ParseMetrics() {
+			
+			@Override
+			public boolean isEnabled() {
+				for(ParseMetrics metric : metrics) {
+					if(metric.isEnabled()) {
+						return true;
+					}
+				}
+				
+				return false;
+			}
+			
+			@Override
+			public void recordRead(String fileName, long bytes, long nanos) {
+				for(ParseMetrics metric : metrics) {
+					metric.recordRead(fileName, bytes, nanos);
+				}
+			}
+			
+			@Override
+			public void recordParse(ParseSample sample) {
+				for(ParseMetrics metric : metrics) {
+					metric.recordParse(sample);
+				}
+			}
+			
+		};
+	}
+
+}
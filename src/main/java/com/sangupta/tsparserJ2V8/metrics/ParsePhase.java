@@ -0,0 +1,49 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics;
+
+/**
+ * 
+ * The timed phases of a parse, in the order they run.
+ *
+ */
+public enum ParsePhase {
+	
+	/**
+	 * Looking the file up in the parse cache
+	 */
+	CACHE,
+	
+	/**
+	 * Waiting for a runtime from the pool
+	 */
+	CHECKOUT,
+	
+	/**
+	 * Parsing and projecting the tree inside V8, including the transfer of
+	 * the source in and the JSON out
+	 */
+	V8_PARSE,
+	
+	/**
+	 * Reading the JSON into maps
+	 */
+	DECODE,
+	
+	/**
+	 * Converting the maps into AST objects
+	 */
+	CONVERT;
+
+}
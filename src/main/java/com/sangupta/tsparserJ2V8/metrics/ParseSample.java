@@ -0,0 +1,101 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics;
+
+/**
+ * 
+ * What was measured during one call into the parser: one file, or one
+ * batch of files sent to V8 together. Runtime values are only sampled when
+ * the configured {@link ParseMetrics} is enabled, and are <code>-1</code>
+ * otherwise.
+ *
+ */
+public class ParseSample {
+	
+	/**
+	 * The file parsed, or the first file of a batch
+	 */
+	public String fileName;
+	
+	/**
+	 * Number of files parsed in V8 by this call
+	 */
+	public int fileCount = 1;
+	
+	/**
+	 * Whether everything came from the parse cache
+	 */
+	public boolean cacheHit;
+	
+	/**
+	 * Number of AST nodes projected in V8
+	 */
+	public int nodeCount = -1;
+	
+	/**
+	 * Source and JSON moved across JNI, counted as UTF-16 bytes
+	 */
+	public long bytesMarshalled;
+	
+	/**
+	 * Java handles into the runtime still alive after the parse
+	 */
+	public long liveHandles = -1;
+	
+	/**
+	 * V8 heap in use after the parse, in bytes
+	 */
+	public long heapUsed = -1;
+	
+	/**
+	 * V8 heap reserved after the parse, in bytes
+	 */
+	public long heapTotal = -1;
+	
+	private final long[] phaseNanos = new long[ParsePhase.values().length];
+	
+	public ParseSample(String fileName) {
+		this.fileName = fileName;
+	}
+	
+	/**
+	 * Add the time elapsed since <code>mark</code> to the given phase.
+	 * 
+	 * @param phase
+	 * @param mark
+	 *            the {@link System#nanoTime()} at which the phase started
+	 * 
+	 * @return the current {@link System#nanoTime()}, to be used as the mark
+	 *         of the next phase
+	 */
+	public long time(ParsePhase phase, long mark) {
+		final long now = System.nanoTime();
+		this.phaseNanos[phase.ordinal()] += now - mark;
+		return now;
+	}
+	
+	public long getPhaseNanos(ParsePhase phase) {
+		return this.phaseNanos[phase.ordinal()];
+	}
+	
+	public long getTotalNanos() {
+		long total = 0;
+		for(long nanos : this.phaseNanos) {
+			total += nanos;
+		}
+		
+		return total;
+	}
+
+}
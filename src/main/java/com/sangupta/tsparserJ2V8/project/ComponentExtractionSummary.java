@@ -0,0 +1,76 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.sangupta.tsparserJ2V8.ParseResult;
+
+/**
+ * 
+ * Outcome of a run of a {@link ComponentExtractor}.
+ *
+ */
+public class ComponentExtractionSummary {
+	
+	private final int fileCount;
+	
+	private final int componentCount;
+	
+	/**
+	 * Number of files whose components were taken from the cache
+	 */
+	private final int cachedCount;
+	
+	private final List<ParseResult> failures;
+	
+	private final long elapsedMillis;
+	
+	public ComponentExtractionSummary(int fileCount, int componentCount, int cachedCount, List<ParseResult> failures, long elapsedMillis) {
+		this.fileCount = fileCount;
+		this.componentCount = componentCount;
+		this.cachedCount = cachedCount;
+		this.failures = Collections.unmodifiableList(failures);
+		this.elapsedMillis = elapsedMillis;
+	}
+	
+	@Override
+	public String toString() {
+		return "[ComponentExtractionSummary: Files=" + this.fileCount + "; Components=" + this.componentCount + "; Cached=" + this.cachedCount + "; Failures=" + this.failures.size() + "; Millis=" + this.elapsedMillis + "]";
+	}
+
+	// Usual accessors follow
+
+	public int getFileCount() {
+		return fileCount;
+	}
+
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	public int getCachedCount() {
+		return cachedCount;
+	}
+
+	public List<ParseResult> getFailures() {
+		return failures;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+}
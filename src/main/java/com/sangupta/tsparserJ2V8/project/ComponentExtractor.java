@@ -0,0 +1,660 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sangupta.tsparserJ2V8.ParseResult;
+import com.sangupta.tsparserJ2V8.TypescriptParser;
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+import com.sangupta.tsparserJ2V8.ast.AstObject;
+import com.sangupta.tsparserJ2V8.ast.FunctionExpression;
+import com.sangupta.tsparserJ2V8.ast.HeritageClause;
+import com.sangupta.tsparserJ2V8.ast.LiteralType;
+import com.sangupta.tsparserJ2V8.ast.Member;
+import com.sangupta.tsparserJ2V8.ast.Parameter;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+import com.sangupta.tsparserJ2V8.ast.SourceFileIndex;
+import com.sangupta.tsparserJ2V8.ast.Statement;
+import com.sangupta.tsparserJ2V8.ast.Type;
+import com.sangupta.tsparserJ2V8.ast.TypeReference;
+import com.sangupta.tsparserJ2V8.ast.VariableDeclaration;
+
+/**
+ * 
+ * Extracts the documentation metadata of every exported React component of
+ * a project and writes it as NDJSON, one {@link ComponentInfo} per line.
+ * 
+ * A component is an exported class with a <code>render</code> method, or
+ * an exported function declaration, function expression or arrow function
+ * that returns JSX. Its props are the members of the type argument of the
+ * component class, or of the type of the first parameter of the function,
+ * or else of the type argument of the variable's type as in
+ * <code>const Button: React.FC&lt;ButtonProps&gt;</code>. They are
+ * resolved across modules through a {@link ProjectTypeIndex}. Components
+ * wrapped in a call, such as <code>React.memo(...)</code> or
+ * <code>forwardRef(...)</code>, are not detected.
+ * 
+ * Files are processed in parallel over a fork-join pool. Components are
+ * cached per file by the SHA-256 of its contents and of the project files
+ * it imports directly, so a rerun only parses what changed; props types
+ * inherited from files further away are not tracked. The cache can be
+ * saved and loaded to carry it across runs.
+ *
+ */
+public class ComponentExtractor {
+	
+	/**
+	 * Number of files below which a task is not split further
+	 */
+	private static final int LEAF_SIZE = 8;
+	
+	private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+	
+	private final TypescriptParser parser;
+	
+	private final ModuleResolver resolver;
+	
+	private final int parallelism;
+	
+	private final Map<Path, CacheEntry> cache = new ConcurrentHashMap<>();
+	
+	public ComponentExtractor(TypescriptParser parser, ModuleResolver resolver) {
+		this(parser, resolver, Runtime.getRuntime().availableProcessors());
+	}
+	
+	public ComponentExtractor(TypescriptParser parser, ModuleResolver resolver, int parallelism) {
+		this.parser = parser;
+		this.resolver = resolver;
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Extract the components of all TS/TSX files under the given directory
+	 * and write them to the given writer, in file order. The writer is
+	 * flushed but not closed.
+	 * 
+	 * @param root
+	 * @param out
+	 * @return
+	 * @throws IOException
+	 *             if the directory cannot be walked or writing fails
+	 */
+	public ComponentExtractionSummary extract(Path root, Writer out) throws IOException {
+		final long start = System.currentTimeMillis();
+		
+		List<Path> files = new ArrayList<>();
+		for(Path file : ProjectParser.findSources(root)) {
+			if(!file.getFileName().toString().endsWith(".d.ts")) {
+				files.add(file.toAbsolutePath().normalize());
+			}
+		}
+		
+		Run run = new Run(new ProjectTypeIndex(this.parser, this.resolver), files.size());
+		
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			pool.invoke(new ExtractTask(files, 0, files.size(), run));
+		} finally {
+			pool.shutdown();
+		}
+		
+		int componentCount = 0;
+		List<ParseResult> failures = new ArrayList<>();
+		for(int index = 0; index < files.size(); index++) {
+			if(run.failures[index] != null) {
+				failures.add(new ParseResult(files.get(index).toString(), run.failures[index]));
+				continue;
+			}
+			
+			for(ComponentInfo component : run.components.get(index)) {
+				out.write(GSON.toJson(component));
+				out.write('\n');
+				componentCount++;
+			}
+		}
+		
+		out.flush();
+		return new ComponentExtractionSummary(files.size(), componentCount, run.cached.get(), failures, System.currentTimeMillis() - start);
+	}
+	
+	/**
+	 * Extract the components of all files under the given directory into
+	 * the given NDJSON file.
+	 * 
+	 * @param root
+	 * @param output
+	 * @return
+	 * @throws IOException
+	 */
+	public ComponentExtractionSummary extract(Path root, Path output) throws IOException {
+		try(Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			return this.extract(root, writer);
+		}
+	}
+	
+	private void extractFile(Run run, int index, Path file) {
+		final String hash = run.hash(file);
+		
+		CacheEntry cached = this.cache.get(file);
+		if(cached != null && cached.hash.equals(hash) && run.isCurrent(cached.dependencies)) {
+			run.components.set(index, cached.components);
+			run.cached.incrementAndGet();
+			return;
+		}
+		
+		SourceFile sourceFile = run.typeIndex.getSourceFile(file);
+		List<ComponentInfo> components = findComponents(file, sourceFile);
+		
+		Map<String, String> dependencies = new HashMap<>();
+		for(Path dependency : this.getDependencies(file, sourceFile)) {
+			dependencies.put(dependency.toString(), run.hash(dependency));
+		}
+		
+		this.cache.put(file, new CacheEntry(file.toString(), hash, dependencies, components));
+		run.components.set(index, components);
+	}
+	
+	/**
+	 * The project files imported by the given file.
+	 * 
+	 * @param file
+	 * @param sourceFile
+	 * @return
+	 */
+	private Set<Path> getDependencies(Path file, SourceFile sourceFile) {
+		Set<Path> dependencies = new LinkedHashSet<>();
+		for(String library : sourceFile.getIndex().getImports().values()) {
+			Path dependency = this.resolver.resolve(file, library);
+			if(dependency != null) {
+				dependencies.add(dependency.toAbsolutePath().normalize());
+			}
+		}
+		
+		return dependencies;
+	}
+	
+	/**
+	 * Find the exported components declared in the given file.
+	 * 
+	 * @param file
+	 * @param sourceFile
+	 * @return
+	 */
+	static List<ComponentInfo> findComponents(Path file, SourceFile sourceFile) {
+		SourceFileIndex index = sourceFile.getIndex();
+		
+		// the default export is kept apart from the named ones
+		Set<Statement> exported = new LinkedHashSet<>(index.getExports().values());
+		if(index.getDefaultExport() != null) {
+			exported.add(index.getDefaultExport());
+		}
+		
+		List<ComponentInfo> components = new ArrayList<>();
+		for(Statement statement : exported) {
+			final boolean defaultExport = statement == index.getDefaultExport();
+			
+			if(TypescriptUtils.hasMethod(statement, "render")) {
+				components.add(classComponent(file, sourceFile, statement, defaultExport));
+				continue;
+			}
+			
+			if(TypescriptUtils.isFunctionDeclaration(statement) && statement.body != null && TypescriptUtils.returnsJsxFragement(statement.body)) {
+				components.add(functionComponent(file, sourceFile, statement, defaultExport));
+				continue;
+			}
+			
+			if(statement.declarationList != null) {
+				for(VariableDeclaration declaration : statement.declarationList.declarations) {
+					if(isFunctionComponent(declaration)) {
+						components.add(variableComponent(file, sourceFile, statement, declaration, defaultExport));
+					}
+				}
+			}
+		}
+		
+		return components;
+	}
+	
+	private static ComponentInfo classComponent(Path file, SourceFile sourceFile, Statement statement, boolean defaultExport) {
+		TypeReference propsType = null;
+		List<String> heritage = new ArrayList<>();
+		
+		for(HeritageClause clause : statement.heritageClauses) {
+			for(Type type : clause.types) {
+				final String base = describeExpression(type);
+				
+				// the props are the first type argument of the component class
+				if(propsType == null && base.endsWith("Component") && !type.typeArguments.isEmpty()) {
+					propsType = type.typeArguments.get(0);
+				}
+				
+				heritage.add(describeHeritage(base, type));
+			}
+		}
+		
+		return component(file, sourceFile, statement, getName(file, statement), ComponentInfo.KIND_CLASS, defaultExport, propsType, heritage);
+	}
+	
+	private static ComponentInfo functionComponent(Path file, SourceFile sourceFile, Statement statement, boolean defaultExport) {
+		TypeReference propsType = null;
+		if(!statement.parameters.isEmpty()) {
+			Parameter props = statement.parameters.get(0);
+			propsType = props.type;
+		}
+		
+		return component(file, sourceFile, statement, getName(file, statement), ComponentInfo.KIND_FUNCTION, defaultExport, propsType, new ArrayList<>());
+	}
+	
+	/**
+	 * Whether the variable holds a function expression or arrow function
+	 * that returns JSX.
+	 * 
+	 * @param declaration
+	 * @return
+	 */
+	private static boolean isFunctionComponent(VariableDeclaration declaration) {
+		if(declaration.name == null || declaration.name.escapedText == null) {
+			return false;
+		}
+		
+		FunctionExpression function = declaration.initializer;
+		if(function == null || function.body == null) {
+			return false;
+		}
+		
+		if(function.kind != TypescriptUtils.KIND_FUNCTION_EXPRESSION && function.kind != TypescriptUtils.KIND_ARROW_FUNCTION) {
+			return false;
+		}
+		
+		return TypescriptUtils.returnsJsx(function.body);
+	}
+	
+	private static ComponentInfo variableComponent(Path file, SourceFile sourceFile, Statement statement, VariableDeclaration declaration, boolean defaultExport) {
+		TypeReference propsType = null;
+		if(!declaration.initializer.parameters.isEmpty()) {
+			propsType = declaration.initializer.parameters.get(0).type;
+		}
+		
+		// const Button: React.FC<ButtonProps> = props => ...
+		if(propsType == null && declaration.type != null && !declaration.type.typeArguments.isEmpty()) {
+			propsType = declaration.type.typeArguments.get(0);
+		}
+		
+		return component(file, sourceFile, statement, declaration.name.escapedText, ComponentInfo.KIND_FUNCTION, defaultExport, propsType, new ArrayList<>());
+	}
+	
+	private static ComponentInfo component(Path file, SourceFile sourceFile, Statement statement, String name, String kind, boolean defaultExport, TypeReference propsType, List<String> heritage) {
+		String propsTypeName = null;
+		List<Member> members = null;
+		
+		if(propsType != null) {
+			if(!propsType.members.isEmpty()) {
+				// props declared inline
+				members = propsType.members;
+			} else if(propsType.typeName != null && propsType.typeName.escapedText != null) {
+				propsTypeName = propsType.typeName.escapedText;
+				members = sourceFile.getMembersOfType(propsTypeName);
+			}
+		}
+		
+		List<ComponentProp> props = new ArrayList<>();
+		if(members != null) {
+			for(Member member : members) {
+				if(member.name == null) {
+					continue;
+				}
+				
+				final String propName = member.name.escapedText != null ? member.name.escapedText : member.name.text;
+				final String type = member.kind == TypescriptUtils.KIND_METHOD_SIGNATURE ? "Function" : describeType(member.type);
+				props.add(new ComponentProp(propName, type, member.questionToken != null, TypescriptUtils.getJsDoc(member.jsDoc)));
+			}
+		}
+		
+		return new ComponentInfo(name, file.toString(), kind, defaultExport, TypescriptUtils.getJsDoc(statement.jsDoc), propsTypeName, props, heritage);
+	}
+	
+	/**
+	 * Name of the component, which for an anonymous default export is that
+	 * of its file.
+	 * 
+	 * @param file
+	 * @param statement
+	 * @return
+	 */
+	private static String getName(Path file, Statement statement) {
+		if(statement.name != null && statement.name.escapedText != null) {
+			return statement.name.escapedText;
+		}
+		
+		String name = file.getFileName().toString();
+		return name.substring(0, name.lastIndexOf('.'));
+	}
+	
+	/**
+	 * Describe a type as written, as far as the AST model holds it.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	static String describeType(TypeReference type) {
+		if(type == null) {
+			return TypescriptUtils.UNKNOWN;
+		}
+		
+		if(type.typeName != null && type.typeName.escapedText != null) {
+			return type.typeName.escapedText;
+		}
+		
+		if(TypescriptUtils.isUnionType(type)) {
+			StringBuilder builder = new StringBuilder();
+			for(LiteralType member : type.types) {
+				if(builder.length() > 0) {
+					builder.append(" | ");
+				}
+				
+				builder.append(describeLiteral(member));
+			}
+			
+			return builder.toString();
+		}
+		
+		if(!type.members.isEmpty()) {
+			return "object";
+		}
+		
+		return TypescriptUtils.getType(type);
+	}
+	
+	private static String describeLiteral(LiteralType type) {
+		final AstObject literal = type.literal;
+		if(literal == null) {
+			return TypescriptUtils.getType(type);
+		}
+		
+		switch(literal.kind) {
+			case TypescriptUtils.KIND_STRING_LITERAL:
+				return "'" + literal.text + "'";
+			case TypescriptUtils.KIND_NUMERIC_LITERAL:
+				return literal.text;
+			case TypescriptUtils.KIND_TRUE_KEYWORD:
+				return "true";
+			case TypescriptUtils.KIND_FALSE_KEYWORD:
+				return "false";
+		}
+		
+		return TypescriptUtils.getType(literal);
+	}
+	
+	private static String describeExpression(Type type) {
+		if(type.expression == null) {
+			return TypescriptUtils.UNKNOWN;
+		}
+		
+		if(type.expression.escapedText != null) {
+			return type.expression.escapedText;
+		}
+		
+		// React.Component
+		if(type.expression.expression != null && type.expression.expression.escapedText != null && type.expression.name != null) {
+			return type.expression.expression.escapedText + "." + type.expression.name.escapedText;
+		}
+		
+		return TypescriptUtils.UNKNOWN;
+	}
+	
+	private static String describeHeritage(String base, Type type) {
+		if(type.typeArguments.isEmpty()) {
+			return base;
+		}
+		
+		StringBuilder builder = new StringBuilder(base).append('<');
+		for(int index = 0; index < type.typeArguments.size(); index++) {
+			if(index > 0) {
+				builder.append(", ");
+			}
+			
+			builder.append(describeType(type.typeArguments.get(index)));
+		}
+		
+		return builder.append('>').toString();
+	}
+	
+	/**
+	 * Save the cache as NDJSON, one file per line.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public void saveCache(Path file) throws IOException {
+		try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for(CacheEntry entry : this.cache.values()) {
+				writer.write(GSON.toJson(entry));
+				writer.write('\n');
+			}
+		}
+	}
+	
+	/**
+	 * Load a cache saved by {@link #saveCache(Path)}, adding to the cache
+	 * held in memory.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public void loadCache(Path file) throws IOException {
+		try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				if(line.isEmpty()) {
+					continue;
+				}
+				
+				CacheEntry entry = GSON.fromJson(line, CacheEntry.class);
+				this.cache.put(Paths.get(entry.file), entry);
+			}
+		}
+	}
+	
+	public void clearCache() {
+		this.cache.clear();
+	}
+	
+	/**
+	 * Number of files whose components are cached.
+	 * 
+	 * @return
+	 */
+	public int getCachedCount() {
+		return this.cache.size();
+	}
+	
+	private static String sha256(Path file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		
+		// stream the file, mapping it only to hash it would hold on to the
+		// mapping until the buffer is collected
+		byte[] buffer = new byte[8192];
+		try(InputStream stream = Files.newInputStream(file)) {
+			int read;
+			while((read = stream.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		
+		StringBuilder builder = new StringBuilder(64);
+		for(byte value : digest.digest()) {
+			builder.append(Character.forDigit((value >> 4) & 0xf, 16));
+			builder.append(Character.forDigit(value & 0xf, 16));
+		}
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * State of one extraction run.
+	 */
+	private static class Run {
+		
+		final ProjectTypeIndex typeIndex;
+		
+		/**
+		 * Components per file, each slot written by the one task that owns
+		 * the file
+		 */
+		final List<List<ComponentInfo>> components;
+		
+		final Throwable[] failures;
+		
+		final AtomicInteger cached = new AtomicInteger();
+		
+		/**
+		 * Hash of every file seen in this run, an empty string if it could
+		 * not be read
+		 */
+		final Map<Path, String> hashes = new ConcurrentHashMap<>();
+		
+		Run(ProjectTypeIndex typeIndex, int fileCount) {
+			this.typeIndex = typeIndex;
+			this.components = new ArrayList<>(Collections.nCopies(fileCount, null));
+			this.failures = new Throwable[fileCount];
+		}
+		
+		String hash(Path file) {
+			String hash = this.hashes.get(file);
+			if(hash != null) {
+				return hash;
+			}
+			
+			try {
+				hash = sha256(file);
+			} catch(IOException e) {
+				hash = "";
+			}
+			
+			this.hashes.put(file, hash);
+			return hash;
+		}
+		
+		/**
+		 * Whether none of the given files changed since they were hashed.
+		 * 
+		 * @param dependencies
+		 * @return
+		 */
+		boolean isCurrent(Map<String, String> dependencies) {
+			for(Map.Entry<String, String> entry : dependencies.entrySet()) {
+				if(!entry.getValue().equals(this.hash(Paths.get(entry.getKey())))) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+	}
+	
+	/**
+	 * Components of a file along with the hashes they were extracted from.
+	 */
+	private static class CacheEntry {
+		
+		final String file;
+		
+		final String hash;
+		
+		/**
+		 * Hashes of the project files imported, by path
+		 */
+		final Map<String, String> dependencies;
+		
+		final List<ComponentInfo> components;
+		
+		CacheEntry(String file, String hash, Map<String, String> dependencies, List<ComponentInfo> components) {
+			this.file = file;
+			this.hash = hash;
+			this.dependencies = dependencies;
+			this.components = components;
+		}
+	}
+	
+	/**
+	 * Extracts the components of a slice of the file list, splitting it
+	 * while it is large.
+	 */
+	private class ExtractTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final List<Path> files;
+		
+		private final int from;
+		
+		private final int to;
+		
+		private final Run run;
+		
+		ExtractTask(List<Path> files, int from, int to, Run run) {
+			this.files = files;
+			this.from = from;
+			this.to = to;
+			this.run = run;
+		}
+		
+		@Override
+		protected void compute() {
+			if(this.to - this.from > LEAF_SIZE) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new ExtractTask(this.files, this.from, middle, this.run), new ExtractTask(this.files, middle, this.to, this.run));
+				return;
+			}
+			
+			for(int index = this.from; index < this.to; index++) {
+				try {
+					extractFile(this.run, index, this.files.get(index));
+				} catch(RuntimeException e) {
+					this.run.failures[index] = e;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 
+ * Documentation metadata of one exported React component.
+ *
+ */
+public class ComponentInfo {
+	
+	public static final String KIND_CLASS = "class";
+	
+	public static final String KIND_FUNCTION = "function";
+	
+	private final String name;
+	
+	private final String file;
+	
+	/**
+	 * Either {@link #KIND_CLASS} or {@link #KIND_FUNCTION}
+	 */
+	private final String kind;
+	
+	private final boolean defaultExport;
+	
+	private final String jsDoc;
+	
+	/**
+	 * Name of the props type, <code>null</code> if the props are declared
+	 * inline or there are none
+	 */
+	private final String propsType;
+	
+	private final List<ComponentProp> props;
+	
+	/**
+	 * The types the component class extends or implements, as written
+	 */
+	private final List<String> heritage;
+	
+	public ComponentInfo(String name, String file, String kind, boolean defaultExport, String jsDoc, String propsType, List<ComponentProp> props, List<String> heritage) {
+		this.name = name;
+		this.file = file;
+		this.kind = kind;
+		this.defaultExport = defaultExport;
+		this.jsDoc = jsDoc;
+		this.propsType = propsType;
+		this.props = Collections.unmodifiableList(props);
+		this.heritage = Collections.unmodifiableList(heritage);
+	}
+	
+	@Override
+	public String toString() {
+		return "[ComponentInfo: " + this.name + "; File: " + this.file + "; Props=" + this.props.size() + "]";
+	}
+
+	// Usual accessors follow
+
+	public String getName() {
+		return name;
+	}
+
+	public String getFile() {
+		return file;
+	}
+
+	public String getKind() {
+		return kind;
+	}
+
+	public boolean isDefaultExport() {
+		return defaultExport;
+	}
+
+	public String getJsDoc() {
+		return jsDoc;
+	}
+
+	public String getPropsType() {
+		return propsType;
+	}
+
+	public List<ComponentProp> getProps() {
+		return props;
+	}
+
+	public List<String> getHeritage() {
+		return heritage;
+	}
+
+}
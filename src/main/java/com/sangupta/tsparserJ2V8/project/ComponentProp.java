@@ -0,0 +1,65 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+/**
+ * 
+ * One prop of a component, as written in its props type.
+ *
+ */
+public class ComponentProp {
+	
+	private final String name;
+	
+	/**
+	 * The type as written where it can be told, else
+	 * {@link com.sangupta.tsparserJ2V8.TypescriptUtils#UNKNOWN}
+	 */
+	private final String type;
+	
+	private final boolean optional;
+	
+	private final String jsDoc;
+	
+	public ComponentProp(String name, String type, boolean optional, String jsDoc) {
+		this.name = name;
+		this.type = type;
+		this.optional = optional;
+		this.jsDoc = jsDoc;
+	}
+	
+	@Override
+	public String toString() {
+		return "[ComponentProp: " + this.name + (this.optional ? "?" : "") + ": " + this.type + "]";
+	}
+
+	// Usual accessors follow
+
+	public String getName() {
+		return name;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public boolean isOptional() {
+		return optional;
+	}
+
+	public String getJsDoc() {
+		return jsDoc;
+	}
+
+}
@@ -0,0 +1,384 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.sangupta.tsparserJ2V8.ImportList;
+
+/**
+ * 
+ * The import graph of a project as built by a {@link DependencyScanner}.
+ * An edge goes from a file to each project file it imports; imports of
+ * packages and of files outside the project are kept per file as written.
+ * 
+ * Cycles are found with Tarjan's algorithm, and the files are ordered with
+ * Kahn's algorithm over the graph of cycles, so that every file comes after
+ * the files it depends on and the files of a cycle are kept together.
+ * Among files that are free to go next the one with the smallest path goes
+ * first, so the order is the same on every run.
+ *
+ */
+public class DependencyGraph {
+	
+	/**
+	 * All files of the graph, sorted
+	 */
+	private final List<Path> files;
+	
+	private final Map<Path, Integer> indexes;
+	
+	/**
+	 * For every file, the indexes of the files it imports
+	 */
+	private final int[][] dependencies;
+	
+	/**
+	 * For every file, the indexes of the files importing it
+	 */
+	private final int[][] dependents;
+	
+	private final Map<Path, List<String>> externalImports;
+	
+	private final List<ImportList> failures;
+	
+	private final List<List<Path>> cycles;
+	
+	private final List<Path> order;
+	
+	DependencyGraph(List<Path> files, int[][] dependencies, Map<Path, List<String>> externalImports, List<ImportList> failures) {
+		this.files = Collections.unmodifiableList(files);
+		this.dependencies = dependencies;
+		this.externalImports = Collections.unmodifiableMap(externalImports);
+		this.failures = Collections.unmodifiableList(failures);
+		
+		this.indexes = new HashMap<>(files.size() * 2);
+		for(int index = 0; index < files.size(); index++) {
+			this.indexes.put(files.get(index), index);
+		}
+		
+		this.dependents = invert(dependencies);
+		
+		int[] components = new int[files.size()];
+		int componentCount = this.findComponents(components);
+		
+		this.cycles = this.collectCycles(components, componentCount);
+		this.order = this.sort(components, componentCount);
+	}
+	
+	/**
+	 * The project files imported by the given file.
+	 * 
+	 * @param file
+	 * @return
+	 */
+	public List<Path> getDependencies(Path file) {
+		Integer index = this.indexes.get(file);
+		if(index == null) {
+			return Collections.emptyList();
+		}
+		
+		return this.toPaths(this.dependencies[index]);
+	}
+	
+	/**
+	 * The project files that import the given file.
+	 * 
+	 * @param file
+	 * @return
+	 */
+	public List<Path> getDependents(Path file) {
+		Integer index = this.indexes.get(file);
+		if(index == null) {
+			return Collections.emptyList();
+		}
+		
+		return this.toPaths(this.dependents[index]);
+	}
+	
+	/**
+	 * Imports of the given file that are not project files, such as
+	 * packages, as written.
+	 * 
+	 * @param file
+	 * @return
+	 */
+	public List<String> getExternalImports(Path file) {
+		List<String> imports = this.externalImports.get(file);
+		if(imports == null) {
+			return Collections.emptyList();
+		}
+		
+		return imports;
+	}
+	
+	public boolean hasCycles() {
+		return !this.cycles.isEmpty();
+	}
+	
+	private List<Path> toPaths(int[] indexes) {
+		List<Path> paths = new ArrayList<>(indexes.length);
+		for(int index : indexes) {
+			paths.add(this.files.get(index));
+		}
+		
+		return paths;
+	}
+	
+	/**
+	 * Tarjan's algorithm, without recursion so that long import chains do
+	 * not overflow the stack. Components are numbered in the order they
+	 * complete.
+	 * 
+	 * @param components
+	 *            receives the component of every file
+	 * 
+	 * @return the number of components
+	 */
+	private int findComponents(int[] components) {
+		final int count = this.files.size();
+		int[] discovered = new int[count];
+		int[] low = new int[count];
+		boolean[] onStack = new boolean[count];
+		Arrays.fill(discovered, -1);
+		
+		int[] stack = new int[count];
+		int stackSize = 0;
+		
+		// the depth-first path, with the next edge to follow for each file
+		int[] path = new int[count];
+		int[] nextEdge = new int[count];
+		
+		int time = 0;
+		int componentCount = 0;
+		
+		for(int start = 0; start < count; start++) {
+			if(discovered[start] >= 0) {
+				continue;
+			}
+			
+			int depth = 0;
+			path[0] = start;
+			nextEdge[0] = 0;
+			discovered[start] = low[start] = time++;
+			stack[stackSize++] = start;
+			onStack[start] = true;
+			
+			while(depth >= 0) {
+				final int file = path[depth];
+				final int[] edges = this.dependencies[file];
+				
+				if(nextEdge[depth] < edges.length) {
+					int target = edges[nextEdge[depth]++];
+					if(discovered[target] < 0) {
+						discovered[target] = low[target] = time++;
+						stack[stackSize++] = target;
+						onStack[target] = true;
+						
+						depth++;
+						path[depth] = target;
+						nextEdge[depth] = 0;
+					} else if(onStack[target]) {
+						low[file] = Math.min(low[file], discovered[target]);
+					}
+					
+					continue;
+				}
+				
+				// all edges followed, close the component if this is its root
+				if(low[file] == discovered[file]) {
+					int member;
+					do {
+						member = stack[--stackSize];
+						onStack[member] = false;
+						components[member] = componentCount;
+					} while(member != file);
+					
+					componentCount++;
+				}
+				
+				depth--;
+				if(depth >= 0) {
+					int parent = path[depth];
+					low[parent] = Math.min(low[parent], low[file]);
+				}
+			}
+		}
+		
+		return componentCount;
+	}
+	
+	private List<List<Path>> collectCycles(int[] components, int componentCount) {
+		List<List<Path>> members = new ArrayList<>(componentCount);
+		for(int component = 0; component < componentCount; component++) {
+			members.add(null);
+		}
+		
+		for(int file = 0; file < components.length; file++) {
+			List<Path> list = members.get(components[file]);
+			if(list == null) {
+				list = new ArrayList<>(1);
+				members.set(components[file], list);
+			}
+			
+			list.add(this.files.get(file));
+		}
+		
+		List<List<Path>> cycles = new ArrayList<>();
+		for(int file = 0; file < components.length; file++) {
+			List<Path> list = members.get(components[file]);
+			if(list == null) {
+				continue;
+			}
+			
+			// a single file is a cycle only if it imports itself
+			if(list.size() > 1 || this.importsItself(file)) {
+				cycles.add(Collections.unmodifiableList(list));
+			}
+			
+			members.set(components[file], null);
+		}
+		
+		return Collections.unmodifiableList(cycles);
+	}
+	
+	private boolean importsItself(int file) {
+		for(int target : this.dependencies[file]) {
+			if(target == file) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Kahn's algorithm over the components, dependencies first.
+	 * 
+	 * @param components
+	 * @param componentCount
+	 * @return
+	 */
+	private List<Path> sort(int[] components, int componentCount) {
+		// number of imports of each component that point outside of it
+		int[] pending = new int[componentCount];
+		List<List<Integer>> members = new ArrayList<>(componentCount);
+		for(int component = 0; component < componentCount; component++) {
+			members.add(new ArrayList<>(1));
+		}
+		
+		for(int file = 0; file < components.length; file++) {
+			members.get(components[file]).add(file);
+			for(int target : this.dependencies[file]) {
+				if(components[target] != components[file]) {
+					pending[components[file]]++;
+				}
+			}
+		}
+		
+		// files are sorted, so the first member has the smallest path
+		PriorityQueue<Integer> ready = new PriorityQueue<>((a, b) -> Integer.compare(members.get(a).get(0), members.get(b).get(0)));
+		for(int component = 0; component < componentCount; component++) {
+			if(pending[component] == 0) {
+				ready.add(component);
+			}
+		}
+		
+		List<Path> order = new ArrayList<>(components.length);
+		while(!ready.isEmpty()) {
+			int component = ready.poll();
+			for(int file : members.get(component)) {
+				order.add(this.files.get(file));
+				
+				for(int dependent : this.dependents[file]) {
+					if(components[dependent] != component && --pending[components[dependent]] == 0) {
+						ready.add(components[dependent]);
+					}
+				}
+			}
+		}
+		
+		return Collections.unmodifiableList(order);
+	}
+	
+	private static int[][] invert(int[][] edges) {
+		int[] counts = new int[edges.length];
+		for(int[] targets : edges) {
+			for(int target : targets) {
+				counts[target]++;
+			}
+		}
+		
+		int[][] inverted = new int[edges.length][];
+		for(int file = 0; file < edges.length; file++) {
+			inverted[file] = new int[counts[file]];
+			counts[file] = 0;
+		}
+		
+		for(int file = 0; file < edges.length; file++) {
+			for(int target : edges[file]) {
+				inverted[target][counts[target]++] = file;
+			}
+		}
+		
+		return inverted;
+	}
+	
+	@Override
+	public String toString() {
+		return "[DependencyGraph: Files=" + this.files.size() + "; Cycles=" + this.cycles.size() + "; Failures=" + this.failures.size() + "]";
+	}
+	
+	// Usual accessors follow
+	
+	public List<Path> getFiles() {
+		return files;
+	}
+	
+	/**
+	 * Every file after the files it depends on. Files of a cycle are
+	 * adjacent, in path order.
+	 * 
+	 * @return
+	 */
+	public List<Path> getTopologicalOrder() {
+		return order;
+	}
+	
+	/**
+	 * Groups of files that import each other, directly or indirectly.
+	 * 
+	 * @return
+	 */
+	public List<List<Path>> getCycles() {
+		return cycles;
+	}
+	
+	/**
+	 * Files whose imports could not be read.
+	 * 
+	 * @return
+	 */
+	public List<ImportList> getFailures() {
+		return failures;
+	}
+	
+}
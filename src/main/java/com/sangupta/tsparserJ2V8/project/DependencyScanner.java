@@ -0,0 +1,324 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.sangupta.tsparserJ2V8.ImportList;
+import com.sangupta.tsparserJ2V8.TypescriptParser;
+
+/**
+ * 
+ * Builds the {@link DependencyGraph} of a project from the imports of its
+ * files alone. Imports are read with <code>ts.preProcessFile</code>, which
+ * only scans for import tokens and builds no AST, from files mapped into
+ * memory, in parallel over a fork-join pool.
+ * 
+ * The imports of every file are cached by path, size and modification
+ * time, so a rescan reads only the files that changed. A scanner is
+ * thread-safe and meant to be kept for the life of a project.
+ *
+ */
+public class DependencyScanner {
+	
+	/**
+	 * Number of files below which a task is not split further
+	 */
+	private static final int LEAF_SIZE = 64;
+	
+	private final TypescriptParser parser;
+	
+	private final ModuleResolver resolver;
+	
+	private final int parallelism;
+	
+	private final Map<Path, CachedImports> cache = new ConcurrentHashMap<>();
+	
+	public DependencyScanner(TypescriptParser parser, ModuleResolver resolver) {
+		this(parser, resolver, Runtime.getRuntime().availableProcessors());
+	}
+	
+	public DependencyScanner(TypescriptParser parser, ModuleResolver resolver, int parallelism) {
+		this.parser = parser;
+		this.resolver = resolver;
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Build the graph of all TS/TSX files under the given directory.
+	 * 
+	 * @param root
+	 * @return
+	 * @throws IOException
+	 *             if the directory cannot be walked
+	 */
+	public DependencyGraph scan(Path root) throws IOException {
+		return this.scan(ProjectParser.findSources(root));
+	}
+	
+	/**
+	 * Build the graph of the given files. Imports of files not in the list
+	 * are reported as external.
+	 * 
+	 * @param sources
+	 * @return
+	 */
+	public DependencyGraph scan(List<Path> sources) {
+		List<Path> files = new ArrayList<>(new LinkedHashSet<>(normalize(sources)));
+		Collections.sort(files);
+		
+		ImportList[] imports = new ImportList[files.size()];
+		
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			pool.invoke(new ScanTask(files, 0, files.size(), imports));
+		} finally {
+			pool.shutdown();
+		}
+		
+		return this.link(files, imports);
+	}
+	
+	/**
+	 * Resolve the imports of every file to the files of the graph.
+	 * 
+	 * @param files
+	 * @param imports
+	 * @return
+	 */
+	private DependencyGraph link(List<Path> files, ImportList[] imports) {
+		Map<Path, Integer> indexes = new HashMap<>(files.size() * 2);
+		for(int index = 0; index < files.size(); index++) {
+			indexes.put(files.get(index), index);
+		}
+		
+		// most specifiers repeat across files, resolve each only once
+		Map<String, Optional<Path>> resolved = new HashMap<>();
+		
+		int[][] dependencies = new int[files.size()][];
+		Map<Path, List<String>> externalImports = new HashMap<>();
+		List<ImportList> failures = new ArrayList<>();
+		
+		for(int index = 0; index < files.size(); index++) {
+			final Path file = files.get(index);
+			final ImportList list = imports[index];
+			if(!list.isSuccess()) {
+				failures.add(list);
+				dependencies[index] = new int[0];
+				continue;
+			}
+			
+			Set<Integer> targets = new LinkedHashSet<>();
+			List<String> external = new ArrayList<>();
+			
+			for(String specifier : list.getImports()) {
+				Integer target = indexes.get(this.resolve(resolved, file, specifier));
+				if(target != null) {
+					targets.add(target);
+				} else {
+					external.add(specifier);
+				}
+			}
+			
+			for(String reference : list.getReferences()) {
+				String specifier = reference.startsWith(".") ? reference : "./" + reference;
+				Integer target = indexes.get(this.resolve(resolved, file, specifier));
+				if(target != null) {
+					targets.add(target);
+				}
+			}
+			
+			dependencies[index] = targets.stream().mapToInt(Integer::intValue).toArray();
+			if(!external.isEmpty()) {
+				externalImports.put(file, Collections.unmodifiableList(external));
+			}
+		}
+		
+		return new DependencyGraph(files, dependencies, externalImports, failures);
+	}
+	
+	private Path resolve(Map<String, Optional<Path>> resolved, Path file, String specifier) {
+		// relative specifiers depend on the importing folder, others do not
+		final String key = specifier.startsWith(".") ? file.getParent() + "\u0000" + specifier : specifier;
+		
+		Optional<Path> path = resolved.get(key);
+		if(path == null) {
+			Path target = this.resolver.resolve(file, specifier);
+			path = Optional.ofNullable(target != null ? target.toAbsolutePath().normalize() : null);
+			resolved.put(key, path);
+		}
+		
+		return path.orElse(null);
+	}
+	
+	/**
+	 * Forget the cached imports of the given file.
+	 * 
+	 * @param file
+	 */
+	public void invalidate(Path file) {
+		this.cache.remove(file.toAbsolutePath().normalize());
+	}
+	
+	public void clear() {
+		this.cache.clear();
+	}
+	
+	/**
+	 * Number of files whose imports are cached.
+	 * 
+	 * @return
+	 */
+	public int getCachedCount() {
+		return this.cache.size();
+	}
+	
+	private static List<Path> normalize(List<Path> files) {
+		List<Path> normalized = new ArrayList<>(files.size());
+		for(Path file : files) {
+			normalized.add(file.toAbsolutePath().normalize());
+		}
+		
+		return normalized;
+	}
+	
+	/**
+	 * Reads the imports of a slice of the file list, splitting it while it
+	 * is large.
+	 */
+	private class ScanTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final List<Path> files;
+		
+		private final int from;
+		
+		private final int to;
+		
+		private final ImportList[] imports;
+		
+		ScanTask(List<Path> files, int from, int to, ImportList[] imports) {
+			this.files = files;
+			this.from = from;
+			this.to = to;
+			this.imports = imports;
+		}
+		
+		@Override
+		protected void compute() {
+			if(this.to - this.from > LEAF_SIZE) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new ScanTask(this.files, this.from, middle, this.imports), new ScanTask(this.files, middle, this.to, this.imports));
+				return;
+			}
+			
+			// indexes and stamps of the files that changed since cached
+			List<Integer> stale = new ArrayList<>();
+			List<Path> paths = new ArrayList<>();
+			List<CachedImports> stamps = new ArrayList<>();
+			
+			for(int index = this.from; index < this.to; index++) {
+				final Path file = this.files.get(index);
+				
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				} catch(IOException e) {
+					cache.remove(file);
+					this.imports[index] = new ImportList(file.toString(), e);
+					continue;
+				}
+				
+				CachedImports cached = cache.get(file);
+				if(cached != null && cached.matches(attributes)) {
+					this.imports[index] = cached.imports;
+					continue;
+				}
+				
+				stale.add(index);
+				paths.add(file);
+				stamps.add(new CachedImports(attributes, null));
+			}
+			
+			if(stale.isEmpty()) {
+				return;
+			}
+			
+			List<ImportList> lists;
+			try {
+				lists = parser.preProcessFiles(paths);
+			} catch(RuntimeException e) {
+				for(int index : stale) {
+					this.imports[index] = new ImportList(this.files.get(index).toString(), e);
+				}
+				
+				return;
+			}
+			
+			for(int item = 0; item < stale.size(); item++) {
+				final ImportList list = lists.get(item);
+				this.imports[stale.get(item)] = list;
+				
+				if(list.isSuccess()) {
+					cache.put(paths.get(item), new CachedImports(stamps.get(item), list));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Imports of a file along with the size and modification time of the
+	 * file they were read from.
+	 */
+	private static class CachedImports {
+		
+		final long size;
+		
+		final long modified;
+		
+		final ImportList imports;
+		
+		CachedImports(BasicFileAttributes attributes, ImportList imports) {
+			this.size = attributes.size();
+			this.modified = attributes.lastModifiedTime().toMillis();
+			this.imports = imports;
+		}
+		
+		CachedImports(CachedImports stamp, ImportList imports) {
+			this.size = stamp.size;
+			this.modified = stamp.modified;
+			this.imports = imports;
+		}
+		
+		boolean matches(BasicFileAttributes attributes) {
+			return this.size == attributes.size() && this.modified == attributes.lastModifiedTime().toMillis();
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * 
+ * Resolves module specifiers to source files the way the Typescript
+ * compiler does for a project: relative specifiers against the importing
+ * file, others through the <code>paths</code> mappings and then the
+ * <code>baseUrl</code> of the project. Specifiers that resolve to nothing,
+ * like packages in <code>node_modules</code>, resolve to <code>null</code>.
+ *
+ */
+public class ModuleResolver {
+	
+	/**
+	 * Suffixes tried, in order, on a resolved location
+	 */
+	private static final String[] CANDIDATES = { "", ".ts", ".tsx", ".d.ts", "/index.ts", "/index.tsx", "/index.d.ts" };
+	
+	private final Path baseUrl;
+	
+	/**
+	 * Pattern to substitutions, both relative to the base url
+	 */
+	private final Map<String, List<String>> paths;
+	
+	/**
+	 * Create a resolver for relative specifiers only.
+	 */
+	public ModuleResolver() {
+		this(null, Collections.emptyMap());
+	}
+	
+	public ModuleResolver(Path baseUrl, Map<String, List<String>> paths) {
+		this.baseUrl = baseUrl;
+		this.paths = paths;
+	}
+	
+	/**
+	 * Create a resolver from the <code>compilerOptions</code> of a
+	 * <code>tsconfig.json</code> file. Comments are allowed; an
+	 * <code>extends</code> chain is not followed.
+	 * 
+	 * @param tsconfig
+	 * @return
+	 * @throws IOException
+	 */
+	public static ModuleResolver fromTsConfig(Path tsconfig) throws IOException {
+		final Path directory = tsconfig.toAbsolutePath().getParent();
+		
+		JsonElement root;
+		try(Reader reader = Files.newBufferedReader(tsconfig, StandardCharsets.UTF_8)) {
+			JsonReader jsonReader = new JsonReader(reader);
+			jsonReader.setLenient(true);
+			root = JsonParser.parseReader(jsonReader);
+		}
+		
+		if(!root.isJsonObject() || !root.getAsJsonObject().has("compilerOptions")) {
+			return new ModuleResolver(null, Collections.emptyMap());
+		}
+		
+		JsonObject options = root.getAsJsonObject().getAsJsonObject("compilerOptions");
+		Path baseUrl = null;
+		if(options.has("baseUrl")) {
+			baseUrl = directory.resolve(options.get("baseUrl").getAsString()).normalize();
+		}
+		
+		Map<String, List<String>> paths = new LinkedHashMap<>();
+		if(options.has("paths")) {
+			for(Map.Entry<String, JsonElement> entry : options.getAsJsonObject("paths").entrySet()) {
+				List<String> substitutions = new ArrayList<>();
+				JsonArray array = entry.getValue().getAsJsonArray();
+				for(JsonElement substitution : array) {
+					if(substitution != null && !substitution.isJsonNull()) {
+						substitutions.add(substitution.getAsString());
+					}
+				}
+				
+				paths.put(entry.getKey(), substitutions);
+			}
+			
+			// without a base url, paths are relative to the config file
+			if(baseUrl == null) {
+				baseUrl = directory;
+			}
+		}
+		
+		return new ModuleResolver(baseUrl, paths);
+	}
+	
+	/**
+	 * Resolve a module specifier.
+	 * 
+	 * @param containingFile
+	 *            the file with the import
+	 * 
+	 * @param specifier
+	 *            the module specifier as written
+	 * 
+	 * @return the source file, or <code>null</code> if the module is not
+	 *         part of the project
+	 */
+	public Path resolve(Path containingFile, String specifier) {
+		if(specifier.startsWith("./") || specifier.startsWith("../") || specifier.equals(".") || specifier.equals("..")) {
+			return probe(containingFile.toAbsolutePath().getParent().resolve(specifier).normalize());
+		}
+		
+		if(this.baseUrl == null) {
+			return null;
+		}
+		
+		Path mapped = this.resolvePaths(specifier);
+		if(mapped != null) {
+			return mapped;
+		}
+		
+		return probe(this.baseUrl.resolve(specifier).normalize());
+	}
+	
+	/**
+	 * Try the <code>paths</code> pattern with the longest prefix matching
+	 * the specifier, as the compiler does.
+	 * 
+	 * @param specifier
+	 * @return
+	 */
+	private Path resolvePaths(String specifier) {
+		String bestPattern = null;
+		String bestMatch = null;
+		int bestPrefix = -1;
+		
+		for(String pattern : this.paths.keySet()) {
+			int star = pattern.indexOf('*');
+			if(star < 0) {
+				if(pattern.equals(specifier)) {
+					bestPattern = pattern;
+					bestMatch = "";
+					break;
+				}
+				
+				continue;
+			}
+			
+			String prefix = pattern.substring(0, star);
+			String suffix = pattern.substring(star + 1);
+			if(specifier.length() >= prefix.length() + suffix.length() && specifier.startsWith(prefix) && specifier.endsWith(suffix) && prefix.length() > bestPrefix) {
+				bestPattern = pattern;
+				bestMatch = specifier.substring(prefix.length(), specifier.length() - suffix.length());
+				bestPrefix = prefix.length();
+			}
+		}
+		
+		if(bestPattern == null) {
+			return null;
+		}
+		
+		for(String substitution : this.paths.get(bestPattern)) {
+			Path resolved = probe(this.baseUrl.resolve(substitution.replace("*", bestMatch)).normalize());
+			if(resolved != null) {
+				return resolved;
+			}
+		}
+		
+		return null;
+	}
+	
+	private static Path probe(Path location) {
+		final String base = location.toString();
+		for(String candidate : CANDIDATES) {
+			Path path = candidate.isEmpty() ? location : location.getFileSystem().getPath(base + candidate);
+			if(Files.isRegularFile(path) && ProjectParser.isSource(path)) {
+				return path;
+			}
+		}
+		
+		return null;
+	}
+
+}
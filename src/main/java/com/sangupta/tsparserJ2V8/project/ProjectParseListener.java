@@ -0,0 +1,34 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import com.sangupta.tsparserJ2V8.ParseResult;
+
+/**
+ * 
+ * Receives the result of every file parsed by a {@link ProjectParser}, in
+ * the order in which parsing completes. Calls are serialized, so
+ * implementations need not be thread-safe.
+ *
+ */
+public interface ProjectParseListener {
+	
+	/**
+	 * Called once per file, whether it was parsed or failed.
+	 * 
+	 * @param result
+	 */
+	public void onResult(ParseResult result);
+
+}
@@ -0,0 +1,78 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.sangupta.tsparserJ2V8.ParseResult;
+
+/**
+ * 
+ * Outcome of parsing a whole project with a {@link ProjectParser}.
+ *
+ */
+public class ProjectParseSummary {
+	
+	private final int fileCount;
+	
+	private final List<ParseResult> failures;
+	
+	private final long elapsedMillis;
+	
+	/**
+	 * Fraction of strings and leaf nodes shared through interning, zero if
+	 * interning was off
+	 */
+	private final double dedupRate;
+	
+	public ProjectParseSummary(int fileCount, List<ParseResult> failures, long elapsedMillis) {
+		this(fileCount, failures, elapsedMillis, 0);
+	}
+	
+	public ProjectParseSummary(int fileCount, List<ParseResult> failures, long elapsedMillis, double dedupRate) {
+		this.fileCount = fileCount;
+		this.failures = Collections.unmodifiableList(failures);
+		this.elapsedMillis = elapsedMillis;
+		this.dedupRate = dedupRate;
+	}
+	
+	public int getParsedCount() {
+		return this.fileCount - this.failures.size();
+	}
+	
+	@Override
+	public String toString() {
+		return "[ProjectParseSummary: Files=" + this.fileCount + "; Failures=" + this.failures.size() + "; Millis=" + this.elapsedMillis + "; DedupRate=" + this.dedupRate + "]";
+	}
+
+	// Usual accessors follow
+
+	public int getFileCount() {
+		return fileCount;
+	}
+
+	public List<ParseResult> getFailures() {
+		return failures;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public double getDedupRate() {
+		return dedupRate;
+	}
+
+}
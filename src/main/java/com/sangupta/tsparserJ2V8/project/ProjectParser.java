@@ -0,0 +1,310 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.sangupta.tsparserJ2V8.AstInterner;
+import com.sangupta.tsparserJ2V8.ParseResult;
+import com.sangupta.tsparserJ2V8.SourceInput;
+import com.sangupta.tsparserJ2V8.TypescriptParser;
+import com.sangupta.tsparserJ2V8.metrics.ParseMetrics;
+
+/**
+ * 
+ * Parses every TS/TSX file under a directory in parallel. The file list is
+ * split recursively over a fork-join pool so that idle workers steal work
+ * from busy ones; every leaf parses its files as one batch on a runtime
+ * checked out from the parser's pool, so each worker keeps a runtime busy.
+ * 
+ * Results are reported as files complete and per-file errors are collected
+ * rather than thrown. The parser's pool should allow at least as many
+ * runtimes as the parallelism used here.
+ * 
+ * With interning on, each run shares strings and leaf nodes across all of
+ * its files through a fresh {@link AstInterner}, which is dropped when the
+ * run is over.
+ *
+ */
+public class ProjectParser {
+	
+	/**
+	 * Directories that never hold project sources
+	 */
+	private static final Set<String> SKIPPED_DIRECTORIES = new HashSet<>(Arrays.asList("node_modules", ".git", ".svn", ".hg"));
+	
+	/**
+	 * Number of files below which a task is not split further
+	 */
+	private static final int LEAF_SIZE = 8;
+	
+	private final TypescriptParser parser;
+	
+	private final int parallelism;
+	
+	private final boolean interning;
+	
+	private final boolean mapped;
+	
+	public ProjectParser(TypescriptParser parser) {
+		this(parser, Runtime.getRuntime().availableProcessors());
+	}
+	
+	public ProjectParser(TypescriptParser parser, int parallelism) {
+		this(parser, parallelism, false);
+	}
+	
+	public ProjectParser(TypescriptParser parser, int parallelism, boolean interning) {
+		this(parser, parallelism, interning, false);
+	}
+	
+	/**
+	 * @param parser
+	 * @param parallelism
+	 * @param interning
+	 *            whether to share strings and leaf nodes across all files
+	 *            of a run
+	 * 
+	 * @param mapped
+	 *            whether to memory-map the files and decode them inside V8,
+	 *            so that their code is never read into Java strings; the
+	 *            parser's cache is then not used
+	 */
+	public ProjectParser(TypescriptParser parser, int parallelism, boolean interning, boolean mapped) {
+		this.parser = parser;
+		this.parallelism = parallelism;
+		this.interning = interning;
+		this.mapped = mapped;
+	}
+	
+	/**
+	 * Parse all TS/TSX files under the given directory.
+	 * 
+	 * @param root
+	 *            the directory to walk
+	 * 
+	 * @param listener
+	 *            receives every result as soon as it is available
+	 * 
+	 * @return summary with all files that failed
+	 * 
+	 * @throws IOException
+	 *             if the directory cannot be walked
+	 */
+	public ProjectParseSummary parse(Path root, ProjectParseListener listener) throws IOException {
+		return this.parse(findSources(root), listener);
+	}
+	
+	/**
+	 * Parse the given files.
+	 * 
+	 * @param files
+	 * @param listener
+	 * @return
+	 */
+	public ProjectParseSummary parse(List<Path> files, ProjectParseListener listener) {
+		final long start = System.currentTimeMillis();
+		final Collector collector = new Collector(listener);
+		final AstInterner interner = this.interning ? new AstInterner() : null;
+		
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			pool.invoke(new ParseTask(files, 0, files.size(), collector, interner));
+		} finally {
+			pool.shutdown();
+		}
+		
+		final double dedupRate = interner != null ? interner.getDedupRate() : 0;
+		return new ProjectParseSummary(files.size(), collector.failures, System.currentTimeMillis() - start, dedupRate);
+	}
+	
+	/**
+	 * Find all TS/TSX files under the given directory, skipping dependency
+	 * and version control folders.
+	 * 
+	 * @param root
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<Path> findSources(Path root) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				if(!dir.equals(root) && SKIPPED_DIRECTORIES.contains(dir.getFileName().toString())) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if(attrs.isRegularFile() && isSource(file)) {
+					files.add(file);
+				}
+				
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				return FileVisitResult.CONTINUE;
+			}
+			
+		});
+		
+		Collections.sort(files);
+		return files;
+	}
+	
+	public static boolean isSource(Path file) {
+		String name = file.getFileName().toString();
+		return name.endsWith(".ts") || name.endsWith(".tsx");
+	}
+	
+	/**
+	 * Parses a slice of the file list, splitting it while it is large.
+	 */
+	private class ParseTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final List<Path> files;
+		
+		private final int from;
+		
+		private final int to;
+		
+		private final Collector collector;
+		
+		private final AstInterner interner;
+		
+		ParseTask(List<Path> files, int from, int to, Collector collector, AstInterner interner) {
+			this.files = files;
+			this.from = from;
+			this.to = to;
+			this.collector = collector;
+			this.interner = interner;
+		}
+		
+		@Override
+		protected void compute() {
+			if(this.to - this.from > LEAF_SIZE) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new ParseTask(this.files, this.from, middle, this.collector, this.interner), new ParseTask(this.files, middle, this.to, this.collector, this.interner));
+				return;
+			}
+			
+			if(mapped) {
+				this.parseMapped();
+				return;
+			}
+			
+			final ParseMetrics metrics = parser.getOptions().getMetrics();
+			List<SourceInput> inputs = new ArrayList<>();
+			for(int index = this.from; index < this.to; index++) {
+				Path file = this.files.get(index);
+				try {
+					final long start = System.nanoTime();
+					byte[] bytes = Files.readAllBytes(file);
+					metrics.recordRead(file.toString(), bytes.length, System.nanoTime() - start);
+					
+					inputs.add(new SourceInput(file.toString(), new String(bytes, StandardCharsets.UTF_8)));
+				} catch(IOException e) {
+					this.collector.accept(new ParseResult(file.toString(), e));
+				}
+			}
+			
+			if(inputs.isEmpty()) {
+				return;
+			}
+			
+			List<ParseResult> results;
+			try {
+				results = parser.parseBatch(inputs, this.interner);
+			} catch(RuntimeException e) {
+				for(SourceInput input : inputs) {
+					this.collector.accept(new ParseResult(input.getFileName(), e));
+				}
+				
+				return;
+			}
+			
+			for(ParseResult result : results) {
+				this.collector.accept(result);
+			}
+		}
+		
+		private void parseMapped() {
+			List<Path> slice = this.files.subList(this.from, this.to);
+			
+			List<ParseResult> results;
+			try {
+				results = parser.parseFiles(slice, this.interner);
+			} catch(RuntimeException e) {
+				for(Path file : slice) {
+					this.collector.accept(new ParseResult(file.toString(), e));
+				}
+				
+				return;
+			}
+			
+			for(ParseResult result : results) {
+				this.collector.accept(result);
+			}
+		}
+	}
+	
+	/**
+	 * Serializes calls to the listener and keeps the failures.
+	 */
+	private static class Collector {
+		
+		private final ProjectParseListener listener;
+		
+		private final List<ParseResult> failures = new ArrayList<>();
+		
+		Collector(ProjectParseListener listener) {
+			this.listener = listener;
+		}
+		
+		synchronized void accept(ParseResult result) {
+			if(!result.isSuccess()) {
+				this.failures.add(result);
+			}
+			
+			if(this.listener != null) {
+				this.listener.onResult(result);
+			}
+		}
+	}
+
+}
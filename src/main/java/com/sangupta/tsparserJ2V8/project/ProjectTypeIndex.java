@@ -0,0 +1,432 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sangupta.tsparserJ2V8.TypescriptParser;
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+import com.sangupta.tsparserJ2V8.ast.Expression;
+import com.sangupta.tsparserJ2V8.ast.HeritageClause;
+import com.sangupta.tsparserJ2V8.ast.Member;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+import com.sangupta.tsparserJ2V8.ast.SourceFileIndex;
+import com.sangupta.tsparserJ2V8.ast.Statement;
+import com.sangupta.tsparserJ2V8.ast.Type;
+import com.sangupta.tsparserJ2V8.ast.TypeReference;
+
+/**
+ * 
+ * Resolves interfaces and type aliases across the modules of a project.
+ * Files are parsed on demand, through the parser's cache if it has one,
+ * and kept for the lifetime of the index. Imports are followed through
+ * the {@link ModuleResolver}, including re-exports from barrel files, and
+ * <code>extends</code> chains are flattened once per type and memoized, so
+ * repeated lookups cost a map access.
+ * 
+ * Every file handed out by {@link #getSourceFile(Path)} has a
+ * {@link com.sangupta.tsparserJ2V8.ast.TypeResolver} attached, so that
+ * {@link SourceFile#getMembersOfType(String)} works across modules.
+ *
+ */
+public class ProjectTypeIndex {
+	
+	/**
+	 * Guards against re-export and inheritance chains that never end
+	 */
+	private static final int MAX_DEPTH = 32;
+	
+	private final TypescriptParser parser;
+	
+	private final ModuleResolver resolver;
+	
+	private final Map<Path, SourceFile> files = new ConcurrentHashMap<>();
+	
+	/**
+	 * Flattened members per declaration
+	 */
+	private final Map<TypeKey, List<Member>> members = new ConcurrentHashMap<>();
+	
+	public ProjectTypeIndex(TypescriptParser parser, ModuleResolver resolver) {
+		this.parser = parser;
+		this.resolver = resolver;
+	}
+	
+	/**
+	 * Return the parsed file, parsing it on first use.
+	 * 
+	 * @param file
+	 * @return
+	 */
+	public SourceFile getSourceFile(Path file) {
+		final Path path = file.toAbsolutePath().normalize();
+		SourceFile sourceFile = this.files.get(path);
+		if(sourceFile != null) {
+			return sourceFile;
+		}
+		
+		String code;
+		try {
+			code = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+		} catch(IOException e) {
+			throw new RuntimeException("Unable to read source file: " + path, e);
+		}
+		
+		// the parsed file may be shared through the cache with files of the
+		// same content elsewhere, so bind a copy of it to this location
+		SourceFile parsed = this.parser.parse(path.toString(), code);
+		SourceFile bound = new SourceFile();
+		bound.kind = parsed.kind;
+		bound.statements = parsed.statements;
+		bound.afterConversion();
+		bound.setTypeResolver(typeName -> this.getMembersOfType(path, typeName));
+		
+		SourceFile existing = this.files.putIfAbsent(path, bound);
+		return existing != null ? existing : bound;
+	}
+	
+	/**
+	 * Find the members of the named interface or type alias as seen from
+	 * the given file, including inherited members. Members redeclared by a
+	 * derived type replace the inherited ones.
+	 * 
+	 * @param file
+	 *            the file the name is used in
+	 * 
+	 * @param typeName
+	 *            the local name of the type
+	 * 
+	 * @return the members, or <code>null</code> if the type cannot be
+	 *         resolved within the project
+	 */
+	public List<Member> getMembersOfType(Path file, String typeName) {
+		Declaration declaration = this.findDeclaration(file.toAbsolutePath().normalize(), typeName, 0);
+		if(declaration == null) {
+			return null;
+		}
+		
+		return this.flatten(declaration, new Visiting());
+	}
+	
+	/**
+	 * Find an interface or type alias by its local name in the given file,
+	 * following imports.
+	 * 
+	 * @param file
+	 * @param name
+	 * @param depth
+	 * @return
+	 */
+	private Declaration findDeclaration(Path file, String name, int depth) {
+		if(depth > MAX_DEPTH) {
+			return null;
+		}
+		
+		SourceFileIndex index = this.getSourceFile(file).getIndex();
+		Statement statement = findType(index.getDeclarations(name));
+		if(statement != null) {
+			return new Declaration(file, statement);
+		}
+		
+		String library = index.getImportPath(name);
+		if(library == null) {
+			return null;
+		}
+		
+		Path target = this.resolver.resolve(file, library);
+		if(target == null) {
+			return null;
+		}
+		
+		return this.findExport(target, index.getImportedName(name), depth + 1);
+	}
+	
+	/**
+	 * Find an interface or type alias exported from the given file under the
+	 * given name, following re-exports.
+	 * 
+	 * @param file
+	 * @param name
+	 * @param depth
+	 * @return
+	 */
+	private Declaration findExport(Path file, String name, int depth) {
+		if(depth > MAX_DEPTH || name == null || SourceFileIndex.NAMESPACE_IMPORT.equals(name)) {
+			return null;
+		}
+		
+		SourceFileIndex index = this.getSourceFile(file).getIndex();
+		if(SourceFileIndex.DEFAULT_IMPORT.equals(name)) {
+			Statement statement = index.getDefaultExport();
+			return isType(statement) ? new Declaration(file, statement) : null;
+		}
+		
+		Statement statement = index.getExport(name);
+		if(isType(statement)) {
+			return new Declaration(file, statement);
+		}
+		
+		// imported and then exported by name: export { Name };
+		if(index.getImportPath(name) != null) {
+			Declaration imported = this.findDeclaration(file, name, depth + 1);
+			if(imported != null) {
+				return imported;
+			}
+		}
+		
+		// export ... from './module', the export clause is not kept so try
+		// each module that is re-exported
+		for(Statement export : index.getStatements(TypescriptUtils.KIND_EXPORT_DECL)) {
+			if(export.moduleSpecifier == null) {
+				continue;
+			}
+			
+			Path target = this.resolver.resolve(file, export.moduleSpecifier.text);
+			if(target == null) {
+				continue;
+			}
+			
+			Declaration declaration = this.findExport(target, name, depth + 1);
+			if(declaration != null) {
+				return declaration;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Return the memoized member list of the declaration, computing it with
+	 * everything it inherits on first use. A declaration that inherits from
+	 * one further up the stack is part of a cycle that was cut short, so its
+	 * list lacks what the cut declaration would have added. Such lists are
+	 * not memoized; the declaration where the cycle closes is complete and
+	 * is memoized.
+	 * 
+	 * @param declaration
+	 * @param visiting
+	 *            declarations being flattened up the stack, to break cycles
+	 * 
+	 * @return
+	 */
+	private List<Member> flatten(Declaration declaration, Visiting visiting) {
+		final TypeKey key = declaration.key();
+		List<Member> flattened = this.members.get(key);
+		if(flattened != null) {
+			return flattened;
+		}
+		
+		final int position = visiting.stack.indexOf(key);
+		if(position >= 0) {
+			visiting.cutAt = Math.min(visiting.cutAt, position);
+			return Collections.emptyList();
+		}
+		
+		final int depth = visiting.stack.size();
+		final int cutAbove = visiting.cutAt;
+		visiting.stack.add(key);
+		visiting.cutAt = Integer.MAX_VALUE;
+		
+		// keyed by name so that a redeclared member replaces the inherited one
+		Map<Object, Member> collected = new LinkedHashMap<>();
+		final Statement statement = declaration.statement;
+		
+		if(statement.kind == TypescriptUtils.KIND_INTERFACE_DECL) {
+			for(HeritageClause clause : statement.heritageClauses) {
+				for(Type type : clause.types) {
+					Declaration base = this.findHeritage(declaration.file, type.expression);
+					if(base != null) {
+						addAll(collected, this.flatten(base, visiting));
+					}
+				}
+			}
+			
+			addAll(collected, statement.members);
+		} else {
+			this.collectAlias(declaration.file, statement.type, collected, visiting);
+		}
+		
+		visiting.stack.remove(depth);
+		
+		// cycles closing at this declaration are resolved here, those closing
+		// further up leave this list incomplete
+		final boolean complete = visiting.cutAt >= depth;
+		visiting.cutAt = complete ? cutAbove : Math.min(cutAbove, visiting.cutAt);
+		
+		flattened = Collections.unmodifiableList(new ArrayList<>(collected.values()));
+		if(!complete) {
+			return flattened;
+		}
+		
+		List<Member> existing = this.members.putIfAbsent(key, flattened);
+		return existing != null ? existing : flattened;
+	}
+	
+	/**
+	 * Collect the members of the aliased type: the members of a type literal,
+	 * or those of the type it refers to.
+	 */
+	private void collectAlias(Path file, TypeReference type, Map<Object, Member> collected, Visiting visiting) {
+		if(type == null) {
+			return;
+		}
+		
+		if(!type.members.isEmpty()) {
+			addAll(collected, type.members);
+			return;
+		}
+		
+		if(type.typeName != null && type.typeName.escapedText != null) {
+			Declaration target = this.findDeclaration(file, type.typeName.escapedText, 0);
+			if(target != null) {
+				addAll(collected, this.flatten(target, visiting));
+			}
+		}
+	}
+	
+	/**
+	 * Resolve the expression of an <code>extends</code> clause: a plain name,
+	 * or <code>namespace.Name</code> for a namespace import.
+	 */
+	private Declaration findHeritage(Path file, Expression expression) {
+		if(expression == null) {
+			return null;
+		}
+		
+		if(expression.escapedText != null) {
+			return this.findDeclaration(file, expression.escapedText, 0);
+		}
+		
+		if(expression.expression == null || expression.expression.escapedText == null || expression.name == null) {
+			return null;
+		}
+		
+		SourceFileIndex index = this.getSourceFile(file).getIndex();
+		final String namespace = expression.expression.escapedText;
+		if(!SourceFileIndex.NAMESPACE_IMPORT.equals(index.getImportedName(namespace))) {
+			return null;
+		}
+		
+		Path target = this.resolver.resolve(file, index.getImportPath(namespace));
+		if(target == null) {
+			return null;
+		}
+		
+		return this.findExport(target, expression.name.escapedText, 1);
+	}
+	
+	private static void addAll(Map<Object, Member> collected, List<Member> members) {
+		for(Member member : members) {
+			// members without a name, like index signatures, are kept as is
+			Object key = member.name != null && member.name.escapedText != null ? member.name.escapedText : member;
+			collected.remove(key);
+			collected.put(key, member);
+		}
+	}
+	
+	private static Statement findType(List<Statement> statements) {
+		for(Statement statement : statements) {
+			if(isType(statement)) {
+				return statement;
+			}
+		}
+		
+		return null;
+	}
+	
+	private static boolean isType(Statement statement) {
+		return statement != null && (statement.kind == TypescriptUtils.KIND_INTERFACE_DECL || statement.kind == TypescriptUtils.KIND_TYPE_ALIAS_DECL);
+	}
+	
+	/**
+	 * Number of files parsed so far.
+	 * 
+	 * @return
+	 */
+	public int getFileCount() {
+		return this.files.size();
+	}
+	
+	/**
+	 * A declaration found in a file.
+	 */
+	private static class Declaration {
+		
+		final Path file;
+		
+		final Statement statement;
+		
+		Declaration(Path file, Statement statement) {
+			this.file = file;
+			this.statement = statement;
+		}
+		
+		TypeKey key() {
+			return new TypeKey(this.file, this.statement.name.escapedText);
+		}
+	}
+	
+	/**
+	 * The declarations being flattened, outermost first, and the position of
+	 * the outermost one a cycle was cut at since the innermost started.
+	 */
+	private static class Visiting {
+		
+		final List<TypeKey> stack = new ArrayList<>();
+		
+		int cutAt = Integer.MAX_VALUE;
+		
+	}
+	
+	/**
+	 * Identifies a declaration by the file and its name in that file.
+	 */
+	private static class TypeKey {
+		
+		final Path file;
+		
+		final String name;
+		
+		TypeKey(Path file, String name) {
+			this.file = file;
+			this.name = name;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * this.file.hashCode() + Objects.hashCode(this.name);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof TypeKey)) {
+				return false;
+			}
+			
+			TypeKey other = (TypeKey) obj;
+			return this.file.equals(other.file) && Objects.equals(this.name, other.name);
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+import * as React from 'react';
+
+export interface ButtonProps {
+    /**
+     * The text shown on the button
+     */
+    label: string;
+
+    /**
+     * Visual style of the button
+     */
+    variant?: 'primary' | 'secondary' | 'link';
+
+    disabled?: boolean;
+
+    onClick?: (e: React.MouseEvent<HTMLButtonElement>) => void;
+}
+
+export default class Button extends React.Component<ButtonProps> {
+
+    static defaultProps: Partial<ButtonProps> = {
+        variant: 'primary',
+        disabled: false
+    };
+
+    handleClick = (e: React.MouseEvent<HTMLButtonElement>): void => {
+        if (this.props.disabled) {
+            return;
+        }
+
+        if (this.props.onClick) {
+            this.props.onClick(e);
+        }
+    }
+
+    render() {
+        const { label, variant, disabled } = this.props;
+        const className = 'btn btn-' + variant;
+
+        return <button type='button' className={className} disabled={disabled} onClick={this.handleClick}>
+            {label}
+        </button>;
+    }
+}
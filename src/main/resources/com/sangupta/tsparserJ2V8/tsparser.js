@@ -0,0 +1,695 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+/**
+ * Helpers evaluated in every runtime right after the Typescript library.
+ * They keep the work on the JS side so that only a few calls, each with a
+ * single string argument and result, cross into Java.
+ */
+var tsparser = (function(ts) {
+
+	// shape name to field name to child shape name, set from Java
+	var schema = {};
+
+	// the shape of the root node
+	var root = null;
+
+	// nodes projected since the last call to parse or parseBatch
+	var projectedNodes = 0;
+
+	/**
+	 * Set the field whitelist generated from the Java AST classes.
+	 *
+	 * @param json the schema as JSON
+	 * @param rootShape the shape of a parsed source file
+	 */
+	function setSchema(json, rootShape) {
+		schema = JSON.parse(json);
+		root = rootShape;
+	}
+
+	// convert JSDoc comment parts to a single string
+	function toScalar(value) {
+		var type = typeof value;
+		if(type === 'string' || type === 'number' || type === 'boolean') {
+			return value;
+		}
+
+		if(Array.isArray(value)) {
+			var text = '';
+			for(var index = 0; index < value.length; index++) {
+				if(value[index] && value[index].text !== undefined) {
+					text += value[index].text;
+				}
+			}
+
+			return text;
+		}
+
+		return undefined;
+	}
+
+	/**
+	 * Copy only the fields the Java model declares for the given shape.
+	 */
+	function project(node, shapeName) {
+		var shape = schema[shapeName];
+		var projected = {};
+		projectedNodes++;
+
+		for(var field in shape) {
+			var value = node[field];
+			if(value === undefined || value === null) {
+				continue;
+			}
+
+			var child = shape[field];
+			if(child === '') {
+				value = toScalar(value);
+				if(value !== undefined) {
+					projected[field] = value;
+				}
+
+				continue;
+			}
+
+			if(typeof value !== 'object') {
+				continue;
+			}
+
+			if(Array.isArray(value)) {
+				var items = new Array(value.length);
+				for(var index = 0; index < value.length; index++) {
+					items[index] = project(value[index], child);
+				}
+
+				projected[field] = items;
+				continue;
+			}
+
+			projected[field] = project(value, child);
+		}
+
+		return projected;
+	}
+
+	/**
+	 * Parse the given code and return the projected AST as JSON.
+	 */
+	function parse(fileName, code, options) {
+		projectedNodes = 0;
+		return JSON.stringify(project(ts.createSourceFile(fileName, code, options, false), root));
+	}
+
+	/**
+	 * Parse all given sources and return the projected ASTs as one JSON
+	 * string.
+	 *
+	 * @param inputs JSON array of [fileName, code] pairs
+	 * @param options the compiler options to use
+	 */
+	function parseBatch(inputs, options) {
+		return parseAll(JSON.parse(inputs), options);
+	}
+
+	/**
+	 * Decode UTF-8 source bytes into a string. The buffer may be a mapped
+	 * file, so it is only ever read.
+	 *
+	 * @param buffer an ArrayBuffer holding the UTF-8 bytes
+	 */
+	function decodeSource(buffer) {
+		if(typeof Buffer !== 'undefined') {
+			// a view over the same memory, no copy is made
+			return Buffer.from(buffer).toString('utf8');
+		}
+
+		if(typeof TextDecoder !== 'undefined') {
+			return new TextDecoder('utf-8').decode(new Uint8Array(buffer));
+		}
+
+		return decodeUtf8(new Uint8Array(buffer));
+	}
+
+	/**
+	 * Plain UTF-8 decoder for runtimes without Buffer or TextDecoder.
+	 * Malformed sequences decode to U+FFFD.
+	 */
+	function decodeUtf8(bytes) {
+		var parts = [];
+		var units = [];
+		var index = 0;
+
+		while(index < bytes.length) {
+			var byte = bytes[index++];
+			var point = 0xfffd;
+			var extra = 0;
+
+			if(byte < 0x80) {
+				point = byte;
+			} else if(byte >= 0xc2 && byte < 0xe0) {
+				point = byte & 0x1f;
+				extra = 1;
+			} else if(byte >= 0xe0 && byte < 0xf0) {
+				point = byte & 0x0f;
+				extra = 2;
+			} else if(byte >= 0xf0 && byte < 0xf5) {
+				point = byte & 0x07;
+				extra = 3;
+			}
+
+			for(; extra > 0; extra--) {
+				if(index >= bytes.length || (bytes[index] & 0xc0) !== 0x80) {
+					point = 0xfffd;
+					break;
+				}
+
+				point = (point << 6) | (bytes[index++] & 0x3f);
+			}
+
+			if(point > 0xffff) {
+				point -= 0x10000;
+				units.push(0xd800 | (point >> 10), 0xdc00 | (point & 0x3ff));
+			} else {
+				units.push(point);
+			}
+
+			// keep the argument lists of fromCharCode short
+			if(units.length >= 8192) {
+				parts.push(String.fromCharCode.apply(null, units));
+				units = [];
+			}
+		}
+
+		parts.push(String.fromCharCode.apply(null, units));
+		return parts.join('');
+	}
+
+	/**
+	 * Parse UTF-8 source bytes and return the projected AST as JSON.
+	 */
+	function parseBuffer(fileName, buffer, options) {
+		return parse(fileName, decodeSource(buffer), options);
+	}
+
+	/**
+	 * Parse many files given as UTF-8 source bytes and return the projected
+	 * ASTs as one JSON string, as parseBatch does.
+	 *
+	 * @param fileNames JSON array of file names
+	 * @param buffers array of ArrayBuffers, one per file name
+	 * @param options the compiler options to use
+	 */
+	function parseBufferBatch(fileNames, buffers, options) {
+		var names = JSON.parse(fileNames);
+		var sources = new Array(names.length);
+
+		for(var index = 0; index < names.length; index++) {
+			sources[index] = [names[index], decodeSource(buffers[index])];
+		}
+
+		return parseAll(sources, options);
+	}
+
+	function parseAll(sources, options) {
+		var results = new Array(sources.length);
+		projectedNodes = 0;
+
+		for(var index = 0; index < sources.length; index++) {
+			try {
+				results[index] = project(ts.createSourceFile(sources[index][0], sources[index][1], options, false), root);
+			} catch(e) {
+				results[index] = { error: String((e && e.stack) || e) };
+			}
+		}
+
+		return JSON.stringify(results);
+	}
+
+	// number of integers written per event
+	var EVENT_WIDTH = 7;
+
+	// text of a node, or of its name, if it has one
+	function textOf(node) {
+		// the text of a source file is the whole code
+		if(!node || node.kind === ts.SyntaxKind.SourceFile) {
+			return undefined;
+		}
+
+		if(node.escapedText !== undefined) {
+			return String(node.escapedText);
+		}
+
+		if(typeof node.text === 'string') {
+			return node.text;
+		}
+
+		return undefined;
+	}
+
+	/**
+	 * Serialize the AST as JSON, projected exactly as parse() does, and send
+	 * it to Java in chunks through tsparser.write. Neither the projected tree
+	 * nor the whole document is ever built.
+	 *
+	 * @param chunkSize number of characters per chunk
+	 */
+	function writeJson(fileName, code, options, chunkSize) {
+		var sourceFile = ts.createSourceFile(fileName, code, options, false);
+		var buffer = '';
+
+		function out(text) {
+			buffer += text;
+			if(buffer.length >= chunkSize) {
+				tsparser.write(buffer);
+				buffer = '';
+			}
+		}
+
+		function writeNode(node, shapeName) {
+			var shape = schema[shapeName];
+			var separator = '{';
+
+			for(var field in shape) {
+				var value = node[field];
+				if(value === undefined || value === null) {
+					continue;
+				}
+
+				var child = shape[field];
+				if(child === '') {
+					value = toScalar(value);
+					if(value !== undefined) {
+						out(separator + JSON.stringify(field) + ':' + JSON.stringify(value));
+						separator = ',';
+					}
+
+					continue;
+				}
+
+				if(typeof value !== 'object') {
+					continue;
+				}
+
+				out(separator + JSON.stringify(field) + ':');
+				separator = ',';
+
+				if(Array.isArray(value)) {
+					out('[');
+					for(var index = 0; index < value.length; index++) {
+						if(index > 0) {
+							out(',');
+						}
+
+						writeNode(value[index], child);
+					}
+
+					out(']');
+					continue;
+				}
+
+				writeNode(value, child);
+			}
+
+			out(separator === '{' ? '{}' : '}');
+		}
+
+		writeNode(sourceFile, root);
+		if(buffer.length > 0) {
+			tsparser.write(buffer);
+		}
+	}
+
+	/**
+	 * Walk the AST depth-first and send enter/leave events to Java in
+	 * chunks. Each event takes EVENT_WIDTH integers: type (0 = enter,
+	 * 1 = leave), kind, pos, end, depth, and the indexes into the chunk's
+	 * string list of the node's text and its name's text, or -1.
+	 *
+	 * @param kinds JSON array of the kinds to report, or null for all
+	 * @param chunkSize number of events per chunk
+	 */
+	function stream(fileName, code, options, kinds, chunkSize) {
+		var sourceFile = ts.createSourceFile(fileName, code, options, false);
+
+		var selected = null;
+		if(kinds) {
+			selected = {};
+			var list = JSON.parse(kinds);
+			for(var index = 0; index < list.length; index++) {
+				selected[list[index]] = true;
+			}
+		}
+
+		var ints = [];
+		var strings = [];
+		var count = 0;
+
+		function flush() {
+			if(count === 0) {
+				return;
+			}
+
+			tsparser.emit(ints, strings, count);
+			ints = [];
+			strings = [];
+			count = 0;
+		}
+
+		function addString(value) {
+			if(value === undefined) {
+				return -1;
+			}
+
+			strings.push(value);
+			return strings.length - 1;
+		}
+
+		function push(type, node, depth) {
+			ints.push(type, node.kind, node.pos, node.end, depth, addString(type === 0 ? textOf(node) : undefined), addString(type === 0 ? textOf(node.name) : undefined));
+			count++;
+
+			if(count >= chunkSize) {
+				flush();
+			}
+		}
+
+		function visit(node, depth) {
+			var report = selected === null || selected[node.kind] === true;
+			if(report) {
+				push(0, node, depth);
+			}
+
+			ts.forEachChild(node, function(child) {
+				visit(child, depth + 1);
+			});
+
+			if(report) {
+				push(1, node, depth);
+			}
+		}
+
+		visit(sourceFile, 0);
+		flush();
+	}
+
+	// binary layout, must match BinaryAst on the Java side
+	var BINARY_MAGIC = 0x31425354;
+	var BINARY_VERSION = 1;
+	var BINARY_HEADER = 5;
+	var BINARY_COLUMNS = 7;
+
+	// the encoded tree waiting for a buffer to be written to
+	var pending = null;
+
+	// the scalar text a shape declares for a node
+	function scalarTextOf(node, shape) {
+		var fields = ['escapedText', 'text', 'comment'];
+		for(var index = 0; index < fields.length; index++) {
+			if(shape[fields[index]] === '' && node[fields[index]] !== undefined) {
+				var value = toScalar(node[fields[index]]);
+				if(value !== undefined) {
+					return String(value);
+				}
+			}
+		}
+
+		return undefined;
+	}
+
+	/**
+	 * Parse the code and flatten the projected tree in pre-order into
+	 * columns of kind, pos, end, parent index, child count, field name and
+	 * text, with all strings deduplicated into a table. The result is kept
+	 * until writeEncoded() is called with a buffer of the returned size.
+	 *
+	 * @return the number of bytes needed to hold the encoded tree
+	 */
+	function encode(fileName, code, options) {
+		var sourceFile = ts.createSourceFile(fileName, code, options, false);
+
+		var kinds = [], starts = [], ends = [], parents = [], childCounts = [], fields = [], texts = [];
+		var strings = [];
+		var stringIds = Object.create(null);
+		var chars = 0;
+
+		function intern(value) {
+			var id = stringIds[value];
+			if(id === undefined) {
+				id = strings.length;
+				strings.push(value);
+				stringIds[value] = id;
+				chars += value.length;
+			}
+
+			return id;
+		}
+
+		function walk(node, shapeName, parent, field) {
+			var shape = schema[shapeName];
+			var index = kinds.length;
+			var text = scalarTextOf(node, shape);
+
+			kinds.push(node.kind);
+			starts.push(node.pos === undefined ? -1 : node.pos);
+			ends.push(node.end === undefined ? -1 : node.end);
+			parents.push(parent);
+			childCounts.push(0);
+			fields.push(field === null ? -1 : intern(field));
+			texts.push(text === undefined ? -1 : intern(text));
+
+			if(parent >= 0) {
+				childCounts[parent]++;
+			}
+
+			for(var name in shape) {
+				var child = shape[name];
+				var value = node[name];
+				if(child === '' || !value || typeof value !== 'object') {
+					continue;
+				}
+
+				if(Array.isArray(value)) {
+					for(var item = 0; item < value.length; item++) {
+						walk(value[item], child, index, name);
+					}
+
+					continue;
+				}
+
+				walk(value, child, index, name);
+			}
+		}
+
+		walk(sourceFile, root, -1, null);
+
+		pending = {
+			columns: [kinds, starts, ends, parents, childCounts, fields, texts],
+			strings: strings,
+			chars: chars
+		};
+
+		var ints = BINARY_HEADER + BINARY_COLUMNS * kinds.length + strings.length + 1;
+		return ints * 4 + ((chars * 2 + 3) & ~3);
+	}
+
+	/**
+	 * Write the tree prepared by encode() into the given buffer.
+	 */
+	function writeEncoded(buffer) {
+		var encoded = pending;
+		pending = null;
+
+		var count = encoded.columns[0].length;
+		var strings = encoded.strings;
+		var intCount = BINARY_HEADER + BINARY_COLUMNS * count + strings.length + 1;
+
+		var ints = new Int32Array(buffer, 0, intCount);
+		ints[0] = BINARY_MAGIC;
+		ints[1] = BINARY_VERSION;
+		ints[2] = count;
+		ints[3] = strings.length;
+		ints[4] = encoded.chars;
+
+		var offset = BINARY_HEADER;
+		for(var column = 0; column < BINARY_COLUMNS; column++) {
+			ints.set(encoded.columns[column], offset);
+			offset += count;
+		}
+
+		// string offsets, in chars, followed by the UTF-16 chars
+		var chars = new Uint16Array(buffer, intCount * 4, encoded.chars);
+		var position = 0;
+		for(var index = 0; index < strings.length; index++) {
+			ints[offset++] = position;
+
+			var value = strings[index];
+			for(var char = 0; char < value.length; char++) {
+				chars[position++] = value.charCodeAt(char);
+			}
+		}
+
+		ints[offset] = position;
+	}
+
+	// source files kept alive for incremental parsing, by file name
+	var documents = Object.create(null);
+
+	/**
+	 * Parse the code, keep the source file for later updates and return its
+	 * projected AST as JSON.
+	 */
+	function openDocument(fileName, code, options) {
+		var sourceFile = ts.createSourceFile(fileName, code, options, true);
+		documents[fileName] = sourceFile;
+
+		return JSON.stringify(project(sourceFile, root));
+	}
+
+	/**
+	 * Incrementally reparse a document kept by openDocument(). Only the
+	 * statements that changed are projected: for every statement of the
+	 * new tree the result holds either the index of the same, reused
+	 * statement in the old tree, or the projected new statement.
+	 */
+	function updateDocument(fileName, code, start, length, newLength) {
+		var previous = documents[fileName];
+		if(!previous) {
+			throw new Error('Document is not open: ' + fileName);
+		}
+
+		// the old tree is invalidated by the update, remember its statements first
+		var oldIndexes = new Map();
+		for(var index = 0; index < previous.statements.length; index++) {
+			oldIndexes.set(previous.statements[index], index);
+		}
+
+		var sourceFile = ts.updateSourceFile(previous, code, { span: { start: start, length: length }, newLength: newLength }, false);
+		documents[fileName] = sourceFile;
+
+		var shape = schema[root].statements;
+		var statements = new Array(sourceFile.statements.length);
+		for(var index = 0; index < statements.length; index++) {
+			var statement = sourceFile.statements[index];
+			var oldIndex = oldIndexes.get(statement);
+
+			statements[index] = oldIndex === undefined ? project(statement, shape) : oldIndex;
+		}
+
+		return JSON.stringify({ kind: sourceFile.kind, statements: statements });
+	}
+
+	/**
+	 * Forget a document kept by openDocument().
+	 */
+	function closeDocument(fileName) {
+		delete documents[fileName];
+	}
+
+	/**
+	 * Read the imports of the given code without building an AST, using
+	 * ts.preProcessFile. Dynamic imports and require calls are included.
+	 */
+	function preProcess(code) {
+		var info = ts.preProcessFile(code, true, true);
+		return {
+			imports: referenceNames(info.importedFiles),
+			references: referenceNames(info.referencedFiles),
+			types: referenceNames(info.typeReferenceDirectives)
+		};
+	}
+
+	function referenceNames(references) {
+		var names = new Array(references.length);
+		for(var index = 0; index < references.length; index++) {
+			names[index] = references[index].fileName;
+		}
+
+		return names;
+	}
+
+	/**
+	 * Read the imports of all given sources and return them as one JSON
+	 * string, one { imports, references, types } or { error } per source.
+	 *
+	 * @param inputs JSON array of [fileName, code] pairs
+	 */
+	function preProcessBatch(inputs) {
+		var sources = JSON.parse(inputs);
+		var codes = new Array(sources.length);
+		for(var index = 0; index < sources.length; index++) {
+			codes[index] = sources[index][1];
+		}
+
+		return preProcessAll(codes);
+	}
+
+	/**
+	 * Read the imports of many files given as UTF-8 source bytes, as
+	 * preProcessBatch does.
+	 *
+	 * @param buffers array of ArrayBuffers, one per file
+	 */
+	function preProcessBufferBatch(buffers) {
+		var codes = new Array(buffers.length);
+		for(var index = 0; index < buffers.length; index++) {
+			codes[index] = decodeSource(buffers[index]);
+		}
+
+		return preProcessAll(codes);
+	}
+
+	function preProcessAll(codes) {
+		var results = new Array(codes.length);
+		for(var index = 0; index < codes.length; index++) {
+			try {
+				results[index] = preProcess(codes[index]);
+			} catch(e) {
+				results[index] = { error: String((e && e.stack) || e) };
+			}
+		}
+
+		return JSON.stringify(results);
+	}
+
+	/**
+	 * Sample what the last parse left behind.
+	 *
+	 * @return [nodes projected, heap used, heap total], heap sizes are -1
+	 *         if node does not report them
+	 */
+	function stats() {
+		var memory = typeof process !== 'undefined' && process.memoryUsage ? process.memoryUsage() : null;
+		return [projectedNodes, memory ? memory.heapUsed : -1, memory ? memory.heapTotal : -1];
+	}
+
+	return {
+		setSchema: setSchema,
+		openDocument: openDocument,
+		updateDocument: updateDocument,
+		closeDocument: closeDocument,
+		stream: stream,
+		writeJson: writeJson,
+		encode: encode,
+		writeEncoded: writeEncoded,
+		project: project,
+		parse: parse,
+		parseBatch: parseBatch,
+		parseBuffer: parseBuffer,
+		parseBufferBatch: parseBufferBatch,
+		preProcessBatch: preProcessBatch,
+		preProcessBufferBatch: preProcessBufferBatch,
+		stats: stats
+	};
+
+})(ts);
@@ -0,0 +1,193 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+import com.sangupta.tsparserJ2V8.ast.Statement;
+
+public class AstConverterTest {
+	
+	@Test
+	public void testMatchesReflectiveConversion() throws Exception {
+		Map<String, Object> map = sampleFile();
+		
+		SourceFile expected = ReflectiveConverter.convert(map, SourceFile.class);
+		SourceFile actual = AstConverter.convertToAst(map, SourceFile.class);
+		
+		Assert.assertEquals(3, actual.statements.size());
+		Assert.assertEquals("Props", actual.statements.get(1).heritageClauses.get(0).types.get(0).typeArguments.get(0).typeName.escapedText);
+		Assert.assertEquals("event", actual.statements.get(2).declarationList.declarations.get(0).initializer.body.statements.get(0).expression.escapedText);
+		assertSameTree("file", expected, actual);
+	}
+	
+	@Test
+	public void testNarrowsNumbers() {
+		Statement statement = AstConverter.convertToAst(AstMaps.node(TypescriptUtils.KIND_CLASS_DECL), Statement.class);
+		Assert.assertEquals(TypescriptUtils.KIND_CLASS_DECL, statement.kind);
+	}
+	
+	@Test
+	public void testMissingValuesKeepDefaults() {
+		Map<String, Object> map = AstMaps.node(TypescriptUtils.KIND_CLASS_DECL, "name", null, "members", null, "unknown", "ignored");
+		Statement statement = AstConverter.convertToAst(map, Statement.class);
+		
+		Assert.assertNull(statement.name);
+		Assert.assertNotNull(statement.members);
+		Assert.assertTrue(statement.members.isEmpty());
+	}
+	
+	@Test
+	public void testNullMap() {
+		Assert.assertNull(AstConverter.convertToAst(null, SourceFile.class));
+	}
+	
+	/**
+	 * import React, { Component as Base } from 'react';
+	 * export default class Button extends Base&lt;Props&gt; { label: string; }
+	 * const handler = (event) =&gt; { return event; };
+	 */
+	static Map<String, Object> sampleFile() {
+		Map<String, Object> importDeclaration = AstMaps.node(TypescriptUtils.KIND_IMPORT_DECL,
+				"importClause", AstMaps.node(0, "isTypeOnly", false, "name", AstMaps.identifier("React"),
+						"namedBindings", AstMaps.node(0, "elements", AstMaps.list(
+								AstMaps.node(0, "name", AstMaps.identifier("Base"), "propertyName", AstMaps.identifier("Component"))))),
+				"moduleSpecifier", AstMaps.node(TypescriptUtils.KIND_STRING_LITERAL, "text", "react"),
+				"pos", 0d);
+		
+		Map<String, Object> classDeclaration = AstMaps.node(TypescriptUtils.KIND_CLASS_DECL,
+				"name", AstMaps.identifier("Button"),
+				"modifiers", AstMaps.list(AstMaps.modifier(TypescriptUtils.KIND_EXPORT_KEYWORD), AstMaps.modifier(TypescriptUtils.KIND_DEFAULT_KEYWORD)),
+				"heritageClauses", AstMaps.list(AstMaps.node(TypescriptUtils.KIND_HERITAGE_CLAUSE, "types", AstMaps.list(
+						AstMaps.node(TypescriptUtils.KIND_EXPR_WITH_TYPE_ARGS, "expression", AstMaps.identifier("Base"),
+								"typeArguments", AstMaps.list(AstMaps.node(0, "typeName", AstMaps.identifier("Props"))))))),
+				"members", AstMaps.list(AstMaps.node(0, "name", AstMaps.identifier("label"),
+						"type", AstMaps.node(TypescriptUtils.KIND_STRING_KEYWORD))),
+				"jsDoc", AstMaps.list(AstMaps.node(0, "comment", "A button")));
+		
+		Map<String, Object> variableStatement = AstMaps.node(0,
+				"declarationList", AstMaps.node(0, "declarations", AstMaps.list(AstMaps.node(0,
+						"name", AstMaps.identifier("handler"),
+						"initializer", AstMaps.node(TypescriptUtils.KIND_ARROW_FUNCTION,
+								"parameters", AstMaps.list(AstMaps.node(0, "name", AstMaps.identifier("event"))),
+								"body", AstMaps.node(0, "statements", AstMaps.list(
+										AstMaps.node(TypescriptUtils.KIND_RETURN_STATEMENT, "expression", AstMaps.identifier("event")))))))));
+		
+		return AstMaps.sourceFile(importDeclaration, classDeclaration, variableStatement);
+	}
+	
+	/**
+	 * Assert that two trees hold equal values in every public field.
+	 */
+	static void assertSameTree(String path, Object expected, Object actual) throws IllegalAccessException {
+		if(expected == null || actual == null) {
+			Assert.assertEquals(path, expected, actual);
+			return;
+		}
+		
+		Assert.assertEquals(path, expected.getClass(), actual.getClass());
+		if(expected instanceof String || expected instanceof Number || expected instanceof Boolean) {
+			Assert.assertEquals(path, expected, actual);
+			return;
+		}
+		
+		if(expected instanceof List) {
+			List<?> expectedItems = (List<?>) expected;
+			List<?> actualItems = (List<?>) actual;
+			Assert.assertEquals(path + ".size", expectedItems.size(), actualItems.size());
+			for(int index = 0; index < expectedItems.size(); index++) {
+				assertSameTree(path + "[" + index + "]", expectedItems.get(index), actualItems.get(index));
+			}
+			
+			return;
+		}
+		
+		for(Field field : ReflectiveConverter.fieldsOf(expected.getClass())) {
+			if(Modifier.isPublic(field.getModifiers())) {
+				assertSameTree(path + "." + field.getName(), field.get(expected), field.get(actual));
+			}
+		}
+	}
+	
+	/**
+	 * The field by field reflective conversion that the binders replaced,
+	 * kept as the reference they must agree with.
+	 */
+	static class ReflectiveConverter {
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		static <T> T convert(Map<String, Object> map, Class<T> clazz) throws Exception {
+			if(map == null) {
+				return null;
+			}
+			
+			T instance = clazz.getDeclaredConstructor().newInstance();
+			for(Field field : fieldsOf(clazz)) {
+				Object value = map.get(field.getName());
+				if(value == null) {
+					continue;
+				}
+				
+				field.setAccessible(true);
+				Class<?> type = field.getType();
+				if(type == int.class) {
+					field.setInt(instance, ((Number) value).intValue());
+				} else if(type == long.class) {
+					field.setLong(instance, ((Number) value).longValue());
+				} else if(type == double.class) {
+					field.setDouble(instance, ((Number) value).doubleValue());
+				} else if(type == boolean.class) {
+					field.setBoolean(instance, (Boolean) value);
+				} else if(type == String.class) {
+					field.set(instance, value.toString());
+				} else if(value instanceof Collection) {
+					Class<?> itemType = Class.forName(((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0].getTypeName());
+					Collection items = (Collection) field.get(instance);
+					for(Object item : (Collection<?>) value) {
+						items.add(convert((Map<String, Object>) item, itemType));
+					}
+				} else {
+					field.set(instance, convert((Map<String, Object>) value, type));
+				}
+			}
+			
+			return instance;
+		}
+		
+		static List<Field> fieldsOf(Class<?> clazz) {
+			List<Field> fields = new ArrayList<>();
+			for(Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+				for(Field field : current.getDeclaredFields()) {
+					if(!Modifier.isStatic(field.getModifiers())) {
+						fields.add(field);
+					}
+				}
+			}
+			
+			return fields;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,110 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.ast.AstObject;
+import com.sangupta.tsparserJ2V8.ast.Member;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+import com.sangupta.tsparserJ2V8.ast.Statement;
+import com.sangupta.tsparserJ2V8.ast.TypeReference;
+
+public class AstInternerTest {
+	
+	@Test
+	public void testLeavesAreSharedAcrossFiles() {
+		AstInterner interner = new AstInterner();
+		SourceFile first = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class, interner);
+		SourceFile second = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class, interner);
+		
+		Assert.assertSame(first.statements.get(1).name, second.statements.get(1).name);
+		Assert.assertSame(first.statements.get(1).modifiers.get(0), second.statements.get(1).modifiers.get(0));
+		Assert.assertSame(first.statements.get(0).moduleSpecifier, second.statements.get(0).moduleSpecifier);
+		Assert.assertTrue(interner.getNodeHits() > 0);
+	}
+	
+	@Test
+	public void testNodesHoldingListsAreNotShared() {
+		AstInterner interner = new AstInterner();
+		SourceFile first = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class, interner);
+		SourceFile second = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class, interner);
+		
+		Statement firstClass = first.statements.get(1);
+		Statement secondClass = second.statements.get(1);
+		Assert.assertNotSame(firstClass, secondClass);
+		Assert.assertNotSame(firstClass.heritageClauses.get(0), secondClass.heritageClauses.get(0));
+		Assert.assertNotSame(firstClass.members.get(0), secondClass.members.get(0));
+		Assert.assertNotSame(first.statements.get(0).importClause, second.statements.get(0).importClause);
+		
+		// the leaves below them still are
+		Assert.assertSame(firstClass.members.get(0).name, secondClass.members.get(0).name);
+		
+		// equal within one file too, so sharing would alias their lists
+		Map<String, Object> member = AstMaps.node(0, "name", AstMaps.identifier("a"));
+		Map<String, Object> type = AstMaps.node(0, "members", AstMaps.list(member, member));
+		TypeReference literal = AstConverter.convertToAst(type, TypeReference.class, interner);
+		Assert.assertNotSame(literal.members.get(0), literal.members.get(1));
+	}
+	
+	@Test
+	public void testShareableClasses() {
+		Assert.assertTrue(AstConverter.isShareable(AstObject.class, new HashSet<>()));
+		Assert.assertFalse(AstConverter.isShareable(Member.class, new HashSet<>()));
+		Assert.assertFalse(AstConverter.isShareable(TypeReference.class, new HashSet<>()));
+		Assert.assertFalse(AstConverter.isShareable(Statement.class, new HashSet<>()));
+	}
+	
+	@Test
+	public void testStrings() {
+		AstInterner interner = new AstInterner();
+		String first = interner.intern(new String("Props"));
+		Assert.assertSame(first, interner.intern(new String("Props")));
+		Assert.assertEquals(1, interner.getStringHits());
+		
+		// long strings are kept as they are
+		char[] chars = new char[AstInterner.MAX_STRING_LENGTH + 1];
+		String longer = new String(chars);
+		Assert.assertSame(longer, interner.intern(longer));
+		Assert.assertNotSame(interner.intern(new String(chars)), interner.intern(new String(chars)));
+		Assert.assertNull(interner.intern(null));
+	}
+	
+	@Test
+	public void testNothingSharedWithoutInterner() {
+		SourceFile first = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class);
+		SourceFile second = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class);
+		
+		Assert.assertNotSame(first.statements.get(1).name, second.statements.get(1).name);
+	}
+	
+	@Test
+	public void testClear() {
+		AstInterner interner = new AstInterner();
+		SourceFile first = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class, interner);
+		Assert.assertTrue(interner.getNodeCount() > 0);
+		
+		interner.clear();
+		Assert.assertEquals(0, interner.getNodeCount());
+		Assert.assertEquals(0, interner.getStringCount());
+		
+		SourceFile second = AstConverter.convertToAst(AstConverterTest.sampleFile(), SourceFile.class, interner);
+		Assert.assertNotSame(first.statements.get(1).name, second.statements.get(1).name);
+	}
+	
+}
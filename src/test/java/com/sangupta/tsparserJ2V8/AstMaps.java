@@ -0,0 +1,70 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * Builds the map form of AST nodes by hand, the way they arrive from JSON:
+ * numbers as doubles, lists as lists.
+ *
+ */
+public class AstMaps {
+	
+	private AstMaps() {
+		// not to be instantiated
+	}
+	
+	/**
+	 * A node of the given kind with the given field name and value pairs.
+	 * 
+	 * @param kind
+	 * @param fields
+	 * @return
+	 */
+	public static Map<String, Object> node(int kind, Object... fields) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("kind", (double) kind);
+		for(int index = 0; index < fields.length; index += 2) {
+			map.put((String) fields[index], fields[index + 1]);
+		}
+		
+		return map;
+	}
+	
+	public static Map<String, Object> identifier(String name) {
+		// SyntaxKind.Identifier
+		return node(79, "escapedText", name);
+	}
+	
+	public static Map<String, Object> modifier(int kind) {
+		return node(kind);
+	}
+	
+	public static List<Object> list(Object... items) {
+		return new ArrayList<>(Arrays.asList(items));
+	}
+	
+	public static Map<String, Object> sourceFile(Object... statements) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("statements", list(statements));
+		return map;
+	}
+	
+}
@@ -0,0 +1,285 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+public class AsyncTypescriptParserTest {
+	
+	private final StubParser parser = new StubParser();
+	
+	private AsyncTypescriptParser async;
+	
+	@After
+	public void tearDown() {
+		this.parser.releaseAll();
+		if(this.async != null) {
+			this.async.close();
+		}
+		
+		this.parser.close();
+	}
+	
+	@Test
+	public void testRejectsWhenFull() throws Exception {
+		this.async = new AsyncTypescriptParser(this.parser, options(1, 1).setAdmissionPolicy(AdmissionPolicy.REJECT));
+		
+		CompletableFuture<SourceFile> running = this.async.parseAsync("block", "");
+		this.parser.awaitStarted("block");
+		CompletableFuture<SourceFile> queued = this.async.parseAsync("queued", "");
+		Assert.assertEquals(2, this.async.getInFlightCount());
+		
+		assertFailsWith(RejectedExecutionException.class, this.async.parseAsync("rejected", ""));
+		Assert.assertEquals(2, this.async.getInFlightCount());
+		
+		this.parser.release("block");
+		Assert.assertNotNull(running.get(5, TimeUnit.SECONDS));
+		Assert.assertNotNull(queued.get(5, TimeUnit.SECONDS));
+		this.awaitInFlight(0);
+		
+		Assert.assertFalse(this.parser.getParsed().contains("rejected"));
+	}
+	
+	@Test
+	public void testWaitsForRoom() throws Exception {
+		this.async = new AsyncTypescriptParser(this.parser, options(1, 0).setAdmissionPolicy(AdmissionPolicy.WAIT).setAdmissionTimeoutMillis(5000));
+		
+		this.async.parseAsync("block", "");
+		this.parser.awaitStarted("block");
+		
+		final CompletableFuture<CompletableFuture<SourceFile>> submitted = CompletableFuture.supplyAsync(() -> this.async.parseAsync("waiting", ""));
+		Thread.sleep(100);
+		Assert.assertFalse("caller should still wait for room", submitted.isDone());
+		
+		this.parser.release("block");
+		Assert.assertNotNull(submitted.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	public void testWaitTimesOut() throws Exception {
+		this.async = new AsyncTypescriptParser(this.parser, options(1, 0).setAdmissionPolicy(AdmissionPolicy.WAIT).setAdmissionTimeoutMillis(50));
+		
+		this.async.parseAsync("block", "");
+		this.parser.awaitStarted("block");
+		
+		final long start = System.nanoTime();
+		assertFailsWith(RejectedExecutionException.class, this.async.parseAsync("waiting", ""));
+		Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		Assert.assertEquals(1, this.async.getInFlightCount());
+	}
+	
+	@Test
+	public void testDeadlineWhileQueued() throws Exception {
+		this.async = new AsyncTypescriptParser(this.parser, options(1, 1));
+		
+		this.async.parseAsync("block", "");
+		this.parser.awaitStarted("block");
+		
+		CompletableFuture<SourceFile> queued = this.async.parseAsync("queued", "", 50);
+		assertFailsWith(TimeoutException.class, queued);
+		
+		// nothing was running the request, so there was nothing to abort
+		Assert.assertTrue(this.parser.getTerminated().isEmpty());
+		Assert.assertEquals(2, this.async.getInFlightCount());
+		
+		// the worker skips the request once it gets to it
+		this.parser.release("block");
+		this.awaitInFlight(0);
+		Assert.assertFalse(this.parser.getParsed().contains("queued"));
+	}
+	
+	@Test
+	public void testDeadlineWhileRunning() throws Exception {
+		this.async = new AsyncTypescriptParser(this.parser, options(1, 1));
+		
+		CompletableFuture<SourceFile> running = this.async.parseAsync("block", "", 50);
+		final Thread worker = this.parser.awaitStarted("block");
+		
+		assertFailsWith(TimeoutException.class, running);
+		
+		// the call is aborted on the worker running it, which frees the slot
+		this.awaitInFlight(0);
+		Assert.assertEquals(Collections.singletonList(worker), this.parser.getTerminated());
+		
+		// the next request on the same worker is left alone
+		Assert.assertNotNull(this.async.parseAsync("next", "", 5000).get(5, TimeUnit.SECONDS));
+		Assert.assertEquals(1, this.parser.getTerminated().size());
+	}
+	
+	@Test
+	public void testDeadlineAfterCompletion() throws Exception {
+		this.async = new AsyncTypescriptParser(this.parser, options(1, 1));
+		
+		Assert.assertNotNull(this.async.parseAsync("quick", "", 50).get(5, TimeUnit.SECONDS));
+		
+		// the deadline is cancelled with the request, and the worker now
+		// runs another one that must not be aborted
+		this.async.parseAsync("block", "");
+		this.parser.awaitStarted("block");
+		Thread.sleep(100);
+		
+		Assert.assertTrue(this.parser.getTerminated().isEmpty());
+		Assert.assertEquals(1, this.async.getInFlightCount());
+	}
+	
+	private void awaitInFlight(int expected) throws InterruptedException {
+		// the slot is given back just after the future completes
+		final long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while(this.async.getInFlightCount() != expected && System.nanoTime() < until) {
+			Thread.sleep(5);
+		}
+		
+		Assert.assertEquals(expected, this.async.getInFlightCount());
+	}
+	
+	private static AsyncParserOptions options(int workers, int queueCapacity) {
+		return new AsyncParserOptions().setWorkers(workers).setQueueCapacity(queueCapacity);
+	}
+	
+	private static void assertFailsWith(Class<? extends Throwable> expected, CompletableFuture<SourceFile> future) throws InterruptedException {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			Assert.fail("expected " + expected.getSimpleName());
+		} catch(ExecutionException e) {
+			Assert.assertEquals(expected, e.getCause().getClass());
+		} catch(TimeoutException e) {
+			Assert.fail("future did not complete");
+		}
+	}
+	
+	/**
+	 * Files whose name starts with <code>block</code> are held until
+	 * released, or until their worker is aborted through the supervisor,
+	 * which stands in for V8 terminating the call.
+	 */
+	static class StubParser extends TypescriptParser {
+		
+		private final List<String> parsed = Collections.synchronizedList(new ArrayList<>());
+		
+		private final List<Thread> terminated = Collections.synchronizedList(new ArrayList<>());
+		
+		private final Map<String, Thread> started = new ConcurrentHashMap<>();
+		
+		private final Map<String, CountDownLatch> startedLatches = new ConcurrentHashMap<>();
+		
+		private final Map<String, CountDownLatch> released = new ConcurrentHashMap<>();
+		
+		private final RuntimeSupervisor supervisor;
+		
+		private final RuntimePool pool;
+		
+		StubParser() {
+			super(stubOptions());
+			
+			this.supervisor = new RuntimeSupervisor(stubOptions()) {
+				
+				@Override
+				public boolean terminate(Thread owner) {
+					terminated.add(owner);
+					owner.interrupt();
+					return true;
+				}
+				
+			};
+			
+			this.pool = new RuntimePool(stubOptions()) {
+				
+				@Override
+				public RuntimeSupervisor getSupervisor() {
+					return supervisor;
+				}
+				
+			};
+		}
+		
+		private static TypescriptParserOptions stubOptions() {
+			// no runtime is ever started
+			return new TypescriptParserOptions(new TypescriptLibrary("stub", "stub.js", "")).setMinIdleRuntimes(0);
+		}
+		
+		@Override
+		public SourceFile parse(String fileName, String code) {
+			this.parsed.add(fileName);
+			this.started.put(fileName, Thread.currentThread());
+			this.latch(this.startedLatches, fileName).countDown();
+			
+			if(fileName.startsWith("block")) {
+				try {
+					this.latch(this.released, fileName).await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException("Parse was terminated: " + fileName);
+				}
+			}
+			
+			return new SourceFile();
+		}
+		
+		@Override
+		public RuntimePool getPool() {
+			return this.pool;
+		}
+		
+		@Override
+		public void close() {
+			this.pool.close();
+			this.supervisor.close();
+			super.close();
+		}
+		
+		Thread awaitStarted(String fileName) throws InterruptedException {
+			Assert.assertTrue(this.latch(this.startedLatches, fileName).await(5, TimeUnit.SECONDS));
+			return this.started.get(fileName);
+		}
+		
+		void release(String fileName) {
+			this.latch(this.released, fileName).countDown();
+		}
+		
+		void releaseAll() {
+			for(CountDownLatch latch : this.released.values()) {
+				latch.countDown();
+			}
+		}
+		
+		List<String> getParsed() {
+			return new ArrayList<>(this.parsed);
+		}
+		
+		List<Thread> getTerminated() {
+			return new ArrayList<>(this.terminated);
+		}
+		
+		private CountDownLatch latch(Map<String, CountDownLatch> latches, String fileName) {
+			return latches.computeIfAbsent(fileName, name -> new CountDownLatch(1));
+		}
+		
+	}
+	
+}
@@ -0,0 +1,120 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedSourcesTest {
+	
+	private File directory;
+	
+	@Before
+	public void createDirectory() throws IOException {
+		this.directory = Files.createTempDirectory("mapped-sources").toFile();
+	}
+	
+	@After
+	public void deleteDirectory() {
+		FileUtils.deleteQuietly(this.directory);
+	}
+	
+	@Test
+	public void testSmallFilesOfOneReaderDoNotOverlap() throws IOException {
+		byte[] a = bytes(100, 'a');
+		byte[] b = bytes(200, 'b');
+		
+		MappedSources.Reader reader = MappedSources.reader();
+		ByteBuffer first = reader.read(this.write("a.ts", a));
+		ByteBuffer second = reader.read(this.write("b.ts", b));
+		
+		Assert.assertTrue(first.isDirect());
+		// mappings are read-only, the scratch buffer is not
+		Assert.assertFalse(first.isReadOnly());
+		Assert.assertArrayEquals(a, contents(first));
+		Assert.assertArrayEquals(b, contents(second));
+	}
+	
+	@Test
+	public void testReadersOfOneThreadReuseTheBuffer() throws IOException {
+		Path file = this.write("a.ts", bytes(100, 'a'));
+		
+		ByteBuffer first = MappedSources.reader().read(file);
+		ByteBuffer second = MappedSources.reader().read(file);
+		
+		// both slices start at the same address of the scratch buffer
+		first.put(0, (byte) 'z');
+		Assert.assertEquals('z', second.get(0));
+	}
+	
+	@Test
+	public void testGrowsPastTheScratchBuffer() throws IOException {
+		MappedSources.Reader reader = MappedSources.reader();
+		byte[][] contents = new byte[8][];
+		ByteBuffer[] sources = new ByteBuffer[contents.length];
+		for(int index = 0; index < contents.length; index++) {
+			contents[index] = bytes(MappedSources.MAP_THRESHOLD - 1, (char) ('a' + index));
+			sources[index] = reader.read(this.write(index + ".ts", contents[index]));
+		}
+		
+		for(int index = 0; index < contents.length; index++) {
+			Assert.assertArrayEquals(contents[index], contents(sources[index]));
+		}
+	}
+	
+	@Test
+	public void testMapsLargeFiles() throws IOException {
+		byte[] large = bytes(MappedSources.MAP_THRESHOLD, 'l');
+		
+		ByteBuffer source = MappedSources.reader().read(this.write("large.ts", large));
+		Assert.assertTrue(source.isReadOnly());
+		Assert.assertArrayEquals(large, contents(source));
+	}
+	
+	@Test
+	public void testEmptyFile() throws IOException {
+		ByteBuffer source = MappedSources.reader().read(this.write("empty.ts", new byte[0]));
+		Assert.assertTrue(source.isDirect());
+		Assert.assertEquals(0, source.capacity());
+	}
+	
+	private Path write(String name, byte[] contents) throws IOException {
+		return Files.write(new File(this.directory, name).toPath(), contents);
+	}
+	
+	private static byte[] bytes(int length, char value) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, (byte) value);
+		return bytes;
+	}
+	
+	private static byte[] contents(ByteBuffer source) {
+		Assert.assertEquals(source.capacity(), source.remaining());
+		
+		byte[] bytes = new byte[source.remaining()];
+		source.duplicate().get(bytes);
+		return bytes;
+	}
+	
+}
@@ -0,0 +1,251 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+
+public class SizeAwareParseSchedulerTest {
+	
+	private static final int LARGE = 100;
+	
+	private final StubParser parser = new StubParser();
+	
+	private SizeAwareParseScheduler scheduler;
+	
+	@After
+	public void tearDown() {
+		if(this.scheduler != null) {
+			this.scheduler.close();
+		}
+		
+		this.parser.close();
+	}
+	
+	@Test
+	public void testLargeFilesStayOnTheirLane() throws Exception {
+		this.scheduler = SizeAwareParseScheduler.start(this.parser, options(60000));
+		
+		CompletableFuture<SourceFile> blocker = this.scheduler.submit("block-large", code(LARGE));
+		this.parser.awaitStarted("block-large");
+		
+		this.scheduler.submit("large", code(LARGE * 2));
+		
+		// the idle small worker leaves a large file alone until it is due
+		Thread.sleep(100);
+		Assert.assertEquals(1, this.scheduler.getQueuedLargeCount());
+		Assert.assertEquals(Collections.singletonList("block-large"), this.parser.getParsed());
+		
+		this.parser.release("block-large");
+		blocker.get(5, TimeUnit.SECONDS);
+		this.scheduler.submit("small", code(1)).get(5, TimeUnit.SECONDS);
+		this.scheduler.close();
+		
+		Assert.assertEquals("tsparser-large-1", this.parser.getThread("large"));
+	}
+	
+	@Test
+	public void testLargeFilesShortestFirst() throws Exception {
+		this.scheduler = SizeAwareParseScheduler.start(this.parser, options(60000));
+		
+		this.scheduler.submit("block-large", code(LARGE));
+		this.parser.awaitStarted("block-large");
+		
+		this.scheduler.submit("large-300", code(LARGE * 3));
+		this.scheduler.submit("large-150", code(LARGE + 50));
+		this.scheduler.submit("large-200", code(LARGE * 2));
+		Assert.assertEquals(3, this.scheduler.getQueuedLargeCount());
+		
+		this.parser.release("block-large");
+		this.scheduler.close();
+		
+		Assert.assertEquals(Arrays.asList("block-large", "large-150", "large-200", "large-300"), this.parser.getParsed());
+	}
+	
+	@Test
+	public void testAgedLargeFileGoesFirst() throws Exception {
+		this.scheduler = SizeAwareParseScheduler.start(this.parser, options(50));
+		
+		// keep the workers of both lanes busy
+		this.scheduler.submit("block-large", code(LARGE));
+		this.parser.awaitStarted("block-large");
+		this.scheduler.submit("block-small", code(1));
+		this.parser.awaitStarted("block-small");
+		
+		CompletableFuture<SourceFile> old = this.scheduler.submit("large-old", code(LARGE * 3));
+		Thread.sleep(100);
+		CompletableFuture<SourceFile> young = this.scheduler.submit("large-new", code(LARGE + 1));
+		
+		this.parser.release("block-large");
+		old.get(5, TimeUnit.SECONDS);
+		young.get(5, TimeUnit.SECONDS);
+		this.parser.release("block-small");
+		
+		List<String> parsed = this.parser.getParsed();
+		Assert.assertTrue(parsed.toString(), parsed.indexOf("large-old") < parsed.indexOf("large-new"));
+		Assert.assertEquals("tsparser-large-1", this.parser.getThread("large-old"));
+	}
+	
+	@Test
+	public void testSmallLaneTakesDueLargeFile() throws Exception {
+		this.scheduler = SizeAwareParseScheduler.start(this.parser, options(50));
+		
+		this.scheduler.submit("block-large", code(LARGE));
+		this.parser.awaitStarted("block-large");
+		
+		this.scheduler.submit("large", code(LARGE * 2)).get(5, TimeUnit.SECONDS);
+		Assert.assertEquals("tsparser-small-1", this.parser.getThread("large"));
+		
+		this.parser.release("block-large");
+	}
+	
+	@Test
+	public void testSmallFilesAreBatched() throws Exception {
+		this.scheduler = SizeAwareParseScheduler.start(this.parser, options(60000));
+		
+		this.scheduler.submit("block-large", code(LARGE));
+		this.parser.awaitStarted("block-large");
+		this.scheduler.submit("block-small", code(1));
+		this.parser.awaitStarted("block-small");
+		
+		List<CompletableFuture<SourceFile>> futures = new ArrayList<>();
+		for(int index = 0; index < 3; index++) {
+			futures.add(this.scheduler.submit("small-" + index, code(10)));
+		}
+		
+		Assert.assertEquals(3, this.scheduler.getQueuedSmallCount());
+		this.parser.release("block-small");
+		for(CompletableFuture<SourceFile> future : futures) {
+			Assert.assertNotNull(future.get(5, TimeUnit.SECONDS));
+		}
+		
+		Assert.assertEquals(Collections.singletonList(3), this.parser.getBatchSizes());
+		this.parser.release("block-large");
+	}
+	
+	@Test
+	public void testRejectsWhenFull() throws Exception {
+		this.scheduler = SizeAwareParseScheduler.start(this.parser, options(60000).setQueueCapacity(1));
+		
+		this.scheduler.submit("block-large", code(LARGE));
+		this.parser.awaitStarted("block-large");
+		
+		this.scheduler.submit("large-1", code(LARGE));
+		Assert.assertTrue(this.scheduler.submit("large-2", code(LARGE)).isCompletedExceptionally());
+		
+		this.parser.release("block-large");
+		this.scheduler.close();
+		Assert.assertTrue(this.scheduler.submit("late", code(1)).isCompletedExceptionally());
+	}
+	
+	private static ParseSchedulerOptions options(long maxWaitMillis) {
+		return new ParseSchedulerOptions().setSmallWorkers(1).setLargeWorkers(1).setLargeFileThreshold(LARGE).setMaxWaitMillis(maxWaitMillis);
+	}
+	
+	private static String code(int length) {
+		char[] chars = new char[length];
+		Arrays.fill(chars, ' ');
+		return new String(chars);
+	}
+	
+	/**
+	 * Records which thread parsed each file, in order. Files whose name
+	 * starts with <code>block</code> are held until released.
+	 */
+	static class StubParser extends TypescriptParser {
+		
+		private final List<String> parsed = Collections.synchronizedList(new ArrayList<>());
+		
+		private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		
+		private final Map<String, String> threads = new ConcurrentHashMap<>();
+		
+		private final Map<String, CountDownLatch> started = new ConcurrentHashMap<>();
+		
+		private final Map<String, CountDownLatch> released = new ConcurrentHashMap<>();
+		
+		StubParser() {
+			// no runtime is ever started
+			super(new TypescriptParserOptions(new TypescriptLibrary("stub", "stub.js", "")).setMinIdleRuntimes(0));
+		}
+		
+		@Override
+		public SourceFile parse(String fileName, String code) {
+			this.threads.put(fileName, Thread.currentThread().getName());
+			this.parsed.add(fileName);
+			this.latch(this.started, fileName).countDown();
+			
+			if(fileName.startsWith("block")) {
+				try {
+					this.latch(this.released, fileName).await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			
+			return new SourceFile();
+		}
+		
+		@Override
+		public List<ParseResult> parseBatch(List<SourceInput> inputs) {
+			this.batchSizes.add(inputs.size());
+			
+			List<ParseResult> results = new ArrayList<>();
+			for(SourceInput input : inputs) {
+				results.add(new ParseResult(input.getFileName(), this.parse(input.getFileName(), input.getCode())));
+			}
+			
+			return results;
+		}
+		
+		void awaitStarted(String fileName) throws InterruptedException {
+			Assert.assertTrue(this.latch(this.started, fileName).await(5, TimeUnit.SECONDS));
+		}
+		
+		void release(String fileName) {
+			this.latch(this.released, fileName).countDown();
+		}
+		
+		List<String> getParsed() {
+			return new ArrayList<>(this.parsed);
+		}
+		
+		List<Integer> getBatchSizes() {
+			return new ArrayList<>(this.batchSizes);
+		}
+		
+		String getThread(String fileName) {
+			return this.threads.get(fileName);
+		}
+		
+		private CountDownLatch latch(Map<String, CountDownLatch> latches, String fileName) {
+			return latches.computeIfAbsent(fileName, name -> new CountDownLatch(1));
+		}
+		
+	}
+	
+}
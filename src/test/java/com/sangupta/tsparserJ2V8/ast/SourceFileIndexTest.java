@@ -0,0 +1,159 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.ast;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.AstConverter;
+import com.sangupta.tsparserJ2V8.AstMaps;
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+
+public class SourceFileIndexTest {
+	
+	@Test
+	public void testDeclarationsByName() {
+		SourceFileIndex index = index();
+		
+		// the interface and the class merge under one name, in source order
+		Assert.assertEquals(2, index.getDeclarations("Props").size());
+		Assert.assertEquals(TypescriptUtils.KIND_INTERFACE_DECL, index.getDeclarations("Props").get(0).kind);
+		Assert.assertSame(index.getDeclarations("Props").get(1), index.getDeclaration(TypescriptUtils.KIND_CLASS_DECL, "Props"));
+		Assert.assertNull(index.getDeclaration(TypescriptUtils.KIND_TYPE_ALIAS_DECL, "Props"));
+		
+		// every variable of a statement is declared, destructuring patterns are not
+		Assert.assertEquals(1, index.getDeclarations("a").size());
+		Assert.assertSame(index.getDeclarations("a").get(0), index.getDeclarations("b").get(0));
+		Assert.assertTrue(index.getDeclarations("x").isEmpty());
+		Assert.assertTrue(index.getDeclarations("missing").isEmpty());
+	}
+	
+	@Test
+	public void testStatementsByKind() {
+		SourceFileIndex index = index();
+		
+		Assert.assertEquals(4, index.getStatements(TypescriptUtils.KIND_IMPORT_DECL).size());
+		Assert.assertEquals(2, index.getStatements(TypescriptUtils.KIND_CLASS_DECL).size());
+		Assert.assertTrue(index.hasStatement(TypescriptUtils.KIND_EXPORT_ASSIGNMENT));
+		Assert.assertFalse(index.hasStatement(TypescriptUtils.KIND_TYPE_ALIAS_DECL));
+		Assert.assertTrue(index.getStatements(TypescriptUtils.KIND_TYPE_ALIAS_DECL).isEmpty());
+	}
+	
+	@Test
+	public void testExports() {
+		SourceFileIndex index = index();
+		
+		Assert.assertEquals(TypescriptUtils.KIND_INTERFACE_DECL, index.getExport("Props").kind);
+		Assert.assertNotNull(index.getExport("a"));
+		Assert.assertSame(index.getExport("a"), index.getExport("b"));
+		Assert.assertNull(index.getExport("helper"));
+		Assert.assertNull(index.getExport("Button"));
+		Assert.assertEquals(3, index.getExports().size());
+	}
+	
+	@Test
+	public void testDefaultExportByAssignment() {
+		// export default Button;
+		SourceFileIndex index = index();
+		Assert.assertSame(index.getDeclaration(TypescriptUtils.KIND_CLASS_DECL, "Button"), index.getDefaultExport());
+	}
+	
+	@Test
+	public void testDefaultExportByModifier() {
+		Map<String, Object> app = AstMaps.node(TypescriptUtils.KIND_FUNCTION_DECL, "name", AstMaps.identifier("App"),
+				"modifiers", AstMaps.list(AstMaps.modifier(TypescriptUtils.KIND_EXPORT_KEYWORD), AstMaps.modifier(TypescriptUtils.KIND_DEFAULT_KEYWORD)));
+		SourceFileIndex index = AstConverter.convertToAst(AstMaps.sourceFile(app), SourceFile.class).getIndex();
+		
+		Assert.assertEquals("App", index.getDefaultExport().name.escapedText);
+		Assert.assertNull(index.getExport("App"));
+	}
+	
+	@Test
+	public void testImports() {
+		SourceFileIndex index = index();
+		
+		Assert.assertEquals("react", index.getImportPath("React"));
+		Assert.assertEquals(SourceFileIndex.DEFAULT_IMPORT, index.getImportedName("React"));
+		
+		Assert.assertEquals("path", index.getImportPath("path"));
+		Assert.assertEquals(SourceFileIndex.NAMESPACE_IMPORT, index.getImportedName("path"));
+		
+		Assert.assertEquals("react", index.getImportPath("Base"));
+		Assert.assertEquals("Component", index.getImportedName("Base"));
+		Assert.assertEquals("useState", index.getImportedName("useState"));
+		
+		Assert.assertNull(index.getImportPath("Component"));
+		Assert.assertEquals(4, index.getImports().size());
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void testImmutable() {
+		index().getImports().put("other", "other");
+	}
+	
+	/**
+	 * import React from 'react';
+	 * import * as path from 'path';
+	 * import { Component as Base, useState } from 'react';
+	 * import './styles.css';
+	 * export interface Props {}
+	 * class Props {}
+	 * export const a = 1, b = 2;
+	 * const { x } = other;
+	 * function helper() {}
+	 * class Button {}
+	 * export default Button;
+	 */
+	private static SourceFileIndex index() {
+		Map<String, Object> map = AstMaps.sourceFile(
+				importOf("react", AstMaps.node(0, "name", AstMaps.identifier("React"))),
+				importOf("path", AstMaps.node(0, "namedBindings", AstMaps.node(0, "name", AstMaps.identifier("path")))),
+				importOf("react", AstMaps.node(0, "namedBindings", AstMaps.node(0, "elements", AstMaps.list(
+						AstMaps.node(0, "name", AstMaps.identifier("Base"), "propertyName", AstMaps.identifier("Component")),
+						AstMaps.node(0, "name", AstMaps.identifier("useState")))))),
+				importOf("./styles.css", null),
+				declaration(TypescriptUtils.KIND_INTERFACE_DECL, "Props", true),
+				declaration(TypescriptUtils.KIND_CLASS_DECL, "Props", false),
+				variables(true, AstMaps.identifier("a"), AstMaps.identifier("b")),
+				variables(false, AstMaps.node(0, "elements", AstMaps.list(AstMaps.node(0, "name", AstMaps.identifier("x"))))),
+				declaration(TypescriptUtils.KIND_FUNCTION_DECL, "helper", false),
+				declaration(TypescriptUtils.KIND_CLASS_DECL, "Button", false),
+				AstMaps.node(TypescriptUtils.KIND_EXPORT_ASSIGNMENT, "expression", AstMaps.identifier("Button")));
+		
+		return AstConverter.convertToAst(map, SourceFile.class).getIndex();
+	}
+	
+	private static Map<String, Object> importOf(String library, Map<String, Object> importClause) {
+		return AstMaps.node(TypescriptUtils.KIND_IMPORT_DECL, "importClause", importClause,
+				"moduleSpecifier", AstMaps.node(TypescriptUtils.KIND_STRING_LITERAL, "text", library));
+	}
+	
+	private static Map<String, Object> declaration(int kind, String name, boolean exported) {
+		return AstMaps.node(kind, "name", AstMaps.identifier(name),
+				"modifiers", exported ? AstMaps.list(AstMaps.modifier(TypescriptUtils.KIND_EXPORT_KEYWORD)) : AstMaps.list());
+	}
+	
+	private static Map<String, Object> variables(boolean exported, Object... names) {
+		Object[] declarations = new Object[names.length];
+		for(int index = 0; index < names.length; index++) {
+			declarations[index] = AstMaps.node(0, "name", names[index]);
+		}
+		
+		return AstMaps.node(0, "declarationList", AstMaps.node(0, "declarations", AstMaps.list(declarations)),
+				"modifiers", exported ? AstMaps.list(AstMaps.modifier(TypescriptUtils.KIND_EXPORT_KEYWORD)) : AstMaps.list());
+	}
+	
+}
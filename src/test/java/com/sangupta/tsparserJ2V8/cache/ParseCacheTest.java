@@ -0,0 +1,209 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+import com.sangupta.tsparserJ2V8.ast.Statement;
+
+public class ParseCacheTest {
+	
+	private File directory;
+	
+	@Before
+	public void createDirectory() throws IOException {
+		this.directory = Files.createTempDirectory("parse-cache").toFile();
+	}
+	
+	@After
+	public void deleteDirectory() {
+		FileUtils.deleteQuietly(this.directory);
+	}
+	
+	@Test
+	public void testEvictsLeastRecentlyUsedByWeight() {
+		ParseCache cache = new ParseCache(10);
+		SourceFile a = sourceFile(1);
+		SourceFile b = sourceFile(2);
+		
+		cache.put("a.ts", "aaaa", a);
+		cache.put("b.ts", "bbbb", b);
+		
+		// a is now more recently used than b
+		Assert.assertSame(a, cache.get("a.ts", "aaaa"));
+		
+		cache.put("c.ts", "cccc", sourceFile(3));
+		Assert.assertEquals(2, cache.getStats().getEntries());
+		Assert.assertEquals(8, cache.getStats().getWeight());
+		Assert.assertEquals(1, cache.getStats().getEvictions());
+		
+		Assert.assertNull(cache.get("b.ts", "bbbb"));
+		Assert.assertSame(a, cache.get("a.ts", "aaaa"));
+		Assert.assertNotNull(cache.get("c.ts", "cccc"));
+	}
+	
+	@Test
+	public void testSkipsSourcesHeavierThanTheCache() {
+		ParseCache cache = new ParseCache(3);
+		cache.put("a.ts", "aaaa", sourceFile(1));
+		
+		Assert.assertNull(cache.get("a.ts", "aaaa"));
+		Assert.assertEquals(0, cache.getStats().getEntries());
+		Assert.assertEquals(0, cache.getStats().getEvictions());
+	}
+	
+	@Test
+	public void testCounters() {
+		ParseCache cache = new ParseCache(100);
+		Assert.assertNull(cache.get("a.ts", "a"));
+		
+		cache.put("a.ts", "a", sourceFile(1));
+		cache.get("a.ts", "a");
+		cache.get("a.ts", "a");
+		Assert.assertNull(cache.get("a.ts", "b"));
+		
+		CacheStats stats = cache.getStats();
+		Assert.assertEquals(2, stats.getMemoryHits());
+		Assert.assertEquals(0, stats.getDiskHits());
+		Assert.assertEquals(2, stats.getMisses());
+		Assert.assertEquals(4, stats.getRequests());
+		Assert.assertEquals(0.5d, stats.getHitRate(), 0.0001d);
+		
+		cache.clear();
+		Assert.assertEquals(0, cache.getStats().getEntries());
+		Assert.assertEquals(0, cache.getStats().getWeight());
+	}
+	
+	@Test
+	public void testKeyedPutAndGet() {
+		ParseCache cache = new ParseCache(100);
+		String key = cache.keyOf("a.ts", "code");
+		cache.put(key, 4, sourceFile(1));
+		
+		Assert.assertNotNull(cache.get("a.ts", "code"));
+		Assert.assertEquals(4, cache.getStats().getWeight());
+	}
+	
+	@Test
+	public void testDiskRoundTrip() {
+		ParseCache cache = new ParseCache(100, this.directory, "1.0");
+		cache.put("a.ts", "class A {}", sourceFile(253));
+		
+		// a new cache starts with an empty memory tier
+		ParseCache reopened = new ParseCache(100, this.directory, "1.0");
+		SourceFile sourceFile = reopened.get("a.ts", "class A {}");
+		Assert.assertNotNull(sourceFile);
+		Assert.assertEquals(1, sourceFile.statements.size());
+		Assert.assertEquals(253, sourceFile.statements.get(0).kind);
+		Assert.assertEquals(1, reopened.getStats().getDiskHits());
+		
+		// and keeps it in memory afterwards
+		reopened.get("a.ts", "class A {}");
+		Assert.assertEquals(1, reopened.getStats().getMemoryHits());
+		
+		// another version does not see it
+		Assert.assertNull(new ParseCache(100, this.directory, "2.0").get("a.ts", "class A {}"));
+	}
+	
+	@Test
+	public void testCorruptEntryIsMissAndDeleted() throws IOException {
+		ParseCache cache = new ParseCache(100, this.directory, "1.0");
+		cache.put("a.ts", "class A {}", sourceFile(253));
+		
+		String key = cache.keyOf("a.ts", "class A {}");
+		File entry = new File(new File(new File(this.directory, "typescript-1.0"), key.substring(0, 2)), key + ".json.gz");
+		Assert.assertTrue(entry.exists());
+		FileUtils.writeStringToFile(entry, "not gzip", StandardCharsets.UTF_8);
+		
+		ParseCache reopened = new ParseCache(100, this.directory, "1.0");
+		Assert.assertNull(reopened.get("a.ts", "class A {}"));
+		Assert.assertEquals(1, reopened.getStats().getMisses());
+		Assert.assertFalse(entry.exists());
+	}
+	
+	@Test
+	public void testKeys() {
+		ParseCache cache = new ParseCache(100, null, "1.0");
+		final String key = cache.keyOf("a.ts", "let a = 1;");
+		
+		Assert.assertEquals(64, key.length());
+		Assert.assertEquals(key, cache.keyOf("a.ts", "let a = 1;"));
+		
+		// only the extension of the name counts
+		Assert.assertEquals(key, cache.keyOf("src/b.ts", "let a = 1;"));
+		Assert.assertEquals(key, cache.keyOf("b.TS", "let a = 1;"));
+		
+		Assert.assertNotEquals(key, cache.keyOf("a.tsx", "let a = 1;"));
+		Assert.assertNotEquals(key, cache.keyOf("a.ts", "let a = 2;"));
+		Assert.assertNotEquals(key, new ParseCache(100, null, "2.0").keyOf("a.ts", "let a = 1;"));
+	}
+	
+	@Test
+	public void testCachedFilesAreFrozen() {
+		ParseCache cache = new ParseCache(100);
+		SourceFile sourceFile = sourceFile(253);
+		cache.put("a.ts", "class A {}", sourceFile);
+		
+		SourceFile cached = cache.get("a.ts", "class A {}");
+		try {
+			cached.statements.add(new Statement());
+			Assert.fail("statements of a cached file must not change");
+		} catch(UnsupportedOperationException e) {
+			// expected
+		}
+		
+		try {
+			cached.statements.get(0).members.clear();
+			Assert.fail("members of a cached statement must not change");
+		} catch(UnsupportedOperationException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testPurgeOtherVersions() {
+		new ParseCache(100, this.directory, "1.0");
+		new ParseCache(100, this.directory, "2.0");
+		
+		// opening a cache keeps the stores of other versions
+		Assert.assertTrue(new File(this.directory, "typescript-1.0").isDirectory());
+		
+		ParseCache cache = new ParseCache(100, this.directory, "3.0");
+		Assert.assertEquals(2, cache.purgeOtherVersions());
+		Assert.assertFalse(new File(this.directory, "typescript-1.0").exists());
+		Assert.assertFalse(new File(this.directory, "typescript-2.0").exists());
+		Assert.assertTrue(new File(this.directory, "typescript-3.0").isDirectory());
+	}
+	
+	private static SourceFile sourceFile(int kind) {
+		Statement statement = new Statement();
+		statement.kind = kind;
+		
+		SourceFile sourceFile = new SourceFile();
+		sourceFile.kind = 300;
+		sourceFile.statements.add(statement);
+		return sourceFile;
+	}
+	
+}
@@ -0,0 +1,111 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+	
+	@Test
+	public void testSmallValuesHaveBucketsOfTheirOwn() {
+		for(long value = 0; value < 8; value++) {
+			Assert.assertEquals(value, Histogram.indexOf(value));
+			Assert.assertEquals(value, Histogram.upperBoundOf((int) value));
+		}
+	}
+	
+	@Test
+	public void testFirstLogarithmicBuckets() {
+		Assert.assertEquals(8, Histogram.indexOf(8));
+		Assert.assertEquals(8, Histogram.upperBoundOf(8));
+		
+		Assert.assertEquals(15, Histogram.indexOf(15));
+		Assert.assertEquals(15, Histogram.upperBoundOf(15));
+		
+		// from 16 on buckets are two wide
+		Assert.assertEquals(16, Histogram.indexOf(16));
+		Assert.assertEquals(16, Histogram.indexOf(17));
+		Assert.assertEquals(17, Histogram.upperBoundOf(16));
+		Assert.assertEquals(17, Histogram.indexOf(18));
+	}
+	
+	@Test
+	public void testLargestValue() {
+		final int index = Histogram.indexOf(Long.MAX_VALUE);
+		Assert.assertEquals(Long.MAX_VALUE, Histogram.upperBoundOf(index));
+		Assert.assertTrue(index < 64 * 8);
+		Assert.assertEquals(index, Histogram.indexOf(Long.MAX_VALUE - (1l << 58)));
+	}
+	
+	@Test
+	public void testPowersOfTwo() {
+		for(int bit = 0; bit < 63; bit++) {
+			final long power = 1l << bit;
+			assertBucketHolds(power - 1);
+			assertBucketHolds(power);
+			assertBucketHolds(power + 1);
+			
+			// each power of two starts a bucket
+			if(power >= 8) {
+				Assert.assertEquals(power - 1, Histogram.upperBoundOf(Histogram.indexOf(power) - 1));
+			}
+		}
+	}
+	
+	@Test
+	public void testPercentiles() {
+		Histogram histogram = new Histogram();
+		Assert.assertEquals(0, histogram.getPercentile(0.5));
+		
+		for(long value = 1; value <= 100; value++) {
+			histogram.record(value);
+		}
+		
+		Assert.assertEquals(100, histogram.getCount());
+		Assert.assertEquals(100, histogram.getMax());
+		Assert.assertEquals(50.5, histogram.getMean(), 0.0);
+		
+		// 50 lies in the bucket 48 to 51
+		Assert.assertEquals(51, histogram.getPercentile(0.5));
+		
+		// never above the largest value recorded
+		Assert.assertEquals(100, histogram.getPercentile(0.99));
+		Assert.assertEquals(100, histogram.getPercentile(1));
+	}
+	
+	@Test
+	public void testNegativeValuesCountAsZero() {
+		Histogram histogram = new Histogram();
+		histogram.record(-5);
+		
+		Assert.assertEquals(1, histogram.getCount());
+		Assert.assertEquals(0, histogram.getPercentile(1));
+	}
+	
+	/**
+	 * The bucket of the value must hold it, and be no wider than an eighth
+	 * of the value.
+	 */
+	private static void assertBucketHolds(long value) {
+		final int index = Histogram.indexOf(value);
+		final long upper = Histogram.upperBoundOf(index);
+		final long lower = index == 0 ? 0 : Histogram.upperBoundOf(index - 1) + 1;
+		
+		Assert.assertTrue("value " + value + " above bucket " + upper, value <= upper);
+		Assert.assertTrue("value " + value + " below bucket " + lower, value >= lower);
+		Assert.assertTrue("bucket of " + value + " too wide", upper - lower <= Math.max(0, value / 8));
+	}
+	
+}
@@ -0,0 +1,135 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.ImportList;
+
+public class DependencyGraphTest {
+	
+	@Test
+	public void testCycles() {
+		// a -> b -> c -> b, d -> d, e alone
+		DependencyGraph graph = graph(5, new int[][] { { 1 }, { 2 }, { 1 }, { 3 }, { } });
+		
+		Assert.assertTrue(graph.hasCycles());
+		Assert.assertEquals(Arrays.asList(paths(1, 2), paths(3)), graph.getCycles());
+	}
+	
+	@Test
+	public void testSelfImport() {
+		DependencyGraph graph = graph(2, new int[][] { { 0 }, { 0 } });
+		
+		Assert.assertEquals(Collections.singletonList(paths(0)), graph.getCycles());
+		Assert.assertEquals(paths(0, 1), graph.getTopologicalOrder());
+		Assert.assertEquals(paths(0, 1), graph.getDependents(path(0)));
+	}
+	
+	@Test
+	public void testNoCycles() {
+		DependencyGraph graph = graph(3, new int[][] { { 1, 2 }, { 2 }, { } });
+		
+		Assert.assertFalse(graph.hasCycles());
+		Assert.assertTrue(graph.getCycles().isEmpty());
+		Assert.assertEquals(paths(2, 1, 0), graph.getTopologicalOrder());
+	}
+	
+	@Test
+	public void testOrder() {
+		// a -> c, b -> c, c -> e, d and e import nothing
+		final int[][] dependencies = { { 2 }, { 2 }, { 4 }, { }, { } };
+		DependencyGraph graph = graph(5, dependencies);
+		
+		// of the files free to go next, the smallest path goes first
+		Assert.assertEquals(paths(3, 4, 2, 0, 1), graph.getTopologicalOrder());
+		Assert.assertEquals(graph.getTopologicalOrder(), graph(5, dependencies).getTopologicalOrder());
+		
+		Assert.assertEquals(paths(4), graph.getDependencies(path(2)));
+		Assert.assertEquals(paths(0, 1), graph.getDependents(path(2)));
+		Assert.assertTrue(graph.getDependencies(Paths.get("/elsewhere.ts")).isEmpty());
+	}
+	
+	@Test
+	public void testOrderKeepsCyclesTogether() {
+		// a -> b, b <-> c, c -> d
+		DependencyGraph graph = graph(4, new int[][] { { 1 }, { 2 }, { 1, 3 }, { } });
+		
+		Assert.assertEquals(paths(3, 1, 2, 0), graph.getTopologicalOrder());
+	}
+	
+	@Test
+	public void testLongChain() {
+		// each file imports the next one, deep enough to overflow a recursive walk
+		final int count = 200000;
+		int[][] dependencies = new int[count][];
+		for(int file = 0; file < count; file++) {
+			dependencies[file] = file + 1 < count ? new int[] { file + 1 } : new int[0];
+		}
+		
+		DependencyGraph graph = graph(count, dependencies);
+		Assert.assertFalse(graph.hasCycles());
+		
+		List<Path> order = graph.getTopologicalOrder();
+		Assert.assertEquals(count, order.size());
+		for(int index = 0; index < count; index++) {
+			Assert.assertEquals(path(count - 1 - index), order.get(index));
+		}
+		
+		// close the chain into one cycle
+		dependencies[count - 1] = new int[] { 0 };
+		graph = graph(count, dependencies);
+		
+		Assert.assertEquals(1, graph.getCycles().size());
+		Assert.assertEquals(count, graph.getCycles().get(0).size());
+		Assert.assertEquals(count, graph.getTopologicalOrder().size());
+	}
+	
+	private static DependencyGraph graph(int count, int[][] dependencies) {
+		List<Path> files = new ArrayList<>(count);
+		for(int file = 0; file < count; file++) {
+			files.add(path(file));
+		}
+		
+		Map<Path, List<String>> externalImports = new HashMap<>();
+		return new DependencyGraph(files, dependencies, externalImports, new ArrayList<ImportList>());
+	}
+	
+	private static List<Path> paths(int... files) {
+		List<Path> paths = new ArrayList<>(files.length);
+		for(int file : files) {
+			paths.add(path(file));
+		}
+		
+		return paths;
+	}
+	
+	/**
+	 * Names are zero-padded so that files sort in index order.
+	 */
+	private static Path path(int file) {
+		return Paths.get(String.format("/project/file%06d.ts", file));
+	}
+	
+}
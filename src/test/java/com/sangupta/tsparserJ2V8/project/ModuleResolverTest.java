@@ -0,0 +1,165 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModuleResolverTest {
+	
+	private Path root;
+	
+	private Path importer;
+	
+	@Before
+	public void createProject() throws IOException {
+		this.root = Files.createTempDirectory("module-resolver").toRealPath();
+		this.importer = this.touch("src/app/App.tsx");
+	}
+	
+	@After
+	public void deleteProject() {
+		FileUtils.deleteQuietly(this.root.toFile());
+	}
+	
+	@Test
+	public void testRelativeSpecifiers() throws IOException {
+		Path button = this.touch("src/app/Button.tsx");
+		Path util = this.touch("src/lib/util.ts");
+		Path widgets = this.touch("src/app/widgets/index.ts");
+		Path types = this.touch("src/app/types.d.ts");
+		Path explicit = this.touch("src/app/explicit.ts");
+		this.touch("src/app/script.js");
+		
+		ModuleResolver resolver = new ModuleResolver();
+		Assert.assertEquals(button, resolver.resolve(this.importer, "./Button"));
+		Assert.assertEquals(util, resolver.resolve(this.importer, "../lib/util"));
+		Assert.assertEquals(widgets, resolver.resolve(this.importer, "./widgets"));
+		Assert.assertEquals(types, resolver.resolve(this.importer, "./types"));
+		Assert.assertEquals(explicit, resolver.resolve(this.importer, "./explicit.ts"));
+		
+		// only Typescript sources are part of the project
+		Assert.assertNull(resolver.resolve(this.importer, "./script"));
+		Assert.assertNull(resolver.resolve(this.importer, "./missing"));
+	}
+	
+	@Test
+	public void testProbingOrder() throws IOException {
+		Path ts = this.touch("src/app/both.ts");
+		this.touch("src/app/both.tsx");
+		this.touch("src/app/both.d.ts");
+		Path dts = this.touch("src/app/declared.d.ts");
+		this.touch("src/app/declared/index.ts");
+		Path indexDts = this.touch("src/app/typed/index.d.ts");
+		
+		ModuleResolver resolver = new ModuleResolver();
+		Assert.assertEquals(ts, resolver.resolve(this.importer, "./both"));
+		
+		// a declaration file next to a folder wins over the folder index
+		Assert.assertEquals(dts, resolver.resolve(this.importer, "./declared"));
+		Assert.assertEquals(indexDts, resolver.resolve(this.importer, "./typed"));
+	}
+	
+	@Test
+	public void testBaseUrl() throws IOException {
+		Path button = this.touch("src/components/Button.tsx");
+		
+		ModuleResolver resolver = new ModuleResolver(this.root.resolve("src"), Collections.emptyMap());
+		Assert.assertEquals(button, resolver.resolve(this.importer, "components/Button"));
+		Assert.assertNull(resolver.resolve(this.importer, "react"));
+		
+		// without a base url only relative specifiers resolve
+		Assert.assertNull(new ModuleResolver().resolve(this.importer, "components/Button"));
+	}
+	
+	@Test
+	public void testPathsLongestPrefix() throws IOException {
+		Path util = this.touch("src/util.ts");
+		Path uiButton = this.touch("ui/Button.tsx");
+		this.touch("src/ui/Button.tsx");
+		Path config = this.touch("src/config/index.ts");
+		Path lib = this.touch("src/lib/strings.ts");
+		Path fallback = this.touch("src/plain.ts");
+		
+		Map<String, List<String>> paths = new LinkedHashMap<>();
+		paths.put("@app/*", Collections.singletonList("src/*"));
+		paths.put("@app/ui/*", Collections.singletonList("ui/*"));
+		paths.put("config", Collections.singletonList("src/config"));
+		paths.put("@lib/*", Arrays.asList("missing/*", "src/lib/*"));
+		ModuleResolver resolver = new ModuleResolver(this.root, paths);
+		
+		Assert.assertEquals(util, resolver.resolve(this.importer, "@app/util"));
+		Assert.assertEquals(uiButton, resolver.resolve(this.importer, "@app/ui/Button"));
+		Assert.assertEquals(config, resolver.resolve(this.importer, "config"));
+		
+		// substitutions are tried in order
+		Assert.assertEquals(lib, resolver.resolve(this.importer, "@lib/strings"));
+		
+		// specifiers no pattern matches fall back to the base url
+		Assert.assertEquals(fallback, resolver.resolve(this.importer, "src/plain"));
+		Assert.assertNull(resolver.resolve(this.importer, "@app/missing"));
+	}
+	
+	@Test
+	public void testFromTsConfig() throws IOException {
+		Path button = this.touch("src/components/Button.tsx");
+		Path shared = this.touch("shared/strings.ts");
+		
+		Path tsconfig = this.write("tsconfig.json", "{\n"
+				+ "  // comments are allowed\n"
+				+ "  \"compilerOptions\": {\n"
+				+ "    \"baseUrl\": \"./src\",\n"
+				+ "    \"paths\": { \"@shared/*\": [\"../shared/*\"] }\n"
+				+ "  }\n"
+				+ "}\n");
+		
+		ModuleResolver resolver = ModuleResolver.fromTsConfig(tsconfig);
+		Assert.assertEquals(button, resolver.resolve(this.importer, "components/Button"));
+		Assert.assertEquals(shared, resolver.resolve(this.importer, "@shared/strings"));
+	}
+	
+	@Test
+	public void testFromTsConfigPathsWithoutBaseUrl() throws IOException {
+		Path shared = this.touch("shared/strings.ts");
+		Path tsconfig = this.write("tsconfig.json", "{ \"compilerOptions\": { \"paths\": { \"@shared/*\": [\"shared/*\"] } } }");
+		
+		// paths are then relative to the config file
+		Assert.assertEquals(shared, ModuleResolver.fromTsConfig(tsconfig).resolve(this.importer, "@shared/strings"));
+	}
+	
+	private Path touch(String name) throws IOException {
+		return this.write(name, "");
+	}
+	
+	private Path write(String name, String contents) throws IOException {
+		File file = this.root.resolve(name).toFile();
+		FileUtils.writeStringToFile(file, contents, StandardCharsets.UTF_8);
+		return file.toPath();
+	}
+	
+}
@@ -0,0 +1,156 @@
+/**
+ * 
+ * tsparser-j2v8: Parsing Typescript using V8 in Java 
+ * https://sangupta.com/projects/tsparser-j2v8
+ *
+ * MIT License.
+ * Copyright (c) 2022, Sandeep Gupta.
+ *
+ * Use of this source code is governed by a MIT style license
+ * that can be found in LICENSE file in the code repository.
+ * 
+ */
+
+package com.sangupta.tsparserJ2V8.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sangupta.tsparserJ2V8.TypescriptLibrary;
+import com.sangupta.tsparserJ2V8.TypescriptParser;
+import com.sangupta.tsparserJ2V8.TypescriptParserOptions;
+import com.sangupta.tsparserJ2V8.TypescriptUtils;
+import com.sangupta.tsparserJ2V8.ast.AstObject;
+import com.sangupta.tsparserJ2V8.ast.Expression;
+import com.sangupta.tsparserJ2V8.ast.HeritageClause;
+import com.sangupta.tsparserJ2V8.ast.Member;
+import com.sangupta.tsparserJ2V8.ast.SourceFile;
+import com.sangupta.tsparserJ2V8.ast.Statement;
+import com.sangupta.tsparserJ2V8.ast.Type;
+
+public class ProjectTypeIndexTest {
+	
+	private File directory;
+	
+	private TypescriptParser parser;
+	
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("type-index").toFile();
+	}
+	
+	@After
+	public void tearDown() {
+		if(this.parser != null) {
+			this.parser.close();
+		}
+		
+		FileUtils.deleteQuietly(this.directory);
+	}
+	
+	@Test
+	public void testInheritedMembersAreMemoized() throws IOException {
+		Path file = this.write(interfaceOf("Base", null, "a"), interfaceOf("Props", "Base", "b"));
+		ProjectTypeIndex index = new ProjectTypeIndex(this.parser, new ModuleResolver());
+		
+		List<Member> members = index.getMembersOfType(file, "Props");
+		Assert.assertEquals(Arrays.asList("a", "b"), names(members));
+		Assert.assertSame(members, index.getMembersOfType(file, "Props"));
+		Assert.assertEquals(Arrays.asList("a"), names(index.getMembersOfType(file, "Base")));
+	}
+	
+	@Test
+	public void testCycleDoesNotMemoizePartialMembers() throws IOException {
+		// A extends B, B extends A
+		Path file = this.write(interfaceOf("A", "B", "a"), interfaceOf("B", "A", "b"));
+		ProjectTypeIndex index = new ProjectTypeIndex(this.parser, new ModuleResolver());
+		
+		// flattening B cuts the cycle at B, so A is only seen partially
+		Assert.assertEquals(Arrays.asList("a", "b"), names(index.getMembersOfType(file, "B")));
+		
+		// A must still see what it inherits through B
+		Assert.assertEquals(Arrays.asList("b", "a"), names(index.getMembersOfType(file, "A")));
+		Assert.assertEquals(Arrays.asList("a", "b"), names(index.getMembersOfType(file, "B")));
+	}
+	
+	@Test
+	public void testCycleBelowAnAcyclicType() throws IOException {
+		// Props extends A, A extends B, B extends A
+		Path file = this.write(interfaceOf("Props", "A", "p"), interfaceOf("A", "B", "a"), interfaceOf("B", "A", "b"));
+		ProjectTypeIndex index = new ProjectTypeIndex(this.parser, new ModuleResolver());
+		
+		List<Member> members = index.getMembersOfType(file, "Props");
+		Assert.assertEquals(Arrays.asList("b", "a", "p"), names(members));
+		Assert.assertSame(members, index.getMembersOfType(file, "Props"));
+		Assert.assertEquals(Arrays.asList("a", "b"), names(index.getMembersOfType(file, "B")));
+	}
+	
+	private Path write(Statement... statements) throws IOException {
+		final SourceFile sourceFile = new SourceFile();
+		sourceFile.statements.addAll(Arrays.asList(statements));
+		
+		// no runtime is ever started, the stub hands back the tree
+		TypescriptLibrary library = new TypescriptLibrary("stub", "stub.js", "");
+		this.parser = new TypescriptParser(new TypescriptParserOptions(library).setMinIdleRuntimes(0)) {
+			
+			@Override
+			public SourceFile parse(String fileName, String code) {
+				return sourceFile;
+			}
+			
+		};
+		
+		return Files.write(new File(this.directory, "types.ts").toPath(), new byte[0]);
+	}
+	
+	private static Statement interfaceOf(String name, String base, String... members) {
+		Statement statement = new Statement();
+		statement.kind = TypescriptUtils.KIND_INTERFACE_DECL;
+		statement.name = identifier(name);
+		
+		if(base != null) {
+			Type type = new Type();
+			type.expression = new Expression();
+			type.expression.escapedText = base;
+			
+			HeritageClause clause = new HeritageClause();
+			clause.types.add(type);
+			statement.heritageClauses.add(clause);
+		}
+		
+		for(String member : members) {
+			Member property = new Member();
+			property.name = identifier(member);
+			statement.members.add(property);
+		}
+		
+		return statement;
+	}
+	
+	private static AstObject identifier(String name) {
+		AstObject identifier = new AstObject();
+		identifier.escapedText = name;
+		return identifier;
+	}
+	
+	private static List<String> names(List<Member> members) {
+		List<String> names = new ArrayList<>();
+		for(Member member : members) {
+			names.add(member.name.escapedText);
+		}
+		
+		return names;
+	}
+	
+}